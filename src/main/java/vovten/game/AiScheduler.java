@@ -0,0 +1,46 @@
+package vovten.game;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler of the AI players.
+ * All the Terminators share a bounded pool of daemon threads, so the number of the threads
+ * does not depend on the number of the games.
+ */
+public final class AiScheduler {
+
+    private AiScheduler() {
+    }
+
+    /**
+     * @return the scheduler shared by all the AI players, its threads number equals the number of the processors
+     */
+    public static ScheduledExecutorService getShared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Creates a scheduler with its own daemon threads
+     * @param threadsNumber number of the threads
+     * @return the scheduler, the caller has to shut it down
+     */
+    public static ScheduledExecutorService newScheduler(int threadsNumber) {
+        if (threadsNumber < 1) throw new IllegalArgumentException("Threads number must be positive: " + threadsNumber);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "ai-scheduler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(threadsNumber, factory);
+        result.setRemoveOnCancelPolicy(true);
+        return result;
+    }
+
+    private static class Holder {
+        static final ScheduledExecutorService SHARED = newScheduler(Runtime.getRuntime().availableProcessors());
+    }
+}
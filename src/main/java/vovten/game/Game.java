@@ -1,34 +1,48 @@
 package vovten.game;
 
+import vovten.game.ai.Outcome;
 import vovten.game.field.Cell;
 import vovten.game.field.BattleField;
 import vovten.game.field.FieldBuilder;
-import vovten.util.Observable;
-import vovten.util.Observer;
+import vovten.util.EventBus;
+import vovten.util.EventRing;
 
 import java.util.*;
 
 /**
  * Represents a game session of Battleship.
  * Manages game flow, strike processing, and player interactions.
+ * The subscribers of the {@link #getEvents() events} receive a {@link Status} when the game starts
+ * or a player surrenders and a single {@link StrikeResult} or {@link SalvoResult} after every strike.
+ * The events are only queued on the thread of the strike, so the subscribers add no latency to the game.
+ * A hosted game may also publish the same events into the preallocated {@link EventRing},
+ * the readers of the ring read them at their own cursors without any allocation.
  */
-public class Game implements Observable {
+public class Game {
+    /**
+     * Size of the field by the classic rules, see {@link RuleSet#CLASSIC}
+     */
     public static final int FIELD_SIZE = 10;
+    /**
+     * Number of the ships by the classic rules
+     */
     public static final int GENERAL_SHIPS_NUMBER = 10;
     private final BattleField firstBattleField;
     private final BattleField secondBattleField;
     private Player firstPlayer;
     private Player secondPlayer;
-    private State state;
-    private Player winner;
-    private Cell struckCell;
-    private Ship currDamagedShip;
-    private final List<Observer> observers;
+    private final EventBus<GameEvent> events;
+    private volatile EventRing<GameEvent> eventRing;
+    private volatile State state;
+    private volatile Player winner;
 
     public Game(BattleField firstBattleField, BattleField secondBattleField) {
+        if (!firstBattleField.getRuleSet().equals(secondBattleField.getRuleSet())) {
+            throw new IllegalArgumentException("The fields are built by different rules");
+        }
         this.firstBattleField = firstBattleField;
         this.secondBattleField = secondBattleField;
-        observers = new ArrayList<>();
+        events = new EventBus<>();
     }
 
     public Game(BattleField firstBattleField, BattleField secondBattleField, Player firstPlayer, Player secondPlayer) {
@@ -45,36 +59,107 @@ public class Game implements Observable {
      * Start game
      */
     public void start() {
-        if (determineBeginPlayer() == Player.ID.FIRST) {
+        start(determineBeginPlayer());
+    }
+
+    /**
+     * Start game
+     * @param beginPlayer the player who strikes first
+     */
+    public void start(Player.ID beginPlayer) {
+        if (beginPlayer == Player.ID.FIRST) {
             state = State.FP_STRIKE;
-            notifyObservers(Status.FP_STRIKE);
+            publish(Status.FP_STRIKE);
         } else {
             state = State.SP_STRIKE;
-            notifyObservers(Status.SP_STRIKE);
+            publish(Status.SP_STRIKE);
         }
     }
 
     /**
-     * The strike of the player on the adversary field
+     * The strike of the player on the adversary field. The subscribers receive the returned result as a single event.
+     * By the salvo rules the strike is a salvo of one cell, see {@link #strikeBatch(Player, List)}.
      * @param player player
      * @param cell position of strike
+     * @return the result of the strike or null if it is not the turn of the player
      */
-    public void strike(Player player, Cell cell) {
-        struckCell = cell;
-        switch (state) {
-            case FP_STRIKE:
-                if (!player.isFirstPlayer()) break;
-                playerStrike(player, secondBattleField, cell);
-                break;
+    public StrikeResult strike(Player player, Cell cell) {
+        if (getRuleSet().isSalvo()) {
+            SalvoResult salvo = strikeBatch(player, Collections.singletonList(cell));
+            return salvo == null ? null : salvo.getStrike(0);
+        }
+        if (!isTurnOf(player)) return null;
+        StrikeResult result = resolveStrike(player, getAdversaryBattleField(player), cell, true);
+        if (result.isGameOver()) {
+            state = State.GAME_OVER;
+            winner = player;
+        } else if (result.isTurnPassed()) {
+            state = player.isFirstPlayer() ? State.SP_STRIKE : State.FP_STRIKE;
+        }
+        publish(result);
+        return result;
+    }
 
-            case SP_STRIKE:
-                if (!player.isSecondPlayer()) break;
-                playerStrike(player, firstBattleField, cell);
-                break;
+    /**
+     * The strike of the player on the adversary field
+     * @param player player
+     * @param index index of the strike position, see {@link RuleSet#index(Cell)}
+     * @return the result of the strike or null if it is not the turn of the player
+     * @throws IllegalArgumentException if the index is out of the field
+     */
+    public StrikeResult strike(Player player, int index) {
+        return strike(player, getRuleSet().cellOf(index));
+    }
 
-            case GAME_OVER:
-                break;
+    /**
+     * Strikes the cells of the adversary field in a single pass.
+     * The subscribers receive the returned result as a single event.
+     * By the salvo rules the player fires at most one cell per own surviving ship and the turn passes after the batch.
+     * By the default rules the cells are resolved until the first miss, as if they were struck one by one,
+     * and the turn passes after the miss.
+     * @param player player
+     * @param cells positions of the strikes, every cell at most once
+     * @return the result of the batch or null if it is not the turn of the player
+     * @throws IllegalArgumentException if the batch is empty, too large or has the same cell twice
+     */
+    public SalvoResult strikeBatch(Player player, List<Cell> cells) {
+        if (!isTurnOf(player)) return null;
+        boolean salvo = getRuleSet().isSalvo();
+        if (cells.isEmpty()) throw new IllegalArgumentException("No cells to strike");
+        if (new HashSet<>(cells).size() != cells.size()) {
+            throw new IllegalArgumentException("The same cell is struck twice: " + cells);
+        }
+        if (salvo && cells.size() > getSurvivingShipsNumber(player)) {
+            throw new IllegalArgumentException("Salvo of " + cells.size() + " cells exceeds the surviving ships");
         }
+        BattleField battleField = getAdversaryBattleField(player);
+        StrikeResult[] strikes = new StrikeResult[cells.size()];
+        int n = 0;
+        for (Cell cell : cells) {
+            StrikeResult strike = resolveStrike(player, battleField, cell, !salvo);
+            strikes[n++] = strike;
+            if (strike.isTurnPassed() || strike.isGameOver()) break;
+        }
+        boolean gameOver = strikes[n - 1].isGameOver();
+        boolean turnPassed = !gameOver && (salvo || strikes[n - 1].isTurnPassed());
+        if (salvo && turnPassed) strikes[n - 1] = strikes[n - 1].passTurn();
+        if (gameOver) {
+            state = State.GAME_OVER;
+            winner = player;
+        } else if (turnPassed) {
+            state = player.isFirstPlayer() ? State.SP_STRIKE : State.FP_STRIKE;
+        }
+        SalvoResult result = new SalvoResult(player, Arrays.copyOf(strikes, n), gameOver, turnPassed);
+        publish(result);
+        return result;
+    }
+
+    /**
+     * @param player player
+     * @return number of the ships of the player which are not sunk, the size of the salvo of the player
+     */
+    public int getSurvivingShipsNumber(Player player) {
+        return (player.isFirstPlayer() ? firstBattleField : secondBattleField).getShips().size();
     }
 
     /**
@@ -86,21 +171,33 @@ public class Game implements Observable {
         switch (player.getID()) {
             case FIRST:
                 winner = secondPlayer;
-                notifyObservers(Status.FP_SURRENDERED);
+                publish(Status.FP_SURRENDERED);
                 break;
             case SECOND:
                 winner = firstPlayer;
-                notifyObservers(Status.SP_SURRENDERED);
+                publish(Status.SP_SURRENDERED);
                 break;
         }
     }
 
-    public Ship getCurrDamagedShip() {
-        return currDamagedShip;
+    /**
+     * Returns the player who has to strike now
+     * @return current player or null if the game is not started or over
+     */
+    public Player getCurrentPlayer() {
+        if (state == null) return null;
+        switch (state) {
+            case FP_STRIKE:
+                return firstPlayer;
+            case SP_STRIKE:
+                return secondPlayer;
+            default:
+                return null;
+        }
     }
 
-    public Cell getStruckCell() {
-        return struckCell;
+    public boolean isGameOver() {
+        return state == State.GAME_OVER;
     }
 
     public Player getWinner() {
@@ -115,6 +212,24 @@ public class Game implements Observable {
         return secondPlayer;
     }
 
+    public RuleSet getRuleSet() {
+        return firstBattleField.getRuleSet();
+    }
+
+    /**
+     * @return the bus of the events of the game
+     */
+    public EventBus<GameEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * @param eventRing the ring the events of the game are published into, the game is its only writer
+     */
+    public void setEventRing(EventRing<GameEvent> eventRing) {
+        this.eventRing = eventRing;
+    }
+
     public BattleField getFirstBattleField() {
         return firstBattleField;
     }
@@ -131,44 +246,33 @@ public class Game implements Observable {
         return secondBattleField.getShips();
     }
 
-    @Override
-    public void addObserver(Observer observer) {
-        observers.add(observer);
-    }
-
-    @Override
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
+    private void publish(GameEvent event) {
+        events.publish(event);
+        EventRing<GameEvent> ring = eventRing;
+        if (ring != null) {
+            ring.publish(event);
+        }
     }
 
-    @Override
-    public void notifyObservers() {
-        observers.forEach(observer -> observer.update(this, null));
+    private boolean isTurnOf(Player player) {
+        Player current = getCurrentPlayer();
+        return current != null && current.getID() == player.getID();
     }
 
-    @Override
-    public void notifyObservers(Object arg) {
-        observers.forEach(observer -> observer.update(this, arg));
+    private BattleField getAdversaryBattleField(Player player) {
+        return player.isFirstPlayer() ? secondBattleField : firstBattleField;
     }
 
-    private void playerStrike(Player player, BattleField battleField, Cell cell) {
-        if (battleField.strike(cell)) {
-            currDamagedShip = battleField.getDamagedShip();
-            notifyObservers(player.isFirstPlayer() ? Status.FP_GOOD_STRIKE : Status.SP_GOOD_STRIKE);
-            if (currDamagedShip.isDestroyed()) {
-                notifyObservers(player.isFirstPlayer() ? Status.FP_DESTROYED_SHIP : Status.SP_DESTROYED_SHIP);
-            }
-            if (battleField.isNavyDestroyed()) {
-                state = State.GAME_OVER;
-                winner = player;
-                notifyObservers(Status.GAME_OVER);
-            }
-        } else {
-            state = player.isFirstPlayer() ? State.SP_STRIKE : State.FP_STRIKE;
-            notifyObservers(player.isFirstPlayer() ? Status.FP_BAD_STRIKE : Status.SP_BAD_STRIKE);
-            notifyObservers(player.isFirstPlayer() ? Status.SP_STRIKE : Status.FP_STRIKE);
-        }
-        notifyObservers(player.isFirstPlayer() ? Status.FP_HAS_STRUCK : Status.SP_HAS_STRUCK);
+    /**
+     * @param missPassesTurn true if the turn passes after a miss, false in a salvo
+     */
+    private static StrikeResult resolveStrike(Player player, BattleField battleField, Cell cell,
+                                              boolean missPassesTurn) {
+        int shipsNumber = battleField.getShips().size();
+        if (!battleField.strike(cell)) return StrikeResult.miss(player.getID(), cell, missPassesTurn);
+        Outcome outcome = battleField.getShips().size() < shipsNumber ? Outcome.SUNK : Outcome.HIT;
+        return new StrikeResult(player.getID(), cell, outcome, battleField.getDamagedShip(),
+                battleField.isNavyDestroyed(), false);
     }
 
     private Player.ID determineBeginPlayer() {
@@ -181,24 +285,25 @@ public class Game implements Observable {
         }
     }
 
-    public enum Status {
+    public enum Status implements GameEvent {
         //FP - first player
-        FP_STRIKE,
-        FP_GOOD_STRIKE,
-        FP_BAD_STRIKE,
-        FP_DESTROYED_SHIP,
-        FP_HAS_STRUCK,
-        FP_SURRENDERED,
+        FP_STRIKE(Player.ID.FIRST),
+        FP_SURRENDERED(Player.ID.FIRST),
 
         //SP - second player
-        SP_STRIKE,
-        SP_GOOD_STRIKE,
-        SP_BAD_STRIKE,
-        SP_DESTROYED_SHIP,
-        SP_HAS_STRUCK,
-        SP_SURRENDERED,
+        SP_STRIKE(Player.ID.SECOND),
+        SP_SURRENDERED(Player.ID.SECOND);
 
-        GAME_OVER
+        private final Player.ID playerId;
+
+        Status(Player.ID playerId) {
+            this.playerId = playerId;
+        }
+
+        @Override
+        public Player.ID getPlayerId() {
+            return playerId;
+        }
     }
 
     private enum State {
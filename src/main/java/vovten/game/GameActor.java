@@ -0,0 +1,197 @@
+package vovten.game;
+
+import vovten.game.field.Cell;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Confines the {@link Game} to a single owner thread at a time.
+ * The commands of any thread are queued in the mailbox of the game and executed one by one on the executor,
+ * their results are returned as futures. Every command sees the effects of the previous ones,
+ * so the game needs no locks. The mailboxes are independent, so many games share the threads of the executor
+ * without a global lock, with a single threaded executor the owner thread of the game is always the same.
+ */
+public final class GameActor implements Executor {
+    private static final int BATCH_SIZE = 64;
+    private final Game game;
+    private final Executor executor;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Runnable drain = this::drain;
+    private volatile Thread owner;
+
+    /**
+     * @param game the confined game
+     */
+    public GameActor(Game game) {
+        this(game, getDefaultExecutor());
+    }
+
+    /**
+     * @param game the confined game
+     * @param executor executor of the commands, it may be shared between the games
+     */
+    public GameActor(Game game, Executor executor) {
+        this.game = game;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the executor shared by the games, its daemon threads number equals the number of the processors
+     */
+    public static Executor getDefaultExecutor() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Queues the command to the game
+     * @param command command, it may access the game freely
+     * @throws RejectedExecutionException if the executor is shut down, the command is never executed
+     */
+    @Override
+    public void execute(Runnable command) {
+        mailbox.offer(command);
+        if (!scheduled.compareAndSet(false, true)) return;
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            mailbox.remove(command);
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the command to the game
+     * @param command command
+     * @param <T> type of the result
+     * @return the result of the command, completed on the owner thread,
+     *         failed with {@link RejectedExecutionException} if the executor is shut down
+     */
+    public <T> CompletableFuture<T> call(Function<? super Game, ? extends T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            execute(() -> {
+                try {
+                    result.complete(command.apply(game));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * @see Game#start()
+     */
+    public CompletableFuture<Void> start() {
+        return call(game -> {
+            game.start();
+            return null;
+        });
+    }
+
+    /**
+     * @see Game#start(Player.ID)
+     */
+    public CompletableFuture<Void> start(Player.ID beginPlayer) {
+        return call(game -> {
+            game.start(beginPlayer);
+            return null;
+        });
+    }
+
+    /**
+     * @see Game#strike(Player, Cell)
+     */
+    public CompletableFuture<StrikeResult> strike(Player player, Cell cell) {
+        return call(game -> game.strike(player, cell));
+    }
+
+    /**
+     * @see Game#strikeBatch(Player, List)
+     */
+    public CompletableFuture<SalvoResult> strikeBatch(Player player, List<Cell> cells) {
+        return call(game -> game.strikeBatch(player, cells));
+    }
+
+    /**
+     * @see Game#surrender(Player)
+     */
+    public CompletableFuture<Void> surrender(Player player) {
+        return call(game -> {
+            game.surrender(player);
+            return null;
+        });
+    }
+
+    /**
+     * @return the confined game, it may be accessed only by the commands
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return true if the calling thread executes a command of the game now
+     */
+    public boolean isOwnerThread() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Executes a batch of the commands, the rest is executed by the next task of the executor
+     */
+    private void drain() {
+        owner = Thread.currentThread();
+        try {
+            Runnable command;
+            for (int i = 0; i < BATCH_SIZE && (command = mailbox.poll()) != null; i++) {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } finally {
+            owner = null;
+            scheduled.set(false);
+        }
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private static class Holder {
+        static final ExecutorService DEFAULT = createDefaultExecutor();
+
+        private static ExecutorService createDefaultExecutor() {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "game-actor-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), factory);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package vovten.game;
+
+/**
+ * Event of the game published on the {@link Game#getEvents() bus of the game}:
+ * a {@link Game.Status}, a {@link StrikeResult} or a {@link SalvoResult}
+ */
+public interface GameEvent {
+    /**
+     * @return the player who has caused the event
+     */
+    Player.ID getPlayerId();
+}
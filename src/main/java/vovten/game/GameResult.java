@@ -0,0 +1,44 @@
+package vovten.game;
+
+/**
+ * The result of a finished game: the winner and the number of strikes made by each player.
+ */
+public final class GameResult {
+    private final Player.ID winner;
+    private final int firstPlayerShots;
+    private final int secondPlayerShots;
+
+    public GameResult(Player.ID winner, int firstPlayerShots, int secondPlayerShots) {
+        this.winner = winner;
+        this.firstPlayerShots = firstPlayerShots;
+        this.secondPlayerShots = secondPlayerShots;
+    }
+
+    public Player.ID getWinner() {
+        return winner;
+    }
+
+    public int getFirstPlayerShots() {
+        return firstPlayerShots;
+    }
+
+    public int getSecondPlayerShots() {
+        return secondPlayerShots;
+    }
+
+    /**
+     * @return the number of strikes the winner needed to destroy the adversary navy
+     */
+    public int getWinnerShots() {
+        return winner == Player.ID.FIRST ? firstPlayerShots : secondPlayerShots;
+    }
+
+    @Override
+    public String toString() {
+        return "GameResult{" +
+                "winner=" + winner +
+                ", firstPlayerShots=" + firstPlayerShots +
+                ", secondPlayerShots=" + secondPlayerShots +
+                '}';
+    }
+}
@@ -0,0 +1,104 @@
+package vovten.game;
+
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays a whole game between two headless Terminators on the calling thread.
+ * No executors, delays and observers are involved, so the runner is suitable
+ * for the bulk simulation of games. By the salvo rules every turn is a single batch of strikes.
+ */
+public class GameRunner {
+    private final Random random;
+    private final RuleSet rules;
+
+    /**
+     * @param random source of the fields, the first player and the decisions of the Terminators
+     */
+    public GameRunner(Random random) {
+        this(random, RuleSet.CLASSIC);
+    }
+
+    /**
+     * @param random source of the fields, the first player and the decisions of the Terminators
+     * @param rules rules of the games played on the random fields
+     */
+    public GameRunner(Random random, RuleSet rules) {
+        this.random = random;
+        this.rules = rules;
+    }
+
+    /**
+     * @param rules rules of the game
+     * @return max number of the strikes of both players in a game, the runner fails the longer games
+     */
+    public static int getMaxShots(RuleSet rules) {
+        return 2 * rules.getCellsNumber();
+    }
+
+    /**
+     * Plays a game on the randomly built fields
+     * @return the result of the game
+     */
+    public GameResult play() {
+        Player firstPlayer = new Player("First", Player.ID.FIRST, false);
+        Player secondPlayer = new Player("Second", Player.ID.SECOND, false);
+        return play(new BattleField(new AutoFieldBuilder(random, rules)),
+                new BattleField(new AutoFieldBuilder(random, rules)),
+                new Terminator(firstPlayer, new HuntingStrategy(random), rules),
+                new Terminator(secondPlayer, new HuntingStrategy(random), rules),
+                random.nextBoolean() ? Player.ID.FIRST : Player.ID.SECOND);
+    }
+
+    /**
+     * Plays a game
+     * @param firstBattleField field of the first player
+     * @param secondBattleField field of the second player
+     * @param first headless Terminator of the first player
+     * @param second headless Terminator of the second player
+     * @param beginPlayer the player who strikes first
+     * @return the result of the game
+     */
+    public GameResult play(BattleField firstBattleField, BattleField secondBattleField,
+                           Terminator first, Terminator second, Player.ID beginPlayer) {
+        Game game = new Game(firstBattleField, secondBattleField, first.getPlayer(), second.getPlayer());
+        int maxShots = getMaxShots(game.getRuleSet());
+        boolean salvo = game.getRuleSet().isSalvo();
+        int firstPlayerShots = 0;
+        int secondPlayerShots = 0;
+        game.start(beginPlayer);
+
+        while (!game.isGameOver()) {
+            Player player = game.getCurrentPlayer();
+            Terminator terminator = player.isFirstPlayer() ? first : second;
+            int shots;
+            if (salvo) {
+                List<Cell> cells = terminator.nextTargets(game.getSurvivingShipsNumber(player));
+                if (cells.isEmpty()) throw new IllegalStateException(player.getName() + " has no target to strike.");
+
+                terminator.registerSalvo(game.strikeBatch(player, cells));
+                shots = cells.size();
+            } else {
+                Cell cell = terminator.nextTarget();
+                if (cell == null) throw new IllegalStateException(player.getName() + " has no target to strike.");
+
+                terminator.registerStrike(game.strike(player, cell));
+                shots = 1;
+            }
+            if (player.isFirstPlayer()) {
+                firstPlayerShots += shots;
+            } else {
+                secondPlayerShots += shots;
+            }
+            if (firstPlayerShots + secondPlayerShots > maxShots) {
+                throw new IllegalStateException("The game is not finished after " + maxShots + " strikes.");
+            }
+        }
+        return new GameResult(game.getWinner().getID(), firstPlayerShots, secondPlayerShots);
+    }
+}
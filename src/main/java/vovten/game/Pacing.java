@@ -0,0 +1,79 @@
+package vovten.game;
+
+import java.util.Random;
+
+/**
+ * Pacing policy of an AI player: the delay before every strike.
+ * Spectators get a natural pace, the batch and server games run without delays.
+ */
+public final class Pacing {
+    public static final Pacing NONE = new Pacing(Mode.NONE, 0, 0);
+    public static final Pacing HUMAN_LIKE = random(500, 1500);
+    private final Mode mode;
+    private final long minDelay;
+    private final long maxDelay;
+
+    private Pacing(Mode mode, long minDelay, long maxDelay) {
+        this.mode = mode;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * @param delay delay before every strike in milliseconds
+     * @return the pacing with the fixed delay
+     */
+    public static Pacing fixed(long delay) {
+        if (delay < 0) throw new IllegalArgumentException("Delay must not be negative: " + delay);
+        return new Pacing(Mode.FIXED, delay, delay);
+    }
+
+    /**
+     * @param minDelay minimal delay before a strike in milliseconds
+     * @param maxDelay maximal delay before a strike in milliseconds, exclusive
+     * @return the pacing with the delay chosen at random for every strike
+     */
+    public static Pacing random(long minDelay, long maxDelay) {
+        if (minDelay < 0 || maxDelay <= minDelay) {
+            throw new IllegalArgumentException("Invalid delay range: " + minDelay + ".." + maxDelay);
+        }
+        return new Pacing(Mode.RANDOM, minDelay, maxDelay);
+    }
+
+    /**
+     * @param random source of the random delays
+     * @return delay before the next strike in milliseconds
+     */
+    public long nextDelay(Random random) {
+        switch (mode) {
+            case FIXED:
+                return minDelay;
+            case RANDOM:
+                return minDelay + (long) (random.nextDouble() * (maxDelay - minDelay));
+            default:
+                return 0;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public String toString() {
+        switch (mode) {
+            case FIXED:
+                return "FIXED " + minDelay + " ms";
+            case RANDOM:
+                return "RANDOM " + minDelay + ".." + maxDelay + " ms";
+            default:
+                return "NONE";
+        }
+    }
+
+    public enum Mode {
+        NONE,
+        FIXED,
+        RANDOM
+    }
+}
@@ -0,0 +1,182 @@
+package vovten.game;
+
+import vovten.game.field.Cell;
+
+import java.util.Arrays;
+
+/**
+ * Rules of the game: the size of the square field, the composition of the fleet and the mode of the strikes.
+ * By the default rules a player strikes one cell at a time and keeps the turn after a hit,
+ * by the salvo rules a player fires a salvo of one cell per surviving ship and the turn passes after every salvo.
+ * The cells of the field are numbered row by row (see {@link #index(int, int)}).
+ * For the {@link #CLASSIC} rules the numbering is the same as {@link Cell#getIndex()}.
+ * The strategies built on the precomputed placements (density, Monte Carlo, endgame) support
+ * only the classic rules, the {@link vovten.game.ai.HuntingStrategy} supports any rules.
+ */
+public final class RuleSet {
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    public static final int MIN_FIELD_SIZE = 8;
+    public static final int MAX_FIELD_SIZE = 1000;
+    public static final RuleSet CLASSIC = of(Game.FIELD_SIZE, 4, 3, 2, 1);
+    private final int fieldSize;
+    private final int[] fleet;
+    private final int shipsNumber;
+    private final int decksNumber;
+    private final boolean salvo;
+
+    private RuleSet(int fieldSize, int[] fleet, boolean salvo) {
+        this.fieldSize = fieldSize;
+        this.fleet = fleet;
+        this.salvo = salvo;
+        int ships = 0;
+        int decks = 0;
+        long area = 0;
+        for (Ship.Type type : TYPES) {
+            int count = fleet[type.ordinal()];
+            ships += count;
+            decks += count * Ship.Type.getDecksNumber(type);
+            area += 2L * count * (Ship.Type.getDecksNumber(type) + 1);
+        }
+        if (ships == 0) throw new IllegalArgumentException("The fleet is empty");
+        //every ship with the cells below and on the right of it takes 2 * (decks + 1) cells of the field
+        //extended by a row and a column, these areas do not intersect.
+        //The check is necessary but not sufficient, AutoFieldBuilder rejects the fleets it fails to place
+        if (area > (long) (fieldSize + 1) * (fieldSize + 1)) {
+            throw new IllegalArgumentException("The fleet does not fit the field " + fieldSize + "x" + fieldSize);
+        }
+        shipsNumber = ships;
+        decksNumber = decks;
+    }
+
+    /**
+     * @param fieldSize size of the side of the field
+     * @param fleet number of the ships of every type from the one deck ships to the four deck ships
+     * @return the rules
+     */
+    public static RuleSet of(int fieldSize, int... fleet) {
+        if (fieldSize < MIN_FIELD_SIZE || fieldSize > MAX_FIELD_SIZE) {
+            throw new IllegalArgumentException("Unsupported field size: " + fieldSize);
+        }
+        if (fleet.length != TYPES.length) {
+            throw new IllegalArgumentException("The fleet must have " + TYPES.length + " types of ships: " + fleet.length);
+        }
+        for (int count : fleet) {
+            if (count < 0) throw new IllegalArgumentException("Number of the ships must not be negative: " + count);
+        }
+        return new RuleSet(fieldSize, fleet.clone(), false);
+    }
+
+    /**
+     * @return the same field and fleet with the salvo strikes
+     */
+    public RuleSet withSalvo() {
+        return salvo ? this : new RuleSet(fieldSize, fleet, true);
+    }
+
+    /**
+     * @return true if the players fire salvos: one cell per surviving ship every turn
+     */
+    public boolean isSalvo() {
+        return salvo;
+    }
+
+    public int getFieldSize() {
+        return fieldSize;
+    }
+
+    public int getCellsNumber() {
+        return fieldSize * fieldSize;
+    }
+
+    /**
+     * @param type type of the ship
+     * @return number of the ships of the type in the fleet
+     */
+    public int getShipsNumber(Ship.Type type) {
+        return fleet[type.ordinal()];
+    }
+
+    /**
+     * @return number of all the ships in the fleet
+     */
+    public int getShipsNumber() {
+        return shipsNumber;
+    }
+
+    /**
+     * @return number of all the decks of the fleet
+     */
+    public int getDecksNumber() {
+        return decksNumber;
+    }
+
+    /**
+     * @return true if the field and the fleet are the classic ones, the mode of the strikes may be any
+     */
+    public boolean isClassic() {
+        return fieldSize == CLASSIC.fieldSize && Arrays.equals(fleet, CLASSIC.fleet);
+    }
+
+    /**
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return true if the cell with specified coordinates is located in the field, otherwise false
+     */
+    public boolean isInField(int x, int y) {
+        return 0 <= x && x < fieldSize && 0 <= y && y < fieldSize;
+    }
+
+    public boolean isInField(Cell cell) {
+        return isInField(cell.getX(), cell.getY());
+    }
+
+    /**
+     * Packs the coordinates of the cell of the field into the index
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return index of the cell
+     */
+    public int index(int x, int y) {
+        return y * fieldSize + x;
+    }
+
+    public int index(Cell cell) {
+        return index(cell.getX(), cell.getY());
+    }
+
+    /**
+     * @param index index of the cell of the field
+     * @return the cell
+     */
+    public Cell cellOf(int index) {
+        if (index < 0 || index >= getCellsNumber()) {
+            throw new IllegalArgumentException("The index is out of the field: " + index);
+        }
+        return Cell.of(index % fieldSize, index / fieldSize);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RuleSet ruleSet = (RuleSet) o;
+
+        return fieldSize == ruleSet.fieldSize && salvo == ruleSet.salvo && Arrays.equals(fleet, ruleSet.fleet);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 31 * fieldSize + Arrays.hashCode(fleet);
+        return 31 * result + (salvo ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSet{" +
+                "fieldSize=" + fieldSize +
+                ", fleet=" + Arrays.toString(fleet) +
+                ", salvo=" + salvo +
+                '}';
+    }
+}
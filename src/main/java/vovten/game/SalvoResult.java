@@ -0,0 +1,124 @@
+package vovten.game;
+
+import vovten.game.ai.Outcome;
+import vovten.game.field.Cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a batch of strikes of a player: the {@link StrikeResult} of every resolved cell, the sunk ships
+ * and whether the game is over. The result is immutable, it is returned by {@link Game#strikeBatch(Player, List)}
+ * and the same instance is published on the events of the game.
+ */
+public final class SalvoResult implements GameEvent {
+    private final Player player;
+    private final StrikeResult[] strikes;
+    private final boolean gameOver;
+    private final boolean turnPassed;
+
+    SalvoResult(Player player, StrikeResult[] strikes, boolean gameOver, boolean turnPassed) {
+        this.player = player;
+        this.strikes = strikes;
+        this.gameOver = gameOver;
+        this.turnPassed = turnPassed;
+    }
+
+    /**
+     * @return the player who has fired the cells
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public Player.ID getPlayerId() {
+        return player.getID();
+    }
+
+    /**
+     * @return number of the resolved cells
+     */
+    public int size() {
+        return strikes.length;
+    }
+
+    /**
+     * @param i number of the cell in the order of the batch
+     * @return the result of the strike in the cell
+     */
+    public StrikeResult getStrike(int i) {
+        return strikes[i];
+    }
+
+    /**
+     * @param i number of the cell in the order of the batch
+     * @return the cell
+     */
+    public Cell getCell(int i) {
+        return strikes[i].getCell();
+    }
+
+    /**
+     * @param i number of the cell in the order of the batch
+     * @return outcome of the strike in the cell, SUNK if the strike has sunk the ship
+     */
+    public Outcome getOutcome(int i) {
+        return strikes[i].getOutcome();
+    }
+
+    /**
+     * @param i number of the cell in the order of the batch
+     * @return the ship hit by the strike in the cell or null if the strike missed
+     */
+    public Ship getShip(int i) {
+        return strikes[i].getShip();
+    }
+
+    /**
+     * @return number of the hit decks
+     */
+    public int getHitsNumber() {
+        int result = 0;
+        for (StrikeResult strike : strikes) {
+            if (strike.getOutcome() != Outcome.MISS) result++;
+        }
+        return result;
+    }
+
+    /**
+     * @return the ships sunk by the batch in the order of sinking
+     */
+    public List<Ship> getSunkShips() {
+        List<Ship> result = new ArrayList<>();
+        for (StrikeResult strike : strikes) {
+            if (strike.getOutcome() == Outcome.SUNK) result.add(strike.getShip());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return true if the batch has destroyed the adversary navy
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return true if the turn passes to the adversary after the batch
+     */
+    public boolean isTurnPassed() {
+        return turnPassed;
+    }
+
+    @Override
+    public String toString() {
+        return "SalvoResult{" +
+                "player=" + player.getName() +
+                ", strikes=" + Arrays.toString(strikes) +
+                ", gameOver=" + gameOver +
+                '}';
+    }
+}
@@ -15,6 +15,7 @@ public class Ship {
     private final Direction direction;
     private final List<Deck> decks;
     private Deck lastDamagedDeck;
+    private int damagedDecksNumber;
     private boolean destroyed;
 
     public Ship(Type type, Cell position, Direction direction) {
@@ -24,15 +25,29 @@ public class Ship {
         decks = getDecks(position, direction);
     }
 
+    /**
+     * Marks the deck in the specified position as damaged
+     * @param cell position of the damaged deck
+     */
     public void addDamage(Cell cell) {
-        lastDamagedDeck = new Deck(cell);
-        int index = decks.indexOf(lastDamagedDeck);
-        decks.get(index).damaged = true;
-        if (isShipDestroyed()) {
-            destroyed = true;
+        int offset = getDeckOffset(cell);
+        if (offset < 0) throw new IllegalArgumentException("The ship has no deck in " + cell);
+        lastDamagedDeck = decks.get(offset);
+        if (!lastDamagedDeck.damaged) {
+            lastDamagedDeck.damaged = true;
+            damagedDecksNumber++;
+            destroyed = damagedDecksNumber == decks.size();
         }
     }
 
+    /**
+     * Marks the deck in the specified position of the classic field as damaged
+     * @param index packed index of the damaged deck position
+     */
+    public void addDamage(int index) {
+        addDamage(Cell.of(index));
+    }
+
     public boolean isDestroyed() {
         return destroyed;
     }
@@ -62,7 +77,11 @@ public class Ship {
     }
 
     public boolean hasShipDeckWithPosition(Cell cell) {
-        return decks.contains(new Deck(cell));
+        return getDeckOffset(cell) >= 0;
+    }
+
+    public boolean hasShipDeckWithPosition(int index) {
+        return getDeckOffset(Cell.of(index)) >= 0;
     }
 
     private List<Deck> getDecks(Cell position, Direction direction) {
@@ -74,23 +93,42 @@ public class Ship {
         switch (direction) {
             case VERTICAL:
                 for (int i = y; i <= y + offSet; i++) {
-                    result.add(new Ship.Deck(new Cell(x, i)));
+                    result.add(new Ship.Deck(Cell.of(x, i)));
                 }
                 break;
 
             case HORIZONTAL:
                 for (int i = x; i <= x + offSet; i++) {
-                    result.add(new Ship.Deck(new Cell(i, y)));
+                    result.add(new Ship.Deck(Cell.of(i, y)));
                 }
         }
         return result;
     }
 
-    private boolean isShipDestroyed() {
-        for (Deck deck : decks) {
-            if (!deck.damaged) return false;
+    /**
+     * @param cell position of the deck
+     * @return the number of the deck counted from the initial cell of the ship
+     * or -1 if the ship has no deck in the specified position
+     */
+    private int getDeckOffset(Cell cell) {
+        int x = cell.getX();
+        int y = cell.getY();
+        int offset;
+        switch (direction) {
+            case VERTICAL:
+                if (x != position.getX()) return -1;
+                offset = y - position.getY();
+                break;
+
+            case HORIZONTAL:
+                if (y != position.getY()) return -1;
+                offset = x - position.getX();
+                break;
+
+            default:
+                throw new IllegalArgumentException("Not supported direction.");
         }
-        return true;
+        return offset >= 0 && offset < decks.size() ? offset : -1;
     }
 
     /**
@@ -118,6 +156,10 @@ public class Ship {
             }
         }
 
+        /**
+         * @param type type of the ship
+         * @return number of the ships of the type in the classic fleet, see {@link vovten.game.RuleSet#CLASSIC}
+         */
         public static int getShipsNumber(Type type) {
             switch (type) {
                 case ONE_DECK:
@@ -168,6 +210,10 @@ public class Ship {
         public Cell getCell() {
             return cell;
         }
+
+        public boolean isDamaged() {
+            return damaged;
+        }
     }
 
     /**
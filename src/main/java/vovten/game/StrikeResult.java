@@ -0,0 +1,117 @@
+package vovten.game;
+
+import vovten.game.ai.Outcome;
+import vovten.game.field.Cell;
+
+/**
+ * The result of a strike of a player: the struck cell, the outcome, the hit ship, whether the game is over
+ * and whether the turn passes to the adversary.
+ * The result is immutable, it is returned by {@link Game#strike(Player, Cell)} and the same instance
+ * is published on the events of the game. The misses in the cells of the classic field are shared,
+ * so most of the strikes allocate nothing.
+ */
+public final class StrikeResult implements GameEvent {
+    private static final StrikeResult[][] MISSES = createMisses(true);
+    private static final StrikeResult[][] SALVO_MISSES = createMisses(false);
+    private final Player.ID playerId;
+    private final Cell cell;
+    private final Outcome outcome;
+    private final Ship ship;
+    private final boolean gameOver;
+    private final boolean turnPassed;
+
+    StrikeResult(Player.ID playerId, Cell cell, Outcome outcome, Ship ship, boolean gameOver, boolean turnPassed) {
+        this.playerId = playerId;
+        this.cell = cell;
+        this.outcome = outcome;
+        this.ship = ship;
+        this.gameOver = gameOver;
+        this.turnPassed = turnPassed;
+    }
+
+    /**
+     * @param playerId the player who has struck
+     * @param cell the struck cell
+     * @param turnPassed true if the miss passes the turn
+     * @return the miss, shared for the cells of the classic field
+     */
+    static StrikeResult miss(Player.ID playerId, Cell cell, boolean turnPassed) {
+        if (Cell.isInField(cell.getX(), cell.getY())) {
+            return (turnPassed ? MISSES : SALVO_MISSES)[playerId.ordinal()][cell.getIndex()];
+        }
+        return new StrikeResult(playerId, cell, Outcome.MISS, null, false, turnPassed);
+    }
+
+    /**
+     * @return the same strike which passes the turn, it ends the salvo
+     */
+    StrikeResult passTurn() {
+        if (turnPassed) return this;
+        if (outcome == Outcome.MISS) return miss(playerId, cell, true);
+        return new StrikeResult(playerId, cell, outcome, ship, gameOver, true);
+    }
+
+    /**
+     * @return the player who has struck
+     */
+    @Override
+    public Player.ID getPlayerId() {
+        return playerId;
+    }
+
+    public Cell getCell() {
+        return cell;
+    }
+
+    /**
+     * @return outcome of the strike, SUNK if the strike has sunk the ship
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return the ship hit by the strike or null if the strike missed
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * @return true if the strike has destroyed the adversary navy
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * By the default rules the turn passes to the adversary after a miss,
+     * by the salvo rules after the last strike of the salvo unless the game is over
+     * @return true if the turn passes to the adversary after the strike
+     */
+    public boolean isTurnPassed() {
+        return turnPassed;
+    }
+
+    @Override
+    public String toString() {
+        return "StrikeResult{" +
+                "player=" + playerId +
+                ", cell=" + cell +
+                ", outcome=" + outcome +
+                ", gameOver=" + gameOver +
+                ", turnPassed=" + turnPassed +
+                '}';
+    }
+
+    private static StrikeResult[][] createMisses(boolean turnPassed) {
+        Player.ID[] ids = Player.ID.values();
+        StrikeResult[][] result = new StrikeResult[ids.length][Game.FIELD_SIZE * Game.FIELD_SIZE];
+        for (Player.ID id : ids) {
+            for (int i = 0; i < result[id.ordinal()].length; i++) {
+                result[id.ordinal()][i] = new StrikeResult(id, Cell.of(i), Outcome.MISS, null, false, turnPassed);
+            }
+        }
+        return result;
+    }
+}
@@ -1,321 +1,315 @@
 package vovten.game;
 
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.ai.Knowledge;
+import vovten.game.ai.Outcome;
+import vovten.game.ai.TargetingStrategy;
 import vovten.game.field.Cell;
-import vovten.util.Observable;
-import vovten.util.Observer;
-import vovten.game.Ship.Direction;
+import vovten.util.EventBus;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * AI opponent implementation for the Battleship game.
- * Observes game events and makes strategic strikes against the human player.
- * Implements the Observer pattern to react to game state changes.
+ * Observes game events and makes strikes against the adversary.
+ * The cells for the strikes are chosen by the {@link TargetingStrategy},
+ * the Terminator keeps the knowledge about the adversary field up to date.
+ * The strikes are scheduled on the scheduler shared by the AI players after the delay of the {@link Pacing},
+ * no thread is held while the strike waits. The pending strike is cancelled when the game is over
+ * or a player surrenders. By the salvo rules the Terminator fires a salvo of one cell per surviving ship.
+ * The results of the own strikes are taken from the {@link StrikeResult} or {@link SalvoResult}
+ * published on the events of the game. The events are delivered on the scheduler of the strikes
+ * one batch at a time, so the knowledge is updated before the next strike is scheduled.
+ * A Terminator of the game confined by the {@link GameActor} strikes by the commands of the actor.
  */
-public class Terminator implements Observer {
-    /**
-     * Marker for the struck cell
-     */
-    private static final int STRUCK_CELL = 1;
+public class Terminator implements EventBus.Subscriber<GameEvent> {
     private final Game game;
+    private final Executor gameExecutor;
     private final Player player;
-    private final int[][] field;
-    private final ExecutorService executor;
-    private final List<Ship.Deck> damagedShipDecks;
-    private Ship damagedShip;
-    private int fourDeckShipNumber = Ship.Type.getShipsNumber(Ship.Type.FOUR_DECK);
-    private int threeDeckShipNumber = Ship.Type.getShipsNumber(Ship.Type.THREE_DECK);
-    private int twoDeckShipNumber = Ship.Type.getShipsNumber(Ship.Type.TWO_DECK);
-    private int oneDeckShipNumber = Ship.Type.getShipsNumber(Ship.Type.ONE_DECK);
+    private final ScheduledExecutorService scheduler;
+    private final Pacing pacing;
+    private final Random random;
+    private final TargetingStrategy strategy;
+    private final Knowledge knowledge;
+    private final EventBus.Subscription<GameEvent> subscription;
+    private volatile Future<?> pendingStrike;
 
      /**
-     * Constructs a Terminator AI opponent.
+     * Constructs a Terminator AI opponent with the baseline strategy.
      * @param game The game instance to observe
      * @param player The AI player instance
      */
     public Terminator(Game game, Player player) {
-        this.game = game;
-        this.game.addObserver(this);
-        this.player = player;
-        field = new int[Game.FIELD_SIZE][Game.FIELD_SIZE];
-        executor = Executors.newSingleThreadExecutor();
-        damagedShipDecks = new ArrayList<>();
+        this(game, player, new HuntingStrategy(new Random()));
     }
 
-    @Override
-    public void update(Observable o, Object arg) {
-        Game.Status status = (Game.Status) arg;
-        switch (status) {
-            case FP_STRIKE:
-                if (player.isFirstPlayer()) {
-                    handleStrikeEvent();
-                }
-                break;
-
-            case FP_GOOD_STRIKE:
-                if (player.isFirstPlayer()) {
-                    handleGoodStrikeEvent();
-                }
-                break;
-
-            case SP_STRIKE:
-                if (player.isSecondPlayer()) {
-                    handleStrikeEvent();
-                }
-                break;
+    /**
+     * Constructs a Terminator AI opponent.
+     * @param game The game instance to observe
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     */
+    public Terminator(Game game, Player player, TargetingStrategy strategy) {
+        this(game, player, strategy, AiScheduler.getShared());
+    }
 
-            case SP_GOOD_STRIKE:
-                if (player.isSecondPlayer()) {
-                    handleGoodStrikeEvent();
-                }
-        }
+    /**
+     * Constructs a Terminator AI opponent.
+     * @param game The game instance to observe
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     * @param scheduler scheduler of the strikes, it may be shared between the games
+     */
+    public Terminator(Game game, Player player, TargetingStrategy strategy, ScheduledExecutorService scheduler) {
+        this(game, player, strategy, scheduler, Pacing.HUMAN_LIKE);
     }
 
-    private void handleGoodStrikeEvent() {
-        exploitStrike();
+    /**
+     * Constructs a Terminator AI opponent.
+     * @param game The game instance to observe
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     * @param scheduler scheduler of the strikes, it may be shared between the games
+     * @param pacing delays before the strikes
+     */
+    public Terminator(Game game, Player player, TargetingStrategy strategy, ScheduledExecutorService scheduler,
+                      Pacing pacing) {
+        this(game, Runnable::run, player, strategy, scheduler, pacing);
     }
 
-    private void handleStrikeEvent() {
-        if (isDamagedShipAvailable()) {
-            executor.submit(() -> strike(finishOffDamagedShip()));
-            return;
-        }
-        executor.submit(this::findAndDestroy);
+    /**
+     * Constructs a Terminator AI opponent of the confined game with the baseline strategy.
+     * @param actor actor of the game
+     * @param player The AI player instance
+     */
+    public Terminator(GameActor actor, Player player) {
+        this(actor, player, new HuntingStrategy(new Random()), AiScheduler.getShared(), Pacing.HUMAN_LIKE);
     }
 
-    private void exploitStrike() {
-        Ship ship = game.getCurrDamagedShip();
-        if (ship.isDestroyed()) {
-            reduceShipsNumber(ship);
-            markDestroyedShip(ship);
-            damagedShipDecks.clear();
-            executor.submit(this::findAndDestroy);
-            return;
-        }
-        damagedShip = ship;
-        damagedShipDecks.add(ship.getLastDamagedDeck());
-        executor.submit(() -> strike(finishOffDamagedShip()));
+    /**
+     * Constructs a Terminator AI opponent of the confined game.
+     * @param actor actor of the game
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     * @param scheduler scheduler of the strikes, it may be shared between the games
+     * @param pacing delays before the strikes
+     */
+    public Terminator(GameActor actor, Player player, TargetingStrategy strategy, ScheduledExecutorService scheduler,
+                      Pacing pacing) {
+        this(actor.getGame(), actor, player, strategy, scheduler, pacing);
     }
 
-    private boolean isDamagedShipAvailable() {
-        return damagedShipDecks.size() > 0;
+    private Terminator(Game game, Executor gameExecutor, Player player, TargetingStrategy strategy,
+                       ScheduledExecutorService scheduler, Pacing pacing) {
+        this.game = game;
+        this.gameExecutor = gameExecutor;
+        this.player = player;
+        this.strategy = strategy;
+        this.scheduler = scheduler;
+        this.pacing = pacing;
+        random = new Random();
+        knowledge = new Knowledge(game.getRuleSet());
+        subscription = game.getEvents().subscribe(this, scheduler);
     }
 
-    private Cell finishOffDamagedShip() {
-        Cell cell = damagedShipDecks.get(0).cell;
-        if (damagedShipDecks.size() == 1) {
-            return getTargetAroundDamagedCell(cell);
-        } else if (damagedShipDecks.size() > 1) {
-            Direction direction = damagedShip.getDirection();
-            switch (direction) {
-                case VERTICAL:
-                    for (Ship.Deck deck : damagedShipDecks) {
-                        Cell c = deck.cell;
-                        int x = c.getX(), y = c.getY();
-                        Cell tryCell = new Cell(x, y - 1);
-                        if (isCellSuitableForStrike(tryCell)) return tryCell;
+    /**
+     * Constructs a headless Terminator with the baseline strategy.
+     * @param player The AI player instance
+     * @param random source of the random decisions
+     */
+    public Terminator(Player player, Random random) {
+        this(player, new HuntingStrategy(random));
+    }
 
-                        tryCell = new Cell(x, y + 1);
-                        if (isCellSuitableForStrike(tryCell)) return tryCell;
-                    }
-                    break;
+    /**
+     * Constructs a headless Terminator which neither observes a game nor strikes by itself.
+     * The caller asks it for the next target and reports the results of the strikes.
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     */
+    public Terminator(Player player, TargetingStrategy strategy) {
+        this(player, strategy, RuleSet.CLASSIC);
+    }
 
-                case HORIZONTAL:
-                    for (Ship.Deck deck : damagedShipDecks) {
-                        Cell c = deck.cell;
-                        int x = c.getX(), y = c.getY();
-                        Cell tryCell = new Cell(x - 1, y);
-                        if (isCellSuitableForStrike(tryCell)) return tryCell;
+    /**
+     * Constructs a headless Terminator which neither observes a game nor strikes by itself.
+     * @param player The AI player instance
+     * @param strategy strategy of choosing the cells for the strikes
+     * @param rules rules of the game
+     */
+    public Terminator(Player player, TargetingStrategy strategy, RuleSet rules) {
+        this.game = null;
+        gameExecutor = null;
+        this.player = player;
+        this.strategy = strategy;
+        scheduler = null;
+        pacing = Pacing.NONE;
+        random = null;
+        knowledge = new Knowledge(rules);
+        subscription = null;
+    }
 
-                        tryCell = new Cell(x + 1, y);
-                        if (isCellSuitableForStrike(tryCell)) return tryCell;
-                    }
-            }
+    @Override
+    public void onEvents(List<? extends GameEvent> events) {
+        for (GameEvent event : events) {
+            if (subscription.isCancelled()) return;
+            handleEvent(event);
         }
-        return null;
     }
 
-    private void findAndDestroy() {
-        if (fourDeckShipNumber > 0) {
-            strike(findSuitablePlace(Ship.Type.getDecksNumber(Ship.Type.FOUR_DECK)));
-        } else if (threeDeckShipNumber > 0) {
-            strike(findSuitablePlace(Ship.Type.getDecksNumber(Ship.Type.THREE_DECK)));
-        } else if (twoDeckShipNumber > 0) {
-            strike(findSuitablePlace(Ship.Type.getDecksNumber(Ship.Type.TWO_DECK)));
-        } else if (oneDeckShipNumber > 0) {
-            strike(findSuitablePlace(Ship.Type.getDecksNumber(Ship.Type.ONE_DECK)));
+    /**
+     * Cancels the pending strike and stops observing the game
+     */
+    public void stop() {
+        Future<?> strike = pendingStrike;
+        if (strike != null) {
+            strike.cancel(true);
+        }
+        if (subscription != null) {
+            subscription.cancel();
         }
     }
 
-    private Cell findSuitablePlace(int deckNumber) {
-        while (true) {
-            Cell initCell = getRandomCell();
-            Direction direction = Direction.HORIZONTAL;
-            if (isPlaceForShipSuitable(deckNumber, initCell, direction)) return initCell;
-            direction = Direction.VERTICAL;
-            if (isPlaceForShipSuitable(deckNumber, initCell, direction)) return initCell;
+    /**
+     * Chooses the cell for the next strike and marks it as struck
+     * @return the cell for the next strike
+     */
+    public Cell nextTarget() {
+        Cell target = strategy.nextTarget(knowledge);
+        if (target != null) {
+            knowledge.markStruck(target);
         }
+        return target;
     }
 
-    private Cell getTargetAroundDamagedCell(Cell cell) {
-        Cell result = null;
-        Random random = new Random();
-        int variant;
-
-        do {
-            int col = cell.getX();
-            int row = cell.getY();
-            variant = random.nextInt(4);
-            switch (variant) {
-                case 0:
-                    result = new Cell(col, row - 1);
-                    break;
-
-                case 1:
-                    result = new Cell(col + 1, row);
-                    break;
-
-                case 2:
-                    result = new Cell(col, row + 1);
-                    break;
-
-                case 3:
-                    result = new Cell(col - 1, row);
-            }
-        } while (!isCellSuitableForStrike(result));
-
+    /**
+     * Chooses the cells for the salvo and marks them as struck
+     * @param number number of the cells
+     * @return the cells, there may be less of them if the strategy has no more targets
+     */
+    public List<Cell> nextTargets(int number) {
+        List<Cell> result = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            Cell cell = nextTarget();
+            if (cell == null) break;
+            result.add(cell);
+        }
         return result;
     }
 
-    private boolean isCellSuitableForStrike(Cell cell) {
-        int col = cell.getX();
-        int row = cell.getY();
-        return col >= 0 && row >= 0 && col < Game.FIELD_SIZE && row < Game.FIELD_SIZE && field[col][row] != STRUCK_CELL;
+    /**
+     * Takes into account the results of the salvo
+     * @param salvo result of the salvo
+     */
+    public void registerSalvo(SalvoResult salvo) {
+        for (int i = 0; i < salvo.size(); i++) {
+            registerStrike(salvo.getStrike(i));
+        }
     }
 
-    private Cell getRandomCell() {
-        Random random = new Random();
-        int j = random.nextInt(10);
-        int i = random.nextInt(10);
+    /**
+     * Takes into account the result of the strike
+     * @param result result of the strike
+     */
+    public void registerStrike(StrikeResult result) {
+        Cell cell = result.getCell();
+        Outcome outcome = knowledge.registerStrike(cell, result.getShip(), result.getOutcome() == Outcome.SUNK);
+        strategy.onStrike(knowledge, cell, outcome);
+    }
 
-        while (field[i][j] == STRUCK_CELL) {
-            j = random.nextInt(10);
-            i = random.nextInt(10);
-        }
-        return new Cell(i, j);
+    public Player getPlayer() {
+        return player;
     }
 
-    private void reduceShipsNumber(Ship ship) {
-        Ship.Type type = ship.getType();
-        switch (type) {
-            case ONE_DECK:
-                oneDeckShipNumber--;
-                break;
+    public Knowledge getKnowledge() {
+        return knowledge;
+    }
 
-            case TWO_DECK:
-                twoDeckShipNumber--;
+    private void handleEvent(GameEvent event) {
+        if (event instanceof StrikeResult) {
+            handleStrikeResult((StrikeResult) event);
+            return;
+        }
+        if (event instanceof SalvoResult) {
+            handleSalvoResult((SalvoResult) event);
+            return;
+        }
+        Game.Status status = (Game.Status) event;
+        switch (status) {
+            case FP_STRIKE:
+                if (player.isFirstPlayer()) {
+                    scheduleStrike();
+                }
                 break;
 
-            case THREE_DECK:
-                threeDeckShipNumber--;
+            case SP_STRIKE:
+                if (player.isSecondPlayer()) {
+                    scheduleStrike();
+                }
                 break;
 
-            case FOUR_DECK:
-                fourDeckShipNumber--;
+            case FP_SURRENDERED:
+            case SP_SURRENDERED:
+                stop();
         }
     }
 
-    /**
-     * Marks the destroyed ship on the field and
-     * the area around the destroyed ship like not suitable for strike.
-     * @param ship destroyed ship
-     */
-    private void markDestroyedShip(Ship ship) {
-        if (!ship.isDestroyed()) return;
-        Cell initCell = ship.getPosition();
-        Direction direction = ship.getDirection();
-        int shipSize = ship.getDecksNumber();
-        int col = initCell.getX();
-        int row = initCell.getY();
-        int colOffset, rowOffset;
-
-        switch (direction) {
-            case VERTICAL:
-                colOffset = 0;
-                rowOffset = shipSize - 1;
-                break;
-
-            case HORIZONTAL:
-                colOffset = shipSize - 1;
-                rowOffset = 0;
-                break;
-
-            default:
-                throw new IllegalArgumentException("Not supported direction.");
+    private void handleStrikeResult(StrikeResult result) {
+        if (result.isGameOver()) {
+            stop();
+            return;
         }
-
-        for (int i = col - 1; i <= col + 1 + colOffset; i++) {
-            for (int j = row - 1; j <= row + 1 + rowOffset; j++) {
-                if (i < 0 || j < 0 || i >= Game.FIELD_SIZE || j >= Game.FIELD_SIZE) continue;
-                field[i][j] = STRUCK_CELL;
-            }
+        boolean own = result.getPlayerId() == player.getID();
+        if (own) {
+            registerStrike(result);
+        }
+        //the turn is ours after the own hit or after the miss of the adversary
+        if (own != result.isTurnPassed()) {
+            scheduleStrike();
         }
     }
 
-    private void strike(Cell cell) {
-        int col = cell.getX();
-        int row = cell.getY();
-        field[col][row] = STRUCK_CELL;
-        makeRandomDelay();
-        game.strike(player, cell);
-    }
-
-    private boolean isPlaceForShipSuitable(int deckNumber, Cell initCell, Direction direction) {
-        int col = initCell.getX();
-        int row = initCell.getY();
-        int colOffset;
-        int rowOffset;
-
-        switch (direction) {
-            case VERTICAL:
-                colOffset = 0;
-                rowOffset = deckNumber - 1;
-                if (row + rowOffset > Game.FIELD_SIZE - 1) return false;
-                break;
-
-            case HORIZONTAL:
-                colOffset = deckNumber - 1;
-                rowOffset = 0;
-                if (col + colOffset > Game.FIELD_SIZE - 1) return false;
-                break;
-
-            default:
-                throw new IllegalArgumentException("Not supported direction.");
+    private void handleSalvoResult(SalvoResult salvo) {
+        if (salvo.isGameOver()) {
+            stop();
+            return;
         }
-
-        //is the area for the ship free (no other ships)
-        for (int i = col; i <= col + colOffset; i++) {
-            for (int j = row; j <= row + rowOffset; j++) {
-                if (i < 0 || j < 0 || i >= Game.FIELD_SIZE || j >= Game.FIELD_SIZE) continue;
-                if (field[i][j] != 0) return false;
-            }
+        boolean own = salvo.getPlayer().getID() == player.getID();
+        if (own) {
+            registerSalvo(salvo);
+        }
+        if (own != salvo.isTurnPassed()) {
+            scheduleStrike();
         }
-        return true;
     }
 
-    private void makeRandomDelay() {
-        final int min = 500;
-        final int max = 1500;
-        Random random = new Random();
-        int delay = random.nextInt(max - min) + min;
+    private void scheduleStrike() {
+        long delay = pacing.nextDelay(random);
+        Runnable strike = () -> gameExecutor.execute(this::strike);
         try {
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            pendingStrike = delay == 0 ? scheduler.submit(strike)
+                    : scheduler.schedule(strike, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            //the scheduler is shut down, the AI player stops striking
+            pendingStrike = null;
+        }
+    }
+
+    private void strike() {
+        if (game.isGameOver()) return;
+        if (game.getRuleSet().isSalvo()) {
+            List<Cell> targets = nextTargets(game.getSurvivingShipsNumber(player));
+            if (targets.isEmpty()) return;
+            game.strikeBatch(player, targets);
+        } else {
+            game.strike(player, nextTarget());
         }
     }
 }
@@ -0,0 +1,190 @@
+package vovten.game.ai;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+import vovten.game.field.Cell;
+import vovten.game.field.Placement;
+import vovten.game.field.Placements;
+
+import java.util.Random;
+
+/**
+ * Strategy which strikes the cell covered by the largest number of the possible placements of the remaining fleet.
+ * <p>
+ * For every ship type and every cell the strategy keeps the number of the placements which cover the cell
+ * and contain no blocked cells (misses, cells around the sunk ships and diagonal neighbours of the hits).
+ * When a cell becomes blocked only the placements covering the cell are updated.
+ * While a ship is damaged only the placements containing all its hit decks are counted.
+ */
+public class DensityStrategy implements TargetingStrategy {
+    private static final int CELLS_NUMBER = Game.FIELD_SIZE * Game.FIELD_SIZE;
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private final Placements placements = Placements.getInstance();
+    private final Random random;
+    private final boolean[] blockedCells;
+    private final int[] blockedDecks;
+    private final int[][] density;
+    private final int[] targetDensity;
+
+    public DensityStrategy(Random random) {
+        this.random = random;
+        blockedCells = new boolean[CELLS_NUMBER];
+        blockedDecks = new int[placements.size()];
+        density = new int[TYPES.length][CELLS_NUMBER];
+        targetDensity = new int[CELLS_NUMBER];
+        for (int i = 0; i < placements.size(); i++) {
+            addPlacement(placements.get(i), 1);
+        }
+    }
+
+    @Override
+    public Cell nextTarget(Knowledge knowledge) {
+        if (knowledge.getDamagedDecksNumber() > 0) {
+            Cell result = finishOffDamagedShip(knowledge);
+            if (result != null) return result;
+        }
+        return findMostProbableCell(knowledge);
+    }
+
+    @Override
+    public void onStrike(Knowledge knowledge, Cell cell, Outcome outcome) {
+        switch (outcome) {
+            case MISS:
+                block(cell.getIndex());
+                break;
+
+            case HIT:
+                //ships do not touch, so the diagonal neighbours of the hit deck are empty
+                blockIfInField(cell.getX() - 1, cell.getY() - 1);
+                blockIfInField(cell.getX() + 1, cell.getY() - 1);
+                blockIfInField(cell.getX() - 1, cell.getY() + 1);
+                blockIfInField(cell.getX() + 1, cell.getY() + 1);
+                break;
+
+            case SUNK:
+                blockSunkShip(knowledge.getLastSunkShip());
+                break;
+        }
+    }
+
+    /**
+     * @param cellIndex index of the cell
+     * @param knowledge what is known about the adversary field
+     * @return number of the possible placements of the remaining fleet covering the cell
+     */
+    public int getDensity(int cellIndex, Knowledge knowledge) {
+        int result = 0;
+        for (Ship.Type type : TYPES) {
+            result += knowledge.getRemainingShips(type) * density[type.ordinal()][cellIndex];
+        }
+        return result;
+    }
+
+    private Cell findMostProbableCell(Knowledge knowledge) {
+        int best = -1;
+        int bestDensity = -1;
+        int ties = 0;
+        for (int i = 0; i < CELLS_NUMBER; i++) {
+            if (knowledge.isStruck(i)) continue;
+            int value = getDensity(i, knowledge);
+            if (value > bestDensity) {
+                best = i;
+                bestDensity = value;
+                ties = 1;
+            } else if (value == bestDensity && random.nextInt(++ties) == 0) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : Cell.of(best);
+    }
+
+    /**
+     * Counts the possible placements containing all the hit decks of the damaged ship
+     * and strikes the cell covered by the largest number of them
+     */
+    private Cell finishOffDamagedShip(Knowledge knowledge) {
+        int decksNumber = knowledge.getDamagedDecksNumber();
+        int[] candidates = placements.covering(knowledge.getDamagedDeck(0).getIndex());
+        int best = -1;
+        int bestDensity = 0;
+        int ties = 0;
+
+        for (int id : candidates) {
+            Placement placement = placements.get(id);
+            int weight = knowledge.getRemainingShips(placement.getType());
+            if (weight == 0 || blockedDecks[id] > 0 || !containsDamagedDecks(placement, knowledge, decksNumber)) {
+                continue;
+            }
+            for (int i = 0; i < placement.getDecksNumber(); i++) {
+                targetDensity[placement.getCell(i)] += weight;
+            }
+        }
+        for (int id : candidates) {
+            Placement placement = placements.get(id);
+            for (int i = 0; i < placement.getDecksNumber(); i++) {
+                int cell = placement.getCell(i);
+                int value = targetDensity[cell];
+                targetDensity[cell] = 0;
+                if (value == 0 || knowledge.isStruck(cell)) continue;
+                if (value > bestDensity) {
+                    best = cell;
+                    bestDensity = value;
+                    ties = 1;
+                } else if (value == bestDensity && random.nextInt(++ties) == 0) {
+                    best = cell;
+                }
+            }
+        }
+        return best < 0 ? null : Cell.of(best);
+    }
+
+    private boolean containsDamagedDecks(Placement placement, Knowledge knowledge, int decksNumber) {
+        for (int i = 1; i < decksNumber; i++) {
+            int deck = knowledge.getDamagedDeck(i).getIndex();
+            boolean found = false;
+            for (int j = 0; j < placement.getDecksNumber() && !found; j++) {
+                found = placement.getCell(j) == deck;
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private void blockSunkShip(Ship ship) {
+        Cell position = ship.getPosition();
+        int colOffset = ship.getDirection() == Ship.Direction.HORIZONTAL ? ship.getDecksNumber() - 1 : 0;
+        int rowOffset = ship.getDirection() == Ship.Direction.VERTICAL ? ship.getDecksNumber() - 1 : 0;
+        for (int i = position.getX() - 1; i <= position.getX() + 1 + colOffset; i++) {
+            for (int j = position.getY() - 1; j <= position.getY() + 1 + rowOffset; j++) {
+                blockIfInField(i, j);
+            }
+        }
+    }
+
+    private void blockIfInField(int x, int y) {
+        if (Cell.isInField(x, y)) {
+            block(Cell.index(x, y));
+        }
+    }
+
+    /**
+     * Excludes the placements covering the cell
+     * @param cellIndex index of the cell
+     */
+    private void block(int cellIndex) {
+        if (blockedCells[cellIndex]) return;
+        blockedCells[cellIndex] = true;
+        for (int id : placements.covering(cellIndex)) {
+            if (blockedDecks[id]++ == 0) {
+                addPlacement(placements.get(id), -1);
+            }
+        }
+    }
+
+    private void addPlacement(Placement placement, int delta) {
+        int[] typeDensity = density[placement.getType().ordinal()];
+        for (int i = 0; i < placement.getDecksNumber(); i++) {
+            typeDensity[placement.getCell(i)] += delta;
+        }
+    }
+}
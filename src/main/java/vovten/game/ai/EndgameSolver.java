@@ -0,0 +1,458 @@
+package vovten.game.ai;
+
+import vovten.game.Ship;
+import vovten.game.field.Cell;
+import vovten.game.field.Placement;
+import vovten.game.field.Placements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact solver of the endgame: finds the strike minimising the expected number of the remaining strikes
+ * needed to sink the remaining fleet, every layout consistent with the knowledge being equally probable.
+ * <p>
+ * The solver gives up if the remaining fleet is large, there are too many consistent layouts
+ * or the search is too long. The solved positions are kept in a bounded transposition table keyed
+ * on the knowledge (struck, hit and sunk cells and the remaining fleet); a new position replaces the old one
+ * in its slot. The table is lock-free, so a solver can be shared between concurrent games.
+ */
+public class EndgameSolver {
+    public static final int MAX_SHIPS_NUMBER = 3;
+    private static final int MAX_LAYOUTS_NUMBER = 64;
+    private static final int MAX_ENUMERATION_NODES = 50_000;
+    private static final int MAX_SEARCH_NODES = 20_000;
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private static final EndgameSolver SHARED = new EndgameSolver(1 << 16);
+    private final Placements placements = Placements.getInstance();
+    private final AtomicReferenceArray<Entry> table;
+    private final int mask;
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder tableMisses = new LongAdder();
+
+    /**
+     * @param tableSize number of the slots of the transposition table, it is rounded up to a power of two
+     */
+    public EndgameSolver(int tableSize) {
+        int size = Integer.highestOneBit(Math.max(1, tableSize - 1)) << 1;
+        table = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * @return the solver shared by all the games
+     */
+    public static EndgameSolver getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Finds the best strike
+     * @param knowledge what is known about the adversary field
+     * @return the best cell for the strike or null if the position is too complex
+     */
+    public Cell solve(Knowledge knowledge) {
+        if (knowledge.getRemainingShipsNumber() == 0
+                || knowledge.getRemainingShipsNumber() > MAX_SHIPS_NUMBER) return null;
+        Position position = new Position(knowledge);
+        Entry entry = lookup(position);
+        if (entry == null) {
+            Layout[] layouts = enumerateLayouts(position);
+            if (layouts == null || layouts.length == 0) return null;
+            entry = search(position, layouts, new Search());
+        }
+        return entry == null || entry.cell < 0 ? null : Cell.of(entry.cell);
+    }
+
+    /**
+     * @return number of the positions found in the transposition table
+     */
+    public long getTableHits() {
+        return tableHits.sum();
+    }
+
+    /**
+     * @return number of the positions not found in the transposition table
+     */
+    public long getTableMisses() {
+        return tableMisses.sum();
+    }
+
+    private Entry lookup(Position position) {
+        Entry entry = table.get(position.hashCode() & mask);
+        if (entry != null && entry.position.equals(position)) {
+            tableHits.increment();
+            return entry;
+        }
+        tableMisses.increment();
+        return null;
+    }
+
+    /**
+     * Every layout needs at least as many strikes as it has decks not hit yet, so the average of these numbers
+     * bounds the expected number of the strikes from below. The cells are tried in the order of the decreasing
+     * probability of a hit, the search of a cell stops as soon as its bound reaches the best expectation found.
+     * A cell holding a deck in every layout has to be struck anyway, so it is struck at once.
+     * Cells with the same outcomes in every layout are equivalent, only the first of them is tried.
+     * @return the entry of the position or null if the search has run out of the nodes
+     */
+    private Entry search(Position position, Layout[] layouts, Search search) {
+        Entry cached = lookup(position);
+        if (cached != null) return cached;
+        State state = new State(position, layouts);
+        cached = search.solved.get(state);
+        if (cached != null) return cached;
+        if (++search.nodes > MAX_SEARCH_NODES) return null;
+        Entry result = solve(position, layouts, search);
+        if (result != null) search.solved.put(state, result);
+        return result;
+    }
+
+    private Entry solve(Position position, Layout[] layouts, Search search) {
+
+        int[] hitsNumber = new int[128];
+        int[] remainingDecks = new int[layouts.length];
+        int remainingDecksSum = 0;
+        for (int i = 0; i < layouts.length; i++) {
+            long lo = layouts[i].lo & ~position.hitLo;
+            long hi = layouts[i].hi & ~position.hitHi;
+            remainingDecks[i] = Long.bitCount(lo) + Long.bitCount(hi);
+            remainingDecksSum += remainingDecks[i];
+            for (; lo != 0; lo &= lo - 1) hitsNumber[Long.numberOfTrailingZeros(lo)]++;
+            for (; hi != 0; hi &= hi - 1) hitsNumber[64 + Long.numberOfTrailingZeros(hi)]++;
+        }
+        if (remainingDecksSum == 0) return store(new Entry(position, 0, -1));
+        int[] candidates = sortByHitsNumber(hitsNumber);
+        if (layouts.length == 1) return store(new Entry(position, remainingDecksSum, candidates[0]));
+        if (hitsNumber[candidates[0]] == layouts.length) candidates = new int[] {candidates[0]};
+
+        double best = Double.MAX_VALUE;
+        int bestCell = -1;
+        List<int[]> tried = new ArrayList<>();
+        boolean[] grouped = new boolean[layouts.length];
+        for (int cell : candidates) {
+            double bound = 1 + (double) (remainingDecksSum - hitsNumber[cell]) / layouts.length;
+            if (bound >= best) break;
+            int[] outcomes = new int[layouts.length];
+            for (int i = 0; i < layouts.length; i++) {
+                outcomes[i] = getOutcome(layouts[i], position, cell);
+                grouped[i] = false;
+            }
+            if (isTried(tried, outcomes)) continue;
+            tried.add(outcomes);
+            for (int i = 0; i < layouts.length && bound < best; i++) {
+                if (grouped[i]) continue;
+                List<Layout> group = new ArrayList<>();
+                int groupRemainingDecks = 0;
+                for (int j = i; j < layouts.length; j++) {
+                    if (!grouped[j] && outcomes[j] == outcomes[i]) {
+                        grouped[j] = true;
+                        group.add(layouts[j]);
+                        groupRemainingDecks += remainingDecks[j] - (outcomes[j] == Position.MISS ? 0 : 1);
+                    }
+                }
+                Position child = position.after(cell, outcomes[i]);
+                Entry entry = search(child, group.toArray(new Layout[group.size()]), search);
+                if (entry == null) return null;
+                bound += (entry.expectedStrikes * group.size() - groupRemainingDecks) / layouts.length;
+            }
+            if (bound < best) {
+                best = bound;
+                bestCell = cell;
+            }
+        }
+        return store(new Entry(position, best, bestCell));
+    }
+
+    private static boolean isTried(List<int[]> tried, int[] outcomes) {
+        for (int[] t : tried) {
+            if (Arrays.equals(t, outcomes)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param hitsNumber number of the layouts with a deck not hit yet in the cell for every cell
+     * @return the cells with the decks in the order of the decreasing number of the layouts
+     */
+    private static int[] sortByHitsNumber(int[] hitsNumber) {
+        int size = 0;
+        long[] keys = new long[hitsNumber.length];
+        for (int cell = 0; cell < hitsNumber.length; cell++) {
+            if (hitsNumber[cell] > 0) keys[size++] = (long) -hitsNumber[cell] << 32 | cell;
+        }
+        Arrays.sort(keys, 0, size);
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = (int) keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return MISS if the layout has no deck in the cell, HIT if the deck is hit,
+     * otherwise id of the placement of the sunk ship
+     */
+    private int getOutcome(Layout layout, Position position, int cell) {
+        if (!isSet(layout.lo, layout.hi, cell)) return Position.MISS;
+        for (int id : layout.ships) {
+            Placement placement = placements.get(id);
+            if (!placement.intersects(cell < 64 ? 1L << cell : 0, cell < 64 ? 0 : 1L << cell - 64)) continue;
+            long hitLo = position.hitLo | (cell < 64 ? 1L << cell : 0);
+            long hitHi = position.hitHi | (cell < 64 ? 0 : 1L << cell - 64);
+            boolean sunk = (placement.getShipLo() & ~hitLo) == 0 && (placement.getShipHi() & ~hitHi) == 0;
+            return sunk ? id : Position.HIT;
+        }
+        throw new IllegalStateException("No ship in the occupied cell " + cell);
+    }
+
+    private Entry store(Entry entry) {
+        table.set(entry.position.hashCode() & mask, entry);
+        return entry;
+    }
+
+    /**
+     * Enumerates the layouts of the remaining fleet consistent with the position
+     * @return the layouts or null if there are too many of them
+     */
+    private Layout[] enumerateLayouts(Position position) {
+        int[] ships = new int[position.getShipsNumber()];
+        int k = 0;
+        for (int t = TYPES.length - 1; t >= 0; t--) {
+            for (int i = 0; i < position.getShipsNumber(t); i++) {
+                ships[k++] = t;
+            }
+        }
+        long unresolvedLo = position.hitLo & ~position.sunkLo;
+        long unresolvedHi = position.hitHi & ~position.sunkHi;
+        long blockedLo = position.struckLo & ~unresolvedLo;
+        long blockedHi = position.struckHi & ~unresolvedHi;
+        List<Layout> result = new ArrayList<>();
+        int[] nodes = new int[1];
+        boolean complete = enumerate(ships, 0, new int[ships.length], -1, blockedLo, blockedHi, 0, 0,
+                unresolvedLo, unresolvedHi, result, nodes);
+        return complete ? result.toArray(new Layout[result.size()]) : null;
+    }
+
+    private boolean enumerate(int[] ships, int k, int[] chosen, int previous, long forbiddenLo, long forbiddenHi,
+                              long occupiedLo, long occupiedHi, long unresolvedLo, long unresolvedHi,
+                              List<Layout> result, int[] nodes) {
+        if (++nodes[0] > MAX_ENUMERATION_NODES) return false;
+        if (k == ships.length) {
+            if ((unresolvedLo & ~occupiedLo) == 0 && (unresolvedHi & ~occupiedHi) == 0) {
+                if (result.size() == MAX_LAYOUTS_NUMBER) return false;
+                result.add(new Layout(result.size(), occupiedLo, occupiedHi, chosen.clone()));
+            }
+            return true;
+        }
+        int[] ofType = placements.ofType(TYPES[ships[k]]);
+        boolean sameType = k > 0 && ships[k] == ships[k - 1];
+        for (int id : ofType) {
+            if (sameType && id <= previous) continue;
+            Placement placement = placements.get(id);
+            if (placement.intersects(forbiddenLo, forbiddenHi)) continue;
+            chosen[k] = id;
+            if (!enumerate(ships, k + 1, chosen, id, forbiddenLo | placement.getHaloLo(),
+                    forbiddenHi | placement.getHaloHi(), occupiedLo | placement.getShipLo(),
+                    occupiedHi | placement.getShipHi(), unresolvedLo, unresolvedHi, result, nodes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSet(long lo, long hi, int cell) {
+        return cell < 64 ? (lo & 1L << cell) != 0 : (hi & 1L << cell - 64) != 0;
+    }
+
+    /**
+     * A layout of the remaining fleet: the occupied cells and the placements of the ships
+     */
+    private static class Layout {
+        final int index;
+        final long lo;
+        final long hi;
+        final int[] ships;
+
+        Layout(int index, long lo, long hi, int[] ships) {
+            this.index = index;
+            this.lo = lo;
+            this.hi = hi;
+            this.ships = ships;
+        }
+    }
+
+    /**
+     * Search of a single position: the nodes visited and the states solved
+     */
+    private static class Search {
+        final Map<State, Entry> solved = new HashMap<>();
+        int nodes;
+    }
+
+    /**
+     * State of the search: the consistent layouts and the hit decks of them.
+     * The strikes outside the decks of the layouts do not matter, so the positions differing
+     * only by such misses have the same state.
+     */
+    private static final class State {
+        final long layoutsLo;
+        final long layoutsHi;
+        final long hitLo;
+        final long hitHi;
+
+        State(Position position, Layout[] layouts) {
+            long layoutsLo = 0;
+            long layoutsHi = 0;
+            long decksLo = 0;
+            long decksHi = 0;
+            for (Layout layout : layouts) {
+                if (layout.index < 64) {
+                    layoutsLo |= 1L << layout.index;
+                } else {
+                    layoutsHi |= 1L << layout.index - 64;
+                }
+                decksLo |= layout.lo;
+                decksHi |= layout.hi;
+            }
+            this.layoutsLo = layoutsLo;
+            this.layoutsHi = layoutsHi;
+            hitLo = position.hitLo & decksLo;
+            hitHi = position.hitHi & decksHi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            State state = (State) o;
+
+            return layoutsLo == state.layoutsLo && layoutsHi == state.layoutsHi
+                    && hitLo == state.hitLo && hitHi == state.hitHi;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(layoutsLo * 31 + layoutsHi) * 31 + Long.hashCode(hitLo * 31 + hitHi);
+        }
+    }
+
+    /**
+     * Solved position
+     */
+    private static class Entry {
+        final Position position;
+        final double expectedStrikes;
+        final int cell;
+
+        Entry(Position position, double expectedStrikes, int cell) {
+            this.position = position;
+            this.expectedStrikes = expectedStrikes;
+            this.cell = cell;
+        }
+    }
+
+    /**
+     * Compact knowledge state: struck, hit and sunk cells and the remaining fleet packed by 4 bits per type
+     */
+    private static final class Position {
+        static final int MISS = -1;
+        static final int HIT = -2;
+        final long struckLo;
+        final long struckHi;
+        final long hitLo;
+        final long hitHi;
+        final long sunkLo;
+        final long sunkHi;
+        final int fleet;
+        private final int hash;
+
+        Position(Knowledge knowledge) {
+            this(knowledge.getStruckCells().getLo(), knowledge.getStruckCells().getHi(),
+                    knowledge.getHitCells().getLo(), knowledge.getHitCells().getHi(),
+                    knowledge.getSunkCells().getLo(), knowledge.getSunkCells().getHi(), packFleet(knowledge));
+        }
+
+        Position(long struckLo, long struckHi, long hitLo, long hitHi, long sunkLo, long sunkHi, int fleet) {
+            this.struckLo = struckLo;
+            this.struckHi = struckHi;
+            this.hitLo = hitLo;
+            this.hitHi = hitHi;
+            this.sunkLo = sunkLo;
+            this.sunkHi = sunkHi;
+            this.fleet = fleet;
+            long h = struckLo * 0x9E3779B97F4A7C15L;
+            h = (h ^ struckHi) * 0xC2B2AE3D27D4EB4FL;
+            h = (h ^ hitLo) * 0x9E3779B97F4A7C15L;
+            h = (h ^ hitHi) * 0xC2B2AE3D27D4EB4FL;
+            h = (h ^ sunkLo) * 0x9E3779B97F4A7C15L;
+            h = (h ^ sunkHi) * 0xC2B2AE3D27D4EB4FL;
+            h = (h ^ fleet) * 0x9E3779B97F4A7C15L;
+            hash = (int) (h ^ h >>> 32);
+        }
+
+        int getShipsNumber(int type) {
+            return fleet >>> 4 * type & 0xF;
+        }
+
+        int getShipsNumber() {
+            int result = 0;
+            for (int t = 0; t < TYPES.length; t++) {
+                result += getShipsNumber(t);
+            }
+            return result;
+        }
+
+        /**
+         * @param cell struck cell
+         * @param outcome MISS, HIT or id of the placement of the sunk ship
+         * @return the position after the strike
+         */
+        Position after(int cell, int outcome) {
+            long cellLo = cell < 64 ? 1L << cell : 0;
+            long cellHi = cell < 64 ? 0 : 1L << cell - 64;
+            if (outcome == MISS) {
+                return new Position(struckLo | cellLo, struckHi | cellHi, hitLo, hitHi, sunkLo, sunkHi, fleet);
+            }
+            if (outcome == HIT) {
+                return new Position(struckLo | cellLo, struckHi | cellHi, hitLo | cellLo, hitHi | cellHi,
+                        sunkLo, sunkHi, fleet);
+            }
+            Placement placement = Placements.getInstance().get(outcome);
+            return new Position(struckLo | cellLo | placement.getHaloLo(), struckHi | cellHi | placement.getHaloHi(),
+                    hitLo | cellLo, hitHi | cellHi, sunkLo | placement.getShipLo(), sunkHi | placement.getShipHi(),
+                    fleet - (1 << 4 * placement.getType().ordinal()));
+        }
+
+        private static int packFleet(Knowledge knowledge) {
+            int result = 0;
+            for (Ship.Type type : TYPES) {
+                result |= knowledge.getRemainingShips(type) << 4 * type.ordinal();
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Position position = (Position) o;
+
+            return struckLo == position.struckLo && struckHi == position.struckHi
+                    && hitLo == position.hitLo && hitHi == position.hitHi
+                    && sunkLo == position.sunkLo && sunkHi == position.sunkHi && fleet == position.fleet;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
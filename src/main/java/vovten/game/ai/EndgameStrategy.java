@@ -0,0 +1,42 @@
+package vovten.game.ai;
+
+import vovten.game.field.Cell;
+
+import java.util.Random;
+
+/**
+ * Strategy which plays the endgame exactly with the {@link EndgameSolver}
+ * and chooses the cells by the fallback strategy until the endgame is simple enough.
+ */
+public class EndgameStrategy implements TargetingStrategy {
+    private final EndgameSolver solver;
+    private final TargetingStrategy fallback;
+
+    /**
+     * Constructs the strategy with the shared solver and the {@link DensityStrategy} as the fallback
+     * @param random source of the random decisions
+     */
+    public EndgameStrategy(Random random) {
+        this(EndgameSolver.getShared(), new DensityStrategy(random));
+    }
+
+    /**
+     * @param solver the endgame solver, it may be shared between the games
+     * @param fallback strategy for the positions the solver gives up on
+     */
+    public EndgameStrategy(EndgameSolver solver, TargetingStrategy fallback) {
+        this.solver = solver;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Cell nextTarget(Knowledge knowledge) {
+        Cell result = solver.solve(knowledge);
+        return result != null ? result : fallback.nextTarget(knowledge);
+    }
+
+    @Override
+    public void onStrike(Knowledge knowledge, Cell cell, Outcome outcome) {
+        fallback.onStrike(knowledge, cell, outcome);
+    }
+}
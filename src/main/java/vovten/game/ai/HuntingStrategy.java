@@ -0,0 +1,132 @@
+package vovten.game.ai;
+
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+import vovten.game.Ship.Direction;
+import vovten.game.field.Cell;
+
+import java.util.Random;
+
+/**
+ * The baseline strategy.
+ * Hunts for the largest remaining ship by striking random cells where the ship can be placed,
+ * finishes off the damaged ship by striking around its hit decks.
+ * The strategy supports any {@link RuleSet}.
+ */
+public class HuntingStrategy implements TargetingStrategy {
+    private static final int MAX_ATTEMPTS_PER_CELL = 16;
+    private final Random random;
+
+    public HuntingStrategy(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public Cell nextTarget(Knowledge knowledge) {
+        if (knowledge.getDamagedDecksNumber() > 0) {
+            //the cells around the damaged ship may be already chosen for the same salvo
+            Cell result = finishOffDamagedShip(knowledge);
+            if (result != null) return result;
+        }
+        return findAndDestroy(knowledge);
+    }
+
+    private Cell finishOffDamagedShip(Knowledge knowledge) {
+        if (knowledge.getDamagedDecksNumber() == 1) {
+            return getTargetAroundDamagedCell(knowledge, knowledge.getDamagedDeck(0));
+        }
+        Direction direction = knowledge.getDamagedShipDirection();
+        for (int i = 0; i < knowledge.getDamagedDecksNumber(); i++) {
+            Cell c = knowledge.getDamagedDeck(i);
+            int x = c.getX(), y = c.getY();
+            switch (direction) {
+                case VERTICAL:
+                    if (knowledge.isSuitableForStrike(x, y - 1)) return Cell.of(x, y - 1);
+                    if (knowledge.isSuitableForStrike(x, y + 1)) return Cell.of(x, y + 1);
+                    break;
+
+                case HORIZONTAL:
+                    if (knowledge.isSuitableForStrike(x - 1, y)) return Cell.of(x - 1, y);
+                    if (knowledge.isSuitableForStrike(x + 1, y)) return Cell.of(x + 1, y);
+            }
+        }
+        return null;
+    }
+
+    private Cell findAndDestroy(Knowledge knowledge) {
+        if (knowledge.getRemainingShips(Ship.Type.FOUR_DECK) > 0) {
+            return findSuitablePlace(knowledge, Ship.Type.getDecksNumber(Ship.Type.FOUR_DECK));
+        } else if (knowledge.getRemainingShips(Ship.Type.THREE_DECK) > 0) {
+            return findSuitablePlace(knowledge, Ship.Type.getDecksNumber(Ship.Type.THREE_DECK));
+        } else if (knowledge.getRemainingShips(Ship.Type.TWO_DECK) > 0) {
+            return findSuitablePlace(knowledge, Ship.Type.getDecksNumber(Ship.Type.TWO_DECK));
+        } else if (knowledge.getRemainingShips(Ship.Type.ONE_DECK) > 0) {
+            return findSuitablePlace(knowledge, Ship.Type.getDecksNumber(Ship.Type.ONE_DECK));
+        }
+        return null;
+    }
+
+    private Cell findSuitablePlace(Knowledge knowledge, int deckNumber) {
+        int attempts = MAX_ATTEMPTS_PER_CELL * knowledge.getRuleSet().getCellsNumber();
+        for (int i = 0; i < attempts; i++) {
+            Cell initCell = getRandomCell(knowledge);
+            if (initCell == null) return null;
+            if (isPlaceForShipSuitable(knowledge, deckNumber, initCell, Direction.HORIZONTAL)) return initCell;
+            if (isPlaceForShipSuitable(knowledge, deckNumber, initCell, Direction.VERTICAL)) return initCell;
+        }
+        //the place of the ship may be covered by the cells already chosen for the same salvo
+        return getRandomCell(knowledge);
+    }
+
+    private Cell getTargetAroundDamagedCell(Knowledge knowledge, Cell cell) {
+        int col = cell.getX();
+        int row = cell.getY();
+        if (!knowledge.isSuitableForStrike(col, row - 1) && !knowledge.isSuitableForStrike(col + 1, row)
+                && !knowledge.isSuitableForStrike(col, row + 1) && !knowledge.isSuitableForStrike(col - 1, row)) {
+            return null;
+        }
+        while (true) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (knowledge.isSuitableForStrike(col, row - 1)) return Cell.of(col, row - 1);
+                    break;
+
+                case 1:
+                    if (knowledge.isSuitableForStrike(col + 1, row)) return Cell.of(col + 1, row);
+                    break;
+
+                case 2:
+                    if (knowledge.isSuitableForStrike(col, row + 1)) return Cell.of(col, row + 1);
+                    break;
+
+                case 3:
+                    if (knowledge.isSuitableForStrike(col - 1, row)) return Cell.of(col - 1, row);
+            }
+        }
+    }
+
+    private Cell getRandomCell(Knowledge knowledge) {
+        RuleSet rules = knowledge.getRuleSet();
+        if (knowledge.getStruckCellsNumber() >= rules.getCellsNumber()) return null;
+        int index;
+        do {
+            index = random.nextInt(rules.getCellsNumber());
+        } while (knowledge.isStruck(index));
+        return rules.cellOf(index);
+    }
+
+    private boolean isPlaceForShipSuitable(Knowledge knowledge, int deckNumber, Cell initCell, Direction direction) {
+        int col = initCell.getX();
+        int row = initCell.getY();
+        int colOffset = direction == Direction.HORIZONTAL ? deckNumber - 1 : 0;
+        int rowOffset = direction == Direction.VERTICAL ? deckNumber - 1 : 0;
+
+        //is the area for the ship free (no struck cells)
+        for (int i = col; i <= col + colOffset; i++) {
+            for (int j = row; j <= row + rowOffset; j++) {
+                if (!knowledge.isSuitableForStrike(i, j)) return false;
+            }
+        }
+        return true;
+    }
+}
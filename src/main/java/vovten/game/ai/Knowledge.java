@@ -0,0 +1,323 @@
+package vovten.game.ai;
+
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+import vovten.game.field.BitBoard;
+import vovten.game.field.Cell;
+import vovten.game.field.SparseCellSet;
+import vovten.game.field.Zobrist;
+
+/**
+ * What the AI knows about the adversary field: the cells which need no more strikes,
+ * the hit and the sunk decks, the decks of the damaged ship and the remaining fleet.
+ * The knowledge is updated by the owner of the strategy, the strategies only read it.
+ * The {@link Zobrist} hash of the struck, hit and sunk cells and of the remaining fleet is updated with every change,
+ * so equal knowledge reached in different orders of the strikes has the same hash.
+ * The cells are numbered by the {@link RuleSet}. The cells of a field of at most {@link BitBoard#CAPACITY} cells
+ * are kept in the bit boards, the cells of a larger field are kept in the {@link SparseCellSet}s
+ * and the bit boards are not available. So the memory of the knowledge grows with the strikes, not with the field.
+ * <p>
+ * A salvo may damage several ships. The ships do not touch, so the adjacent hit decks belong to the same ship:
+ * the damaged ship is the group of the adjacent decks around the earliest hit which is not sunk yet,
+ * and a sink removes only the decks of the sunk ship.
+ */
+public class Knowledge {
+    /**
+     * Maximum number of the hit decks of the damaged ship: the decks of the largest ship
+     */
+    public static final int MAX_DAMAGED_DECKS = Ship.Type.getDecksNumber(Ship.Type.FOUR_DECK);
+    private final RuleSet rules;
+    private final CellSet struck;
+    private final CellSet hits;
+    private final CellSet sunk;
+    private final Cell[] damagedCells;
+    private final boolean[] damagedShipCells;
+    private final Cell[] damagedDecks;
+    private final int[] remainingShips;
+    private int damagedCellsNumber;
+    private int damagedDecksNumber;
+    private int remainingShipsNumber;
+    private Ship lastSunkShip;
+    private long hash;
+
+    public Knowledge() {
+        this(RuleSet.CLASSIC);
+    }
+
+    /**
+     * @param rules rules of the game
+     */
+    public Knowledge(RuleSet rules) {
+        this.rules = rules;
+        struck = new CellSet(rules);
+        hits = new CellSet(rules);
+        sunk = new CellSet(rules);
+        damagedCells = new Cell[rules.getDecksNumber()];
+        damagedShipCells = new boolean[rules.getDecksNumber()];
+        damagedDecks = new Cell[MAX_DAMAGED_DECKS];
+        remainingShips = new int[Ship.Type.values().length];
+        for (Ship.Type type : Ship.Type.values()) {
+            remainingShips[type.ordinal()] = rules.getShipsNumber(type);
+            remainingShipsNumber += remainingShips[type.ordinal()];
+            hash ^= Zobrist.fleet(type, remainingShips[type.ordinal()]);
+        }
+    }
+
+    /**
+     * Marks the cell as struck
+     * @param cell the cell
+     */
+    public void markStruck(Cell cell) {
+        setStruck(rules.index(cell));
+    }
+
+    /**
+     * Takes into account the result of the strike
+     * @param cell position of the strike
+     * @param ship the ship damaged by the strike or null if the strike missed
+     * @return outcome of the strike
+     */
+    public Outcome registerStrike(Cell cell, Ship ship) {
+        return registerStrike(cell, ship, ship != null && ship.isDestroyed());
+    }
+
+    /**
+     * Takes into account the result of the strike which may be followed by other strikes of the same salvo
+     * @param cell position of the strike
+     * @param ship the ship damaged by the strike or null if the strike missed
+     * @param sunk true if the strike has sunk the ship
+     * @return outcome of the strike
+     */
+    public Outcome registerStrike(Cell cell, Ship ship, boolean sunk) {
+        int index = rules.index(cell);
+        setStruck(index);
+        if (ship == null) return Outcome.MISS;
+
+        boolean added = hits.add(index);
+        if (added) {
+            hash ^= Zobrist.hit(index);
+        }
+        if (sunk) {
+            markSunkShip(ship);
+            updateDamagedShip();
+            return Outcome.SUNK;
+        }
+        if (added) {
+            damagedCells[damagedCellsNumber++] = cell;
+            updateDamagedShip();
+        }
+        return Outcome.HIT;
+    }
+
+    /**
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return true if the cell is located in the field and is not struck yet, otherwise false
+     */
+    public boolean isSuitableForStrike(int x, int y) {
+        return rules.isInField(x, y) && !struck.get(rules.index(x, y));
+    }
+
+    /**
+     * @param index index of the cell by the rules of the game
+     * @return true if the cell needs no strikes
+     */
+    public boolean isStruck(int index) {
+        return struck.get(index);
+    }
+
+    /**
+     * @return number of the cells which need no strikes
+     */
+    public int getStruckCellsNumber() {
+        return struck.cardinality();
+    }
+
+    public RuleSet getRuleSet() {
+        return rules;
+    }
+
+    /**
+     * @return the cells which need no strikes: the struck cells and the cells around the sunk ships.
+     * The board must not be modified.
+     */
+    public BitBoard getStruckCells() {
+        return struck.getBoard();
+    }
+
+    /**
+     * @return the hit decks. The board must not be modified.
+     */
+    public BitBoard getHitCells() {
+        return hits.getBoard();
+    }
+
+    /**
+     * @return the decks of the sunk ships. The board must not be modified.
+     */
+    public BitBoard getSunkCells() {
+        return sunk.getBoard();
+    }
+
+    public int getRemainingShips(Ship.Type type) {
+        return remainingShips[type.ordinal()];
+    }
+
+    public int getRemainingShipsNumber() {
+        return remainingShipsNumber;
+    }
+
+    /**
+     * @return number of the hit decks of the damaged but not sunk ship, at most {@link #MAX_DAMAGED_DECKS}.
+     * The decks of the other damaged ships are not counted.
+     */
+    public int getDamagedDecksNumber() {
+        return damagedDecksNumber;
+    }
+
+    /**
+     * @param i number of the hit deck in the order of the strikes
+     * @return position of the hit deck of the damaged ship
+     */
+    public Cell getDamagedDeck(int i) {
+        if (i >= damagedDecksNumber) throw new IndexOutOfBoundsException("No damaged deck " + i);
+        return damagedDecks[i];
+    }
+
+    /**
+     * The direction is inferred from the first two hit decks of the damaged ship, they are adjacent to each other
+     * or to its other hit decks, so they are in one row or in one column.
+     * @return direction of the damaged ship or null if only one deck of the ship is hit
+     */
+    public Ship.Direction getDamagedShipDirection() {
+        if (damagedDecksNumber < 2) return null;
+        return damagedDecks[0].getX() == damagedDecks[1].getX()
+                ? Ship.Direction.VERTICAL : Ship.Direction.HORIZONTAL;
+    }
+
+    /**
+     * @return Zobrist hash of the knowledge, the decks of the damaged ship are counted as the hit cells
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public Ship getLastSunkShip() {
+        return lastSunkShip;
+    }
+
+    /**
+     * Marks the sunk ship and the area around it as struck
+     * @param ship sunk ship
+     */
+    private void markSunkShip(Ship ship) {
+        Ship.Type type = ship.getType();
+        hash ^= Zobrist.fleet(type, remainingShips[type.ordinal()]);
+        remainingShips[type.ordinal()]--;
+        hash ^= Zobrist.fleet(type, remainingShips[type.ordinal()]);
+        remainingShipsNumber--;
+        lastSunkShip = ship;
+
+        Cell initCell = ship.getPosition();
+        int col = initCell.getX();
+        int row = initCell.getY();
+        int colOffset = ship.getDirection() == Ship.Direction.HORIZONTAL ? ship.getDecksNumber() - 1 : 0;
+        int rowOffset = ship.getDirection() == Ship.Direction.VERTICAL ? ship.getDecksNumber() - 1 : 0;
+
+        for (int i = col - 1; i <= col + 1 + colOffset; i++) {
+            for (int j = row - 1; j <= row + 1 + rowOffset; j++) {
+                if (!rules.isInField(i, j)) continue;
+                setStruck(rules.index(i, j));
+            }
+        }
+        for (Ship.Deck deck : ship.getDecks()) {
+            int index = rules.index(deck.getCell());
+            if (sunk.add(index)) {
+                hash ^= Zobrist.sunk(index);
+            }
+        }
+        //the decks of the other damaged ships stay in the order of the strikes
+        int kept = 0;
+        for (int i = 0; i < damagedCellsNumber; i++) {
+            if (!sunk.get(rules.index(damagedCells[i]))) damagedCells[kept++] = damagedCells[i];
+        }
+        for (int i = kept; i < damagedCellsNumber; i++) {
+            damagedCells[i] = null;
+        }
+        damagedCellsNumber = kept;
+    }
+
+    /**
+     * Finds the damaged ship: the hit decks which are not sunk and are connected to the earliest of them
+     */
+    private void updateDamagedShip() {
+        damagedDecksNumber = 0;
+        if (damagedCellsNumber == 0) return;
+        damagedShipCells[0] = true;
+        for (int i = 1; i < damagedCellsNumber; i++) {
+            damagedShipCells[i] = false;
+        }
+        boolean grown = true;
+        while (grown) {
+            grown = false;
+            for (int i = 1; i < damagedCellsNumber; i++) {
+                if (damagedShipCells[i]) continue;
+                for (int j = 0; j < damagedCellsNumber && !damagedShipCells[i]; j++) {
+                    if (damagedShipCells[j] && isAdjacent(damagedCells[i], damagedCells[j])) {
+                        damagedShipCells[i] = true;
+                        grown = true;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < damagedCellsNumber && damagedDecksNumber < MAX_DAMAGED_DECKS; i++) {
+            if (damagedShipCells[i]) damagedDecks[damagedDecksNumber++] = damagedCells[i];
+        }
+    }
+
+    private static boolean isAdjacent(Cell first, Cell second) {
+        return Math.abs(first.getX() - second.getX()) + Math.abs(first.getY() - second.getY()) == 1;
+    }
+
+    private void setStruck(int index) {
+        if (struck.add(index)) {
+            hash ^= Zobrist.struck(index);
+        }
+    }
+
+    /**
+     * Set of the cells: the bit board for a small field, the sparse set for a large one
+     */
+    private static final class CellSet {
+        private final BitBoard board;
+        private final SparseCellSet set;
+
+        CellSet(RuleSet rules) {
+            board = rules.getCellsNumber() <= BitBoard.CAPACITY ? new BitBoard() : null;
+            set = board == null ? new SparseCellSet(rules.getFieldSize()) : null;
+        }
+
+        boolean get(int index) {
+            return board != null ? board.get(index) : set.get(index);
+        }
+
+        /**
+         * @return true if the cell has been added, false if it is already in the set
+         */
+        boolean add(int index) {
+            if (board == null) return set.add(index);
+            if (board.get(index)) return false;
+            board.set(index);
+            return true;
+        }
+
+        int cardinality() {
+            return board != null ? board.cardinality() : set.cardinality();
+        }
+
+        BitBoard getBoard() {
+            if (board == null) throw new IllegalStateException("The field is too large for the bit board");
+            return board;
+        }
+    }
+}
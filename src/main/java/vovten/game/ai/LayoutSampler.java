@@ -0,0 +1,142 @@
+package vovten.game.ai;
+
+import vovten.game.Ship;
+import vovten.game.field.Cell;
+import vovten.game.field.Placement;
+import vovten.game.field.Placements;
+
+import java.util.SplittableRandom;
+
+/**
+ * Samples the layouts of the remaining fleet consistent with the knowledge:
+ * no deck in the struck cells and in the diagonal neighbours of the hits, every hit deck of the damaged ship covered.
+ * The ships covering the hit decks are placed first, the other ships are placed from the largest one,
+ * every ship in a random placement compatible with the already placed ships.
+ * The sampler is immutable, the scratch arrays are owned by the callers, so it can be shared between threads.
+ */
+class LayoutSampler {
+    private static final int MAX_ATTEMPTS = 64;
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private final Placements placements = Placements.getInstance();
+    private final long blockedLo;
+    private final long blockedHi;
+    private final long hitsLo;
+    private final long hitsHi;
+    private final int[] fleet;
+
+    LayoutSampler(Knowledge knowledge) {
+        long hitLo = knowledge.getHitCells().getLo() & ~knowledge.getSunkCells().getLo();
+        long hitHi = knowledge.getHitCells().getHi() & ~knowledge.getSunkCells().getHi();
+        long lo = knowledge.getStruckCells().getLo() & ~hitLo;
+        long hi = knowledge.getStruckCells().getHi() & ~hitHi;
+        //the diagonal neighbours of the decks of all the damaged ships hold no decks
+        for (int half = 0; half < 2; half++) {
+            for (long bits = half == 0 ? hitLo : hitHi; bits != 0; bits &= bits - 1) {
+                Cell deck = Cell.of(64 * half + Long.numberOfTrailingZeros(bits));
+                for (int dx = -1; dx <= 1; dx += 2) {
+                    for (int dy = -1; dy <= 1; dy += 2) {
+                        int x = deck.getX() + dx;
+                        int y = deck.getY() + dy;
+                        if (!Cell.isInField(x, y)) continue;
+                        int index = Cell.index(x, y);
+                        if (index < 64) {
+                            lo |= 1L << index;
+                        } else {
+                            hi |= 1L << index - 64;
+                        }
+                    }
+                }
+            }
+        }
+        blockedLo = lo;
+        blockedHi = hi;
+        hitsLo = hitLo;
+        hitsHi = hitHi;
+        fleet = new int[TYPES.length];
+        for (Ship.Type type : TYPES) {
+            fleet[type.ordinal()] = knowledge.getRemainingShips(type);
+        }
+    }
+
+    /**
+     * @return size of the scratch array of the candidate placements
+     */
+    int getCandidatesCapacity() {
+        return placements.size();
+    }
+
+    /**
+     * Samples a layout and adds its decks to the counters
+     * @param random source of the random placements
+     * @param candidates scratch array of the candidate placements
+     * @param left scratch array of the number of the ships to place by types
+     * @param counts counters of the decks by cells
+     * @return true if a layout has been sampled, otherwise false
+     */
+    boolean sample(SplittableRandom random, int[] candidates, int[] left, int[] counts) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            System.arraycopy(fleet, 0, left, 0, fleet.length);
+            long forbiddenLo = blockedLo;
+            long forbiddenHi = blockedHi;
+            long occupiedLo = 0;
+            long occupiedHi = 0;
+            boolean valid = true;
+
+            //cover the hit decks first
+            while (valid && ((hitsLo & ~occupiedLo) != 0 || (hitsHi & ~occupiedHi) != 0)) {
+                int hit = (hitsLo & ~occupiedLo) != 0
+                        ? Long.numberOfTrailingZeros(hitsLo & ~occupiedLo)
+                        : 64 + Long.numberOfTrailingZeros(hitsHi & ~occupiedHi);
+                int n = 0;
+                for (int id : placements.covering(hit)) {
+                    Placement placement = placements.get(id);
+                    if (left[placement.getType().ordinal()] > 0 && !placement.intersects(forbiddenLo, forbiddenHi)) {
+                        candidates[n++] = id;
+                    }
+                }
+                if (n == 0) {
+                    valid = false;
+                    break;
+                }
+                Placement placement = placements.get(candidates[random.nextInt(n)]);
+                left[placement.getType().ordinal()]--;
+                forbiddenLo |= placement.getHaloLo();
+                forbiddenHi |= placement.getHaloHi();
+                occupiedLo |= placement.getShipLo();
+                occupiedHi |= placement.getShipHi();
+            }
+
+            for (int t = TYPES.length - 1; valid && t >= 0; t--) {
+                int[] ofType = placements.ofType(TYPES[t]);
+                while (left[t] > 0) {
+                    int n = 0;
+                    for (int id : ofType) {
+                        if (!placements.get(id).intersects(forbiddenLo, forbiddenHi)) {
+                            candidates[n++] = id;
+                        }
+                    }
+                    if (n == 0) {
+                        valid = false;
+                        break;
+                    }
+                    Placement placement = placements.get(candidates[random.nextInt(n)]);
+                    left[t]--;
+                    forbiddenLo |= placement.getHaloLo();
+                    forbiddenHi |= placement.getHaloHi();
+                    occupiedLo |= placement.getShipLo();
+                    occupiedHi |= placement.getShipHi();
+                }
+            }
+            if (!valid) continue;
+
+            for (long bits = occupiedLo; bits != 0; bits &= bits - 1) {
+                counts[Long.numberOfTrailingZeros(bits)]++;
+            }
+            for (long bits = occupiedHi; bits != 0; bits &= bits - 1) {
+                counts[64 + Long.numberOfTrailingZeros(bits)]++;
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package vovten.game.ai;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+import vovten.game.field.Cell;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy which samples the layouts of the remaining fleet consistent with the knowledge
+ * and strikes the cell occupied in the largest number of the samples.
+ * <p>
+ * The layouts are sampled in parallel on a fork-join pool until the deadline of the decision,
+ * the best answer found by then is returned. If no layout has been sampled in time
+ * the cell is chosen by the {@link DensityStrategy}.
+ */
+public class MonteCarloStrategy implements TargetingStrategy {
+    public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int CELLS_NUMBER = Game.FIELD_SIZE * Game.FIELD_SIZE;
+    private final Random random;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private final DensityStrategy fallback;
+    private long lastSamplesNumber;
+
+    public MonteCarloStrategy(Random random) {
+        this(random, DEFAULT_BUDGET_NANOS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param random source of the random decisions
+     * @param budgetNanos time limit of a decision in nanoseconds
+     * @param pool pool sampling the layouts
+     */
+    public MonteCarloStrategy(Random random, long budgetNanos, ForkJoinPool pool) {
+        this.random = random;
+        this.budgetNanos = budgetNanos;
+        this.pool = pool;
+        fallback = new DensityStrategy(random);
+    }
+
+    @Override
+    public Cell nextTarget(Knowledge knowledge) {
+        long deadline = System.nanoTime() + budgetNanos;
+        LayoutSampler sampler = new LayoutSampler(knowledge);
+        SampleTask task = new SampleTask(sampler, deadline, new SplittableRandom(random.nextLong()),
+                pool.getParallelism());
+        int[] counts = pool.invoke(task);
+        lastSamplesNumber = counts[CELLS_NUMBER];
+        if (lastSamplesNumber == 0) return fallback.nextTarget(knowledge);
+
+        int best = -1;
+        int ties = 0;
+        for (int i = 0; i < CELLS_NUMBER; i++) {
+            if (knowledge.isStruck(i)) continue;
+            if (best < 0 || counts[i] > counts[best]) {
+                best = i;
+                ties = 1;
+            } else if (counts[i] == counts[best] && random.nextInt(++ties) == 0) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : Cell.of(best);
+    }
+
+    @Override
+    public void onStrike(Knowledge knowledge, Cell cell, Outcome outcome) {
+        fallback.onStrike(knowledge, cell, outcome);
+    }
+
+    /**
+     * @return number of the layouts sampled for the last decision
+     */
+    public long getLastSamplesNumber() {
+        return lastSamplesNumber;
+    }
+
+    /**
+     * Samples the layouts until the deadline.
+     * Returns the counters of the decks by cells followed by the number of the samples.
+     */
+    private static class SampleTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+        private final LayoutSampler sampler;
+        private final long deadline;
+        private final SplittableRandom random;
+        private final int parts;
+
+        SampleTask(LayoutSampler sampler, long deadline, SplittableRandom random, int parts) {
+            this.sampler = sampler;
+            this.deadline = deadline;
+            this.random = random;
+            this.parts = parts;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (parts > 1) {
+                SampleTask left = new SampleTask(sampler, deadline, random.split(), parts / 2);
+                SampleTask right = new SampleTask(sampler, deadline, random, parts - parts / 2);
+                left.fork();
+                int[] result = right.compute();
+                int[] other = left.join();
+                for (int i = 0; i < result.length; i++) {
+                    result[i] += other[i];
+                }
+                return result;
+            }
+            int[] counts = new int[CELLS_NUMBER + 1];
+            int[] candidates = new int[sampler.getCandidatesCapacity()];
+            int[] left = new int[Ship.Type.values().length];
+            while (System.nanoTime() < deadline) {
+                if (sampler.sample(random, candidates, left, counts)) {
+                    counts[CELLS_NUMBER]++;
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package vovten.game.ai;
+
+/**
+ * Outcome of a strike as seen by the striking player.
+ */
+public enum Outcome {
+    MISS, HIT, SUNK
+}
@@ -0,0 +1,34 @@
+package vovten.game.ai;
+
+import vovten.game.field.Cell;
+
+import java.util.Random;
+
+/**
+ * Strategy of choosing the cells for the strikes of the AI.
+ */
+public interface TargetingStrategy {
+
+    /**
+     * Chooses the cell for the next strike
+     * @param knowledge what is known about the adversary field
+     * @return the cell for the next strike, it must be suitable for strike
+     */
+    Cell nextTarget(Knowledge knowledge);
+
+    /**
+     * Is called after the knowledge has been updated with the result of the strike
+     * @param knowledge what is known about the adversary field
+     * @param cell position of the strike
+     * @param outcome outcome of the strike
+     */
+    default void onStrike(Knowledge knowledge, Cell cell, Outcome outcome) {
+    }
+
+    /**
+     * Factory of the strategy for a single game
+     */
+    interface Factory {
+        TargetingStrategy create(Random random);
+    }
+}
@@ -1,6 +1,6 @@
 package vovten.game.field;
 
-import vovten.game.Game;
+import vovten.game.RuleSet;
 import vovten.game.Ship;
 
 import java.util.ArrayList;
@@ -8,20 +8,31 @@ import java.util.List;
 
 /**
  * Contains common functions for creating field and ships.
+ * The size of the field and the fleet are defined by the {@link RuleSet}.
+ * The decks are kept in the hash table by the cells, so the placement and its validation cost the same
+ * on a field of any size and the memory of the builder grows with the fleet.
  */
 public abstract class AbstractFieldBuilder implements FieldBuilder {
-    protected static final int FIELD_SIZE = Game.FIELD_SIZE;
-    protected final Ship[][] field;
+    protected final RuleSet rules;
+    protected final int fieldSize;
     protected final List<Ship> ships;
-    private int oneDeckShipCounter;
-    private int twoDeckShipCounter;
-    private int threeDeckShipCounter;
-    private int fourDeckShipCounter;
+    private final DeckTable decks;
+    private final int[] shipCounters;
     private int generalShipCounter;
 
     public AbstractFieldBuilder() {
-        field = new Ship[FIELD_SIZE][FIELD_SIZE];
+        this(RuleSet.CLASSIC);
+    }
+
+    /**
+     * @param rules rules of the game
+     */
+    public AbstractFieldBuilder(RuleSet rules) {
+        this.rules = rules;
+        fieldSize = rules.getFieldSize();
         ships = new ArrayList<>();
+        decks = new DeckTable(rules.getDecksNumber());
+        shipCounters = new int[Ship.Type.values().length];
     }
 
     @Override
@@ -29,6 +40,35 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
         return ships;
     }
 
+    @Override
+    public RuleSet getRuleSet() {
+        return rules;
+    }
+
+    /**
+     * Creates the dense array of the field, its memory is proportional to the area of the field
+     * @return the ships by the column and the row of the cell
+     */
+    @Override
+    public Ship[][] getField() {
+        Ship[][] result = new Ship[fieldSize][fieldSize];
+        for (Ship ship : getShips()) {
+            for (Ship.Deck deck : ship.getDecks()) {
+                result[deck.getCell().x][deck.getCell().y] = ship;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return the ship with a deck in the cell or null
+     */
+    public Ship getShip(int x, int y) {
+        return rules.isInField(x, y) ? decks.get(rules.index(x, y)) : null;
+    }
+
     /**
      * Checks the suitability of the place for setting the ship
      * @param shipType type of the ship
@@ -46,13 +86,13 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
             case VERTICAL:
                 colOffset = 0;
                 rowOffset = Ship.Type.getDecksNumber(shipType) - 1;
-                if (row + rowOffset > FIELD_SIZE - 1) return false;
+                if (row + rowOffset > fieldSize - 1) return false;
                 break;
 
             case HORIZONTAL:
                 colOffset = Ship.Type.getDecksNumber(shipType) - 1;
                 rowOffset = 0;
-                if (col + colOffset > FIELD_SIZE - 1) return false;
+                if (col + colOffset > fieldSize - 1) return false;
                 break;
 
             default:
@@ -62,8 +102,8 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
         //is the area for the ship free (no other ships)
         for (int i = col - 1; i <= col + 1 + colOffset; i++) {
             for (int j = row - 1; j <= row + 1 + rowOffset; j++) {
-                if (i < 0 || j < 0 || i >= FIELD_SIZE || j >= FIELD_SIZE) continue;
-                if (field[i][j] != null) return false;
+                if (i < 0 || j < 0 || i >= fieldSize || j >= fieldSize) continue;
+                if (getShip(i, j) != null) return false;
             }
         }
         return true;
@@ -86,21 +126,8 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
      * @param ship ship is placed on the field
      */
     public void placeShipOnField(Ship ship) {
-        int x = ship.getPosition().x;
-        int y = ship.getPosition().y;
-        int shipSize = ship.getDecksNumber();
-
-        switch (ship.getDirection()) {
-            case VERTICAL:
-                for (int i = 0; i < shipSize; i++) {
-                    field[x][y + i] = ship;
-                }
-                break;
-
-            case HORIZONTAL:
-                for (int i = 0; i < shipSize; i++) {
-                    field[x + i][y] = ship;
-                }
+        for (Ship.Deck deck : ship.getDecks()) {
+            decks.put(rules.index(deck.getCell()), ship);
         }
         ships.add(ship);
         changeShipCounter(ship, CommandType.INC);
@@ -112,21 +139,8 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
      * @return true if all ships of this type are placed on the field, otherwise false
      */
     public boolean allShipsOfTypePlaced(Ship ship) {
-        switch (ship.getType()) {
-            case ONE_DECK:
-                if (oneDeckShipCounter == Ship.Type.getShipsNumber(Ship.Type.ONE_DECK)) return true;
-                break;
-            case TWO_DECK:
-                if (twoDeckShipCounter == Ship.Type.getShipsNumber(Ship.Type.TWO_DECK)) return true;
-                break;
-            case THREE_DECK:
-                if (threeDeckShipCounter == Ship.Type.getShipsNumber(Ship.Type.THREE_DECK)) return true;
-                break;
-            case FOUR_DECK:
-                if (fourDeckShipCounter == Ship.Type.getShipsNumber(Ship.Type.FOUR_DECK)) return true;
-                break;
-        }
-        return false;
+        Ship.Type type = ship.getType();
+        return shipCounters[type.ordinal()] == rules.getShipsNumber(type);
     }
 
     /**
@@ -134,7 +148,7 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
      * @return true if all ships are placed on the field, otherwise false
      */
     public boolean isAllShipsPlaced() {
-        return generalShipCounter == Game.GENERAL_SHIPS_NUMBER;
+        return generalShipCounter == rules.getShipsNumber();
     }
 
     /**
@@ -144,18 +158,41 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
      */
     protected boolean isInitialCellValid(Cell cell) {
         //is cell in the field area
-        if (!(0 <= cell.x && cell.x < FIELD_SIZE) || !(0 <= cell.y && cell.y < FIELD_SIZE)) return false;
+        if (!(0 <= cell.x && cell.x < fieldSize) || !(0 <= cell.y && cell.y < fieldSize)) return false;
 
         //is cell and the area around the cell free(no other ships)
         for (int i = cell.x - 1; i < cell.x + 2; i++) {
             for (int j = cell.y - 1; j < cell.y + 2; j++) {
-                if (i < 0 || j < 0 || i >= FIELD_SIZE || j >= FIELD_SIZE || (i == cell.x & j == cell.y)) continue;
-                if (field[i][j] != null) return false;
+                if (i < 0 || j < 0 || i >= fieldSize || j >= fieldSize || (i == cell.x & j == cell.y)) continue;
+                if (getShip(i, j) != null) return false;
             }
         }
         return true;
     }
 
+    /**
+     * Removes the decks of the ship from the field
+     * @param ship the ship
+     */
+    protected void removeDecks(Ship ship) {
+        for (Ship.Deck deck : ship.getDecks()) {
+            if (ship.equals(decks.get(rules.index(deck.getCell())))) {
+                decks.remove(rules.index(deck.getCell()));
+            }
+        }
+    }
+
+    /**
+     * Removes all the ships from the field
+     */
+    protected void removeAllShips() {
+        for (Ship ship : ships) {
+            removeDecks(ship);
+            changeShipCounter(ship, CommandType.DEC);
+        }
+        ships.clear();
+    }
+
     /**
      * Changes the value of the counter placed ships of a certain type
      * @param ship placed ship
@@ -163,36 +200,8 @@ public abstract class AbstractFieldBuilder implements FieldBuilder {
      *                It can be decrement or increment command.
      */
     protected void changeShipCounter(Ship ship, CommandType command) {
-        switch (ship.getType()) {
-            case ONE_DECK:
-                if (command == CommandType.INC) {
-                    oneDeckShipCounter++;
-                } else {
-                    oneDeckShipCounter--;
-                }
-                break;
-            case TWO_DECK:
-                if (command == CommandType.INC) {
-                    twoDeckShipCounter++;
-                } else {
-                    twoDeckShipCounter--;
-                }
-                break;
-            case THREE_DECK:
-                if (command == CommandType.INC) {
-                    threeDeckShipCounter++;
-                } else {
-                    threeDeckShipCounter--;
-                }
-                break;
-            case FOUR_DECK:
-                if (command == CommandType.INC) {
-                    fourDeckShipCounter++;
-                } else {
-                    fourDeckShipCounter--;
-                }
-                break;
-        }
+        int delta = command == CommandType.INC ? 1 : -1;
+        shipCounters[ship.getType().ordinal()] += delta;
         if (command != null) {
             changeGeneralShipCounter(command);
         }
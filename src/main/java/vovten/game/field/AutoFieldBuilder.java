@@ -1,72 +1,162 @@
 package vovten.game.field;
 
+import java.util.List;
 import java.util.Random;
 
+import vovten.game.RuleSet;
 import vovten.game.Ship;
 import vovten.game.Ship.Direction;
 
 /**
  * Creates a game field and sets all the ships on the field randomly.
+ * In the {@link Mode#REJECTION} mode the ship positions are drawn until a free place is found.
+ * After {@link #MAX_DRAWS} failed draws the ship is put in a random free place found by the scan of the field,
+ * if there is no free place the placement restarts from the empty field. A fleet which is not placed after
+ * {@link #MAX_RESTARTS} restarts is rejected with {@link IllegalStateException}.
+ * in the {@link Mode#PLACEMENT_TABLE} mode the layout is generated by the {@link LayoutGenerator},
+ * in the {@link Mode#UNIFORM} mode the layout is drawn by the {@link UniformLayoutSampler}.
+ * Its tables are counted in the background since the first builder of the mode or
+ * {@link UniformLayoutSampler#prepare()}, the builder waits for them, so the layouts are never biased.
+ * Only the {@link Mode#REJECTION} mode supports the rules other than the classic ones.
  */
 public class AutoFieldBuilder extends AbstractFieldBuilder {
+    static final int MAX_DRAWS = 100;
+    static final int MAX_RESTARTS = 1000;
+    private final Random random;
+    private final Mode mode;
     private Direction oldDirection;
+    private boolean built;
 
     public AutoFieldBuilder() {
-        super();
+        this(new Random());
+    }
+
+    /**
+     * @param random source of the ship positions
+     */
+    public AutoFieldBuilder(Random random) {
+        this(random, Mode.REJECTION);
+    }
+
+    /**
+     * @param random source of the ship positions
+     * @param mode mode of the ship placement
+     */
+    public AutoFieldBuilder(Random random, Mode mode) {
+        this(random, mode, RuleSet.CLASSIC);
+    }
+
+    /**
+     * @param random source of the ship positions
+     * @param rules rules of the game
+     */
+    public AutoFieldBuilder(Random random, RuleSet rules) {
+        this(random, Mode.REJECTION, rules);
+    }
+
+    /**
+     * @param random source of the ship positions
+     * @param mode mode of the ship placement
+     * @param rules rules of the game
+     */
+    public AutoFieldBuilder(Random random, Mode mode, RuleSet rules) {
+        super(rules);
+        if (mode != Mode.REJECTION && !rules.isClassic()) {
+            throw new IllegalArgumentException("Mode " + mode + " supports only the classic rules: " + rules);
+        }
+        this.random = random;
+        this.mode = mode;
+        if (mode == Mode.UNIFORM) UniformLayoutSampler.prepare();
         oldDirection = Direction.VERTICAL;
     }
 
     /**
-     * Creates the field with ships
-     * @return field with ships
+     * Sets the ships on the field on the first call
+     * @return the ships
+     * @throws IllegalStateException if the fleet of the rules can not be placed on the field
      */
     @Override
-    public Ship[][] getField() {
-        setAllShipsOnField();
-        return field;
+    public List<Ship> getShips() {
+        if (!built) {
+            built = true;
+            setAllShipsOnField();
+        }
+        return ships;
     }
 
     /**
      * Sets all the ships on the field randomly
      */
     private void setAllShipsOnField() {
-        placeSpecifiedTypeShipsOnField(Ship.Type.FOUR_DECK);
-        placeSpecifiedTypeShipsOnField(Ship.Type.THREE_DECK);
-        placeSpecifiedTypeShipsOnField(Ship.Type.TWO_DECK);
-        placeSpecifiedTypeShipsOnField(Ship.Type.ONE_DECK);
+        switch (mode) {
+            case PLACEMENT_TABLE:
+                new LayoutGenerator(random).next().createShips().forEach(this::placeShipOnField);
+                return;
+
+            case UNIFORM:
+                UniformLayoutSampler.getInstance().next(random).createShips().forEach(this::placeShipOnField);
+                return;
+        }
+        for (int restart = 0; restart <= MAX_RESTARTS; restart++) {
+            if (placeSpecifiedTypeShipsOnField(Ship.Type.FOUR_DECK)
+                    && placeSpecifiedTypeShipsOnField(Ship.Type.THREE_DECK)
+                    && placeSpecifiedTypeShipsOnField(Ship.Type.TWO_DECK)
+                    && placeSpecifiedTypeShipsOnField(Ship.Type.ONE_DECK)) return;
+            removeAllShips();
+        }
+        throw new IllegalStateException("The fleet is not placed after " + MAX_RESTARTS + " restarts: " + rules);
     }
 
     /**
-     * Sets a ship on the field randomly
+     * Sets the ships of the type on the field randomly
      * @param shipType type of the ship
+     * @return false if there is no free place for a ship
      */
-    private void placeSpecifiedTypeShipsOnField(Ship.Type shipType) {
-        int shipNumber = Ship.Type.getShipsNumber(shipType);
-        boolean isPlaceForShipValid;
+    private boolean placeSpecifiedTypeShipsOnField(Ship.Type shipType) {
+        int shipNumber = rules.getShipsNumber(shipType);
         for (int i = 0; i < shipNumber; i++) {
-            isPlaceForShipValid = false;
-            while (!isPlaceForShipValid) {
-                Cell position = getInitialCell();
-                Direction direction = getDirection();
-                isPlaceForShipValid = isPlaceForShipValid(shipType, position, direction);
-                if (isPlaceForShipValid) {
-                    Ship ship = new Ship(shipType, position, direction);
-                    placeShipOnField(ship);
-                }
+            Ship ship = drawShip(shipType);
+            if (ship == null) ship = findShip(shipType);
+            if (ship == null) return false;
+            placeShipOnField(ship);
+        }
+        return true;
+    }
+
+    /**
+     * @param shipType type of the ship
+     * @return the ship in a random free place or null if the draws have failed
+     */
+    private Ship drawShip(Ship.Type shipType) {
+        for (int i = 0; i < MAX_DRAWS; i++) {
+            Cell position = Cell.of(random.nextInt(fieldSize), random.nextInt(fieldSize));
+            Direction direction = getDirection();
+            if (isInitialCellValid(position) && isPlaceForShipValid(shipType, position, direction)) {
+                return new Ship(shipType, position, direction);
             }
         }
+        return null;
     }
 
     /**
-     * @return the initial cell of a new ship
+     * Scans the field for the free places
+     * @param shipType type of the ship
+     * @return the ship in a free place chosen uniformly or null if there is no free place
      */
-    private Cell getInitialCell() {
-        Cell result = new Cell();
-        Random random = new Random();
-        do {
-            result.x = random.nextInt(FIELD_SIZE);
-            result.y = random.nextInt(FIELD_SIZE);
-        } while (!isInitialCellValid(result));
+    private Ship findShip(Ship.Type shipType) {
+        Ship result = null;
+        int found = 0;
+        for (int y = 0; y < fieldSize; y++) {
+            for (int x = 0; x < fieldSize; x++) {
+                for (Direction direction : Direction.values()) {
+                    if (shipType == Ship.Type.ONE_DECK && direction == Direction.VERTICAL) continue;
+                    Cell position = Cell.of(x, y);
+                    if (!isPlaceForShipValid(shipType, position, direction)) continue;
+                    //reservoir sampling of the free places
+                    if (random.nextInt(++found) == 0) result = new Ship(shipType, position, direction);
+                }
+            }
+        }
         return result;
     }
 
@@ -82,4 +172,10 @@ public class AutoFieldBuilder extends AbstractFieldBuilder {
             return oldDirection;
         }
     }
+
+    public enum Mode {
+        REJECTION,
+        PLACEMENT_TABLE,
+        UNIFORM
+    }
 }
@@ -1,26 +1,41 @@
 package vovten.game.field;
 
-import vovten.game.Game;
+import vovten.game.RuleSet;
 import vovten.game.Ship;
 
 import java.util.List;
 
 /**
  * The battle field with ships.
+ * The struck ship is looked up in the {@link DeckTable} by the index of the cell,
+ * so a strike costs the same on a field of any size and the memory of the field grows with the fleet.
+ * The {@link Zobrist} hash of the decks and of the hit cells is updated on every hit.
  */
 public class BattleField {
-    private final Ship[][] field;
+    private final RuleSet rules;
     private final List<Ship> ships;
+    private final Ship[] allShips;
+    private final DeckTable decks;
+    private final int[] shipCounters;
+    private final int decksNumber;
+    private int hitDecksNumber;
     private Ship currDamagedShip;
-    private int oneDeckShipCounter;
-    private int twoDeckShipCounter;
-    private int threeDeckShipCounter;
-    private int fourDeckShipCounter;
+    private Ship[][] field;
+    private long hash;
 
     public BattleField(FieldBuilder fieldBuilder) {
-        field = fieldBuilder.getField();
+        rules = fieldBuilder.getRuleSet();
         ships = fieldBuilder.getShips();
-        initShipsCounters();
+        allShips = ships.toArray(new Ship[ships.size()]);
+        shipCounters = new int[Ship.Type.values().length];
+        int number = 0;
+        for (Ship ship : ships) {
+            number += ship.getDecksNumber();
+            shipCounters[ship.getType().ordinal()]++;
+        }
+        decksNumber = number;
+        decks = new DeckTable(number);
+        initDecks();
     }
 
     /**
@@ -30,16 +45,33 @@ public class BattleField {
      */
     public boolean strike(Cell cell) {
         currDamagedShip = null;
-        if (isSuccessfulStrike(cell)) {
-            currDamagedShip = getStruckShip(cell);
-            currDamagedShip.addDamage(cell);
-            if (currDamagedShip.isDestroyed()) {
-                ships.remove(currDamagedShip);
-                decShipCounter(currDamagedShip);
-            }
-            return true;
+        if (!rules.isInField(cell)) return false;
+        int index = rules.index(cell);
+        Ship ship = getStruckShip(index);
+        if (ship == null) return false;
+
+        currDamagedShip = ship;
+        boolean destroyed = ship.isDestroyed();
+        boolean damaged = isDeckDamaged(ship, cell);
+        ship.addDamage(cell);
+        if (!damaged) {
+            hitDecksNumber++;
+            hash ^= Zobrist.hit(index);
         }
-        return false;
+        if (!destroyed && ship.isDestroyed() && ships.remove(ship)) {
+            shipCounters[ship.getType().ordinal()]--;
+        }
+        return true;
+    }
+
+    /**
+     * Strikes in a specified position of the field
+     * @param index index of the strike position, see {@link RuleSet#index(Cell)}
+     * @return true if strike was successful otherwise false
+     * @throws IllegalArgumentException if the index is out of the field
+     */
+    public boolean strike(int index) {
+        return strike(rules.cellOf(index));
     }
 
     /**
@@ -47,12 +79,7 @@ public class BattleField {
      * @return true if all ships destroyed otherwise false
      */
     public boolean isNavyDestroyed() {
-        for (Ship ship : ships) {
-            if (!ship.isDestroyed()) {
-                return false;
-            }
-        }
-        return true;
+        return hitDecksNumber == decksNumber;
     }
 
     /**
@@ -64,10 +91,20 @@ public class BattleField {
     }
 
     /**
-     * Returns the field with ships
+     * Returns the field with ships, the dense array is created on the first call
+     * and its memory is proportional to the area of the field
      * @return the field with ships
      */
     public Ship[][] getField() {
+        if (field == null) {
+            int size = rules.getFieldSize();
+            field = new Ship[size][size];
+            for (Ship ship : allShips) {
+                for (Ship.Deck deck : ship.getDecks()) {
+                    field[deck.getCell().x][deck.getCell().y] = ship;
+                }
+            }
+        }
         return field;
     }
 
@@ -85,18 +122,8 @@ public class BattleField {
      * @return true if all the ships of the specified type destroyed, otherwise false
      */
     public boolean allShipsTypeDestroyed(Ship.Type type) {
-        switch (type) {
-            case ONE_DECK:
-                return oneDeckShipCounter == 0;
-            case TWO_DECK:
-                return twoDeckShipCounter == 0;
-            case THREE_DECK:
-                return threeDeckShipCounter == 0;
-            case FOUR_DECK:
-                return fourDeckShipCounter == 0;
-            default:
-                throw new IllegalArgumentException("Not supported type of ship");
-        }
+        if (type == null) throw new IllegalArgumentException("Not supported type of ship");
+        return shipCounters[type.ordinal()] == 0;
     }
 
     /**
@@ -104,73 +131,54 @@ public class BattleField {
      * @return true if all the ships are placed on the field, otherwise false
      */
     public boolean allShipsPlaced() {
-        return ships.size() == Game.GENERAL_SHIPS_NUMBER;
+        return ships.size() == rules.getShipsNumber();
+    }
+
+    public RuleSet getRuleSet() {
+        return rules;
+    }
+
+    /**
+     * @return Zobrist hash of the ships and of the hit cells
+     */
+    public long getHash() {
+        return hash;
     }
 
     public int getOneDeckShipCounter() {
-        return oneDeckShipCounter;
+        return shipCounters[Ship.Type.ONE_DECK.ordinal()];
     }
 
     public int getTwoDeckShipCounter() {
-        return twoDeckShipCounter;
+        return shipCounters[Ship.Type.TWO_DECK.ordinal()];
     }
 
     public int getThreeDeckShipCounter() {
-        return threeDeckShipCounter;
+        return shipCounters[Ship.Type.THREE_DECK.ordinal()];
     }
 
     public int getFourDeckShipCounter() {
-        return fourDeckShipCounter;
-    }
-
-    private void initShipsCounters() {
-        ships.forEach(ship -> {
-            switch (ship.getType()) {
-                case ONE_DECK:
-                    oneDeckShipCounter++;
-                    break;
-                case TWO_DECK:
-                    twoDeckShipCounter++;
-                    break;
-                case THREE_DECK:
-                    threeDeckShipCounter++;
-                    break;
-                case FOUR_DECK:
-                    fourDeckShipCounter++;
-                    break;
-            }
-        });
-    }
-
-    private boolean isSuccessfulStrike(Cell cell) {
-        return field[cell.x][cell.y] != null;
+        return shipCounters[Ship.Type.FOUR_DECK.ordinal()];
     }
 
-    private Ship getStruckShip(Cell cell) {
-        Ship result = null;
+    private void initDecks() {
         for (Ship ship : ships) {
-            Ship.Deck struckDeck = new Ship.Deck(cell);
-            if (ship.getDecks().contains(struckDeck)) {
-                result = ship;
+            for (Ship.Deck deck : ship.getDecks()) {
+                int index = rules.index(deck.getCell());
+                decks.put(index, ship);
+                hash ^= Zobrist.deck(ship.getType(), index);
             }
         }
-        return result;
-    }
-
-    private void decShipCounter(Ship ship) {
-        switch (ship.getType()) {
-            case ONE_DECK:
-                oneDeckShipCounter--;
-                break;
-            case TWO_DECK:
-                twoDeckShipCounter--;
-                break;
-            case THREE_DECK:
-                threeDeckShipCounter--;
-                break;
-            case FOUR_DECK:
-                fourDeckShipCounter--;
-                break;
+    }
+
+    private Ship getStruckShip(int index) {
+        return decks.get(index);
+    }
+
+    private static boolean isDeckDamaged(Ship ship, Cell cell) {
+        for (Ship.Deck deck : ship.getDecks()) {
+            if (deck.getCell().equals(cell)) return deck.isDamaged();
         }
+        return false;
     }
 }
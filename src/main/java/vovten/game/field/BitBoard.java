@@ -0,0 +1,117 @@
+package vovten.game.field;
+
+/**
+ * Set of the field cells packed into a pair of longs.
+ * The cell with index i (see {@link Cell#getIndex()}) is kept in the bit i of the low word (i < 64)
+ * or in the bit i - 64 of the high word.
+ */
+public final class BitBoard {
+    /**
+     * Max number of cells which can be kept in the board
+     */
+    public static final int CAPACITY = 128;
+    private long lo;
+    private long hi;
+
+    public BitBoard() {
+    }
+
+    public BitBoard(BitBoard other) {
+        this.lo = other.lo;
+        this.hi = other.hi;
+    }
+
+    public boolean get(int index) {
+        if (index < 64) {
+            return (lo & 1L << index) != 0;
+        }
+        return (hi & 1L << index - 64) != 0;
+    }
+
+    public void set(int index) {
+        if (index < 64) {
+            lo |= 1L << index;
+        } else {
+            hi |= 1L << index - 64;
+        }
+    }
+
+    public void clear(int index) {
+        if (index < 64) {
+            lo &= ~(1L << index);
+        } else {
+            hi &= ~(1L << index - 64);
+        }
+    }
+
+    public void clear() {
+        lo = 0;
+        hi = 0;
+    }
+
+    /**
+     * Adds all the cells of the other board to this board
+     * @param other other board
+     */
+    public void or(BitBoard other) {
+        lo |= other.lo;
+        hi |= other.hi;
+    }
+
+    /**
+     * @param other other board
+     * @return true if all the cells of the other board are present in this board, otherwise false
+     */
+    public boolean containsAll(BitBoard other) {
+        return (other.lo & ~lo) == 0 && (other.hi & ~hi) == 0;
+    }
+
+    /**
+     * @param other other board
+     * @return true if the boards have at least one common cell, otherwise false
+     */
+    public boolean intersects(BitBoard other) {
+        return (lo & other.lo) != 0 || (hi & other.hi) != 0;
+    }
+
+    public boolean isEmpty() {
+        return lo == 0 && hi == 0;
+    }
+
+    public int cardinality() {
+        return Long.bitCount(lo) + Long.bitCount(hi);
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    public long getHi() {
+        return hi;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BitBoard board = (BitBoard) o;
+
+        return lo == board.lo && hi == board.hi;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(lo);
+        result = 31 * result + Long.hashCode(hi);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BitBoard{" +
+                "lo=" + Long.toHexString(lo) +
+                ", hi=" + Long.toHexString(hi) +
+                '}';
+    }
+}
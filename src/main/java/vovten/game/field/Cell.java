@@ -1,20 +1,75 @@
 package vovten.game.field;
 
+import vovten.game.Game;
+
 /**
- * A cell of the field
+ * A cell of the field.
+ * Cells are immutable, their coordinates are not negative. The cells of the classic field are interned and can be
+ * obtained by coordinates or by the packed index (see {@link #index(int, int)}).
+ * The cells of the larger fields are numbered by their {@link vovten.game.RuleSet}.
  */
-public class Cell {
-    int x;
-    int y;
-
-    public Cell() {
-    }
+public final class Cell {
+    private static final Cell[] CELLS = createCells();
+    final int x;
+    final int y;
 
+    /**
+     * @param x column of the cell
+     * @param y row of the cell
+     * @throws IllegalArgumentException if a coordinate is negative
+     */
     public Cell(int x, int y) {
+        if (x < 0 || y < 0) throw new IllegalArgumentException("Negative coordinates: " + x + ", " + y);
         this.x = x;
         this.y = y;
     }
 
+    /**
+     * Returns the cell with specified coordinates.
+     * The cells of the classic field are shared, a cell outside the field is created anew.
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return the cell
+     * @throws IllegalArgumentException if a coordinate is negative
+     */
+    public static Cell of(int x, int y) {
+        if (isInField(x, y)) return CELLS[y * Game.FIELD_SIZE + x];
+        return new Cell(x, y);
+    }
+
+    /**
+     * Returns the cell of the field with specified index
+     * @param index packed index of the cell
+     * @return the cell
+     */
+    public static Cell of(int index) {
+        if (index < 0 || index >= CELLS.length) {
+            throw new IllegalArgumentException("The index is out of the field: " + index);
+        }
+        return CELLS[index];
+    }
+
+    /**
+     * Packs the coordinates of the cell of the classic field into the index
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return index of the cell
+     * @throws IllegalArgumentException if the cell is out of the classic field
+     */
+    public static int index(int x, int y) {
+        if (!isInField(x, y)) throw new IllegalArgumentException("The cell is out of the field: " + x + ", " + y);
+        return y * Game.FIELD_SIZE + x;
+    }
+
+    /**
+     * @param x column of the cell
+     * @param y row of the cell
+     * @return true if the cell with specified coordinates is located in the field, otherwise false
+     */
+    public static boolean isInField(int x, int y) {
+        return 0 <= x && x < Game.FIELD_SIZE && 0 <= y && y < Game.FIELD_SIZE;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -46,4 +101,22 @@ public class Cell {
     public int getY() {
         return y;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return packed index of the cell of the classic field
+     * @throws IllegalArgumentException if the cell is out of the classic field
+     */
+    public int getIndex() {
+        return index(x, y);
+    }
+
+    private static Cell[] createCells() {
+        Cell[] result = new Cell[Game.FIELD_SIZE * Game.FIELD_SIZE];
+        for (int y = 0; y < Game.FIELD_SIZE; y++) {
+            for (int x = 0; x < Game.FIELD_SIZE; x++) {
+                result[index(x, y)] = new Cell(x, y);
+            }
+        }
+        return result;
+    }
+}
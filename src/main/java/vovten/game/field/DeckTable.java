@@ -0,0 +1,107 @@
+package vovten.game.field;
+
+import vovten.game.Ship;
+
+/**
+ * Open addressing table of the decks: the ship by the index of the cell of its deck.
+ * The memory of the table grows with the number of the decks, not with the area of the field.
+ * The table grows when it is half full, the removed entries are deleted by shifting the following entries back.
+ */
+final class DeckTable {
+    private int[] cells;
+    private Ship[] ships;
+    private int mask;
+    private int shift;
+    private int size;
+
+    /**
+     * @param expectedSize expected number of the decks
+     */
+    DeckTable(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+    }
+
+    /**
+     * @param index index of the cell
+     * @return the ship with a deck in the cell or null
+     */
+    Ship get(int index) {
+        return ships[find(index)];
+    }
+
+    /**
+     * @param index index of the cell
+     * @param ship the ship with a deck in the cell
+     */
+    void put(int index, Ship ship) {
+        int slot = find(index);
+        if (ships[slot] == null) {
+            if (2 * (size + 1) > cells.length) {
+                grow();
+                slot = find(index);
+            }
+            size++;
+        }
+        cells[slot] = index;
+        ships[slot] = ship;
+    }
+
+    /**
+     * @param index index of the cell
+     */
+    void remove(int index) {
+        int slot = find(index);
+        if (ships[slot] == null) return;
+        size--;
+        //the entries of the probe sequence after the removed one are moved back unless they are at their home slot
+        int next = slot;
+        while (true) {
+            ships[slot] = null;
+            int home;
+            do {
+                next = next + 1 & mask;
+                if (ships[next] == null) return;
+                home = getHome(cells[next]);
+            } while (slot <= next ? slot < home && home <= next : slot < home || home <= next);
+            cells[slot] = cells[next];
+            ships[slot] = ships[next];
+            slot = next;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(int index) {
+        int slot = getHome(index);
+        while (ships[slot] != null && cells[slot] != index) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    private int getHome(int index) {
+        return index * 0x9E3779B9 >>> shift;
+    }
+
+    private void grow() {
+        int[] oldCells = cells;
+        Ship[] oldShips = ships;
+        allocate(cells.length * 2);
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldShips[i] != null) {
+                int slot = find(oldCells[i]);
+                cells[slot] = oldCells[i];
+                ships[slot] = oldShips[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        cells = new int[capacity];
+        ships = new Ship[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+}
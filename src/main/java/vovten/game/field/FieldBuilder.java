@@ -1,5 +1,6 @@
 package vovten.game.field;
 
+import vovten.game.RuleSet;
 import vovten.game.Ship;
 
 import java.util.List;
@@ -20,4 +21,10 @@ public interface FieldBuilder {
      * @return list of the ships
      */
     List<Ship> getShips();
+
+    /**
+     * Return the rules the field is built by
+     * @return rules of the game
+     */
+    RuleSet getRuleSet();
 }
@@ -0,0 +1,88 @@
+package vovten.game.field;
+
+import vovten.game.Ship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact immutable layout of a fleet: the ids of the {@link Placement}s of the ships.
+ */
+public final class Layout {
+    private final int[] placementIds;
+
+    /**
+     * @param placementIds ids of the placements of the ships, the array is copied
+     */
+    public Layout(int[] placementIds) {
+        this.placementIds = placementIds.clone();
+    }
+
+    /**
+     * @param ships ships on the classic field
+     * @return layout of the ships
+     */
+    public static Layout of(List<Ship> ships) {
+        int[] placementIds = new int[ships.size()];
+        for (int i = 0; i < placementIds.length; i++) {
+            Ship ship = ships.get(i);
+            Cell position = ship.getPosition();
+            placementIds[i] = !Cell.isInField(position.x, position.y) ? -1
+                    : Placements.getInstance().find(ship.getType(), position.getIndex(), ship.getDirection());
+            if (placementIds[i] < 0) throw new IllegalArgumentException("Ship does not fit the field: " + ship);
+        }
+        return new Layout(placementIds);
+    }
+
+    public int getShipsNumber() {
+        return placementIds.length;
+    }
+
+    /**
+     * @param i number of the ship
+     * @return id of the placement of the ship
+     */
+    public int getPlacementId(int i) {
+        return placementIds[i];
+    }
+
+    /**
+     * @param i number of the ship
+     * @return placement of the ship
+     */
+    public Placement getPlacement(int i) {
+        return Placements.getInstance().get(placementIds[i]);
+    }
+
+    /**
+     * @return new ships of the layout
+     */
+    public List<Ship> createShips() {
+        List<Ship> result = new ArrayList<>(placementIds.length);
+        for (int i = 0; i < placementIds.length; i++) {
+            result.add(getPlacement(i).createShip());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Layout layout = (Layout) o;
+
+        return Arrays.equals(placementIds, layout.placementIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(placementIds);
+    }
+
+    @Override
+    public String toString() {
+        return "Layout" + Arrays.toString(placementIds);
+    }
+}
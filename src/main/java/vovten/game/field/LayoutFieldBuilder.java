@@ -0,0 +1,21 @@
+package vovten.game.field;
+
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+
+/**
+ * Creates a game field with the ships of the given layout by the classic rules.
+ */
+public class LayoutFieldBuilder extends AbstractFieldBuilder {
+
+    /**
+     * @param layout layout of the fleet
+     */
+    public LayoutFieldBuilder(Layout layout) {
+        super(RuleSet.CLASSIC);
+        for (Ship ship : layout.createShips()) {
+            if (!isPlaceForShipValid(ship)) throw new IllegalArgumentException("Ships touch each other: " + layout);
+            placeShipOnField(ship);
+        }
+    }
+}
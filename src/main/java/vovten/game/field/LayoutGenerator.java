@@ -0,0 +1,100 @@
+package vovten.game.field;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.Random;
+
+/**
+ * Generates random layouts of the fleet with the precomputed {@link Placements}.
+ * The ships are placed from the largest one, every ship in a random placement chosen among the placements
+ * compatible with the already placed ships: the placement must not intersect the halos of them.
+ * The generator keeps a scratch array, so it must not be shared between threads.
+ */
+public final class LayoutGenerator {
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private static final Placements PLACEMENTS = Placements.getInstance();
+    private static final long[] SHIP_LO = new long[PLACEMENTS.size()];
+    private static final long[] SHIP_HI = new long[PLACEMENTS.size()];
+    private static final long[] HALO_LO = new long[PLACEMENTS.size()];
+    private static final long[] HALO_HI = new long[PLACEMENTS.size()];
+    private final Random random;
+    private final int[] candidates;
+
+    static {
+        for (int id = 0; id < PLACEMENTS.size(); id++) {
+            Placement placement = PLACEMENTS.get(id);
+            SHIP_LO[id] = placement.getShipLo();
+            SHIP_HI[id] = placement.getShipHi();
+            HALO_LO[id] = placement.getHaloLo();
+            HALO_HI[id] = placement.getHaloHi();
+        }
+    }
+
+    /**
+     * @param random source of the layouts
+     */
+    public LayoutGenerator(Random random) {
+        this.random = random;
+        int maxPlacementsNumber = 0;
+        for (Ship.Type type : TYPES) {
+            maxPlacementsNumber = Math.max(maxPlacementsNumber, PLACEMENTS.ofType(type).length);
+        }
+        candidates = new int[maxPlacementsNumber];
+    }
+
+    /**
+     * @return new random layout
+     */
+    public Layout next() {
+        int[] placementIds = new int[Game.GENERAL_SHIPS_NUMBER];
+        next(placementIds);
+        return new Layout(placementIds);
+    }
+
+    /**
+     * Generates a random layout without allocations
+     * @param placementIds array for the ids of the placements of the ships, from the largest ship to the smallest
+     */
+    public void next(int[] placementIds) {
+        if (placementIds.length < Game.GENERAL_SHIPS_NUMBER) {
+            throw new IllegalArgumentException("Array is too short for the fleet: " + placementIds.length);
+        }
+        while (!tryNext(placementIds)) {
+            //the placed ships leave no room for the next one, start again
+        }
+    }
+
+    private boolean tryNext(int[] placementIds) {
+        long forbiddenLo = 0;
+        long forbiddenHi = 0;
+        int k = 0;
+        for (int t = TYPES.length - 1; t >= 0; t--) {
+            int size = 0;
+            for (int id : PLACEMENTS.ofType(TYPES[t])) {
+                if ((SHIP_LO[id] & forbiddenLo) == 0 && (SHIP_HI[id] & forbiddenHi) == 0) {
+                    candidates[size++] = id;
+                }
+            }
+            for (int s = Ship.Type.getShipsNumber(TYPES[t]); s > 0; s--) {
+                if (size == 0) return false;
+                int id = candidates[random.nextInt(size)];
+                placementIds[k++] = id;
+                forbiddenLo |= HALO_LO[id];
+                forbiddenHi |= HALO_HI[id];
+                if (s > 1) {
+                    //only the candidates compatible with the new ship remain
+                    int remaining = 0;
+                    for (int i = 0; i < size; i++) {
+                        int candidate = candidates[i];
+                        if ((SHIP_LO[candidate] & forbiddenLo) == 0 && (SHIP_HI[candidate] & forbiddenHi) == 0) {
+                            candidates[remaining++] = candidate;
+                        }
+                    }
+                    size = remaining;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package vovten.game.field;
+
+import vovten.game.Ship;
+
+/**
+ * 128 bit Zobrist hash of a layout: the XOR of the keys of all the decks (see {@link Zobrist#deck}).
+ * The canonical hash is the same for all the layouts mapped onto each other by the {@link Symmetry symmetries}
+ * of the field: it is the least of the hashes of the 8 images of the layout.
+ * The low word alone can be used as a 64 bit hash.
+ */
+public final class LayoutHash implements Comparable<LayoutHash> {
+    private static final Symmetry[] SYMMETRIES = Symmetry.values();
+    private final long hi;
+    private final long lo;
+
+    public LayoutHash(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    /**
+     * @param layout the layout
+     * @return hash of the layout as it is
+     */
+    public static LayoutHash of(Layout layout) {
+        long hi = 0;
+        long lo = 0;
+        for (int i = 0; i < layout.getShipsNumber(); i++) {
+            Placement placement = layout.getPlacement(i);
+            Ship.Type type = placement.getType();
+            for (int j = 0; j < placement.getDecksNumber(); j++) {
+                hi ^= Zobrist.deckHi(type, placement.getCell(j));
+                lo ^= Zobrist.deck(type, placement.getCell(j));
+            }
+        }
+        return new LayoutHash(hi, lo);
+    }
+
+    /**
+     * @param layout the layout
+     * @return hash of the layout reduced under the symmetries of the field
+     */
+    public static LayoutHash canonical(Layout layout) {
+        long[] his = new long[SYMMETRIES.length];
+        long[] los = new long[SYMMETRIES.length];
+        for (int i = 0; i < layout.getShipsNumber(); i++) {
+            Placement placement = layout.getPlacement(i);
+            Ship.Type type = placement.getType();
+            for (int j = 0; j < placement.getDecksNumber(); j++) {
+                int cell = placement.getCell(j);
+                for (int s = 0; s < SYMMETRIES.length; s++) {
+                    int image = SYMMETRIES[s].apply(cell);
+                    his[s] ^= Zobrist.deckHi(type, image);
+                    los[s] ^= Zobrist.deck(type, image);
+                }
+            }
+        }
+        int best = 0;
+        for (int s = 1; s < SYMMETRIES.length; s++) {
+            if (compare(his[s], los[s], his[best], los[best]) < 0) best = s;
+        }
+        return new LayoutHash(his[best], los[best]);
+    }
+
+    public long getHi() {
+        return hi;
+    }
+
+    public long getLo() {
+        return lo;
+    }
+
+    @Override
+    public int compareTo(LayoutHash other) {
+        return compare(hi, lo, other.hi, other.lo);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LayoutHash that = (LayoutHash) o;
+
+        return hi == that.hi && lo == that.lo;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(lo);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+
+    private static int compare(long hi1, long lo1, long hi2, long lo2) {
+        int result = Long.compareUnsigned(hi1, hi2);
+        return result != 0 ? result : Long.compareUnsigned(lo1, lo2);
+    }
+}
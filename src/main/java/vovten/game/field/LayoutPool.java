@@ -0,0 +1,232 @@
+package vovten.game.field;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded pool of the ready layouts refilled by the background producer threads.
+ * <p>
+ * The pool is a lock-free ring buffer for many producers and many consumers: every slot has a sequence number
+ * telling whether the slot is free for the producer or full for the consumer of the current lap,
+ * and the producers and the consumers claim the slots by CAS on their counters.
+ * {@link #take()} never waits for the producers: when the pool is empty the layout is generated
+ * in the calling thread. The producers sleep while the pool is full and are woken by the consumers.
+ * <p>
+ * The refill lag is the time between the taking of a layout from a slot and the putting of a new layout into it.
+ */
+public final class LayoutPool implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 64;
+    private final AtomicReferenceArray<Layout> layouts;
+    private final AtomicLongArray sequences;
+    private final long[] freedAt;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Thread[] producers;
+    private final AtomicInteger sleepingProducers = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ThreadLocal<LayoutGenerator> generators = ThreadLocal.withInitial(() -> new LayoutGenerator(new Random()));
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder refillLag = new LongAdder();
+    private final AtomicLong maxRefillLag = new AtomicLong();
+
+    /**
+     * Creates the pool and starts the producers
+     * @param capacity number of the layouts kept in the pool, it is rounded up to a power of two
+     * @param producersNumber number of the producer threads, they are daemons
+     */
+    public LayoutPool(int capacity, int producersNumber) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        if (producersNumber < 1) throw new IllegalArgumentException("Producers number must be positive: " + producersNumber);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        layouts = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        freedAt = new long[size];
+        mask = size - 1;
+        long now = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+            freedAt[i] = now;
+        }
+        producers = new Thread[producersNumber];
+        for (int i = 0; i < producersNumber; i++) {
+            producers[i] = new Thread(this::produce, "layout-producer-" + (i + 1));
+            producers[i].setDaemon(true);
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+    }
+
+    /**
+     * @return the pool shared by the whole application, it is created on the first call
+     */
+    public static LayoutPool getShared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Takes a layout from the pool, if the pool is empty generates it in the calling thread
+     * @return new random layout
+     */
+    public Layout take() {
+        Layout result = poll();
+        if (result != null) {
+            hits.increment();
+            if (sleepingProducers.get() > 0) {
+                for (Thread producer : producers) {
+                    LockSupport.unpark(producer);
+                }
+            }
+            return result;
+        }
+        misses.increment();
+        return generators.get().next();
+    }
+
+    /**
+     * Stops the producers, the layouts left in the pool can still be taken
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            for (Thread producer : producers) {
+                LockSupport.unpark(producer);
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return number of the layouts in the pool, it is approximate while the pool is used
+     */
+    public int getSize() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    /**
+     * @return number of the layouts taken from the pool
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of the layouts generated by the consumers because the pool was empty
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return share of the layouts taken from the pool, 1 if no layout has been taken
+     */
+    public double getHitRate() {
+        long hitsNumber = hits.sum();
+        long total = hitsNumber + misses.sum();
+        return total == 0 ? 1 : (double) hitsNumber / total;
+    }
+
+    /**
+     * @return number of the layouts put into the pool by the producers
+     */
+    public long getProduced() {
+        return produced.sum();
+    }
+
+    /**
+     * @return mean refill lag in nanoseconds
+     */
+    public long getMeanRefillLagNanos() {
+        long producedNumber = produced.sum();
+        return producedNumber == 0 ? 0 : refillLag.sum() / producedNumber;
+    }
+
+    /**
+     * @return maximal refill lag in nanoseconds
+     */
+    public long getMaxRefillLagNanos() {
+        return maxRefillLag.get();
+    }
+
+    private void produce() {
+        LayoutGenerator generator = new LayoutGenerator(new Random());
+        Layout layout = null;
+        while (!closed.get()) {
+            if (layout == null) layout = generator.next();
+            if (offer(layout)) {
+                layout = null;
+                continue;
+            }
+            //the consumer checks the sleeping producers after taking, so the pool is checked again after the mark
+            sleepingProducers.incrementAndGet();
+            if (isFull() && !closed.get()) {
+                LockSupport.park(this);
+            }
+            sleepingProducers.decrementAndGet();
+        }
+    }
+
+    private boolean isFull() {
+        long position = tail.get();
+        return sequences.get((int) position & mask) != position;
+    }
+
+    private boolean offer(Layout layout) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference < 0) return false;
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                layouts.lazySet(slot, layout);
+                long lag = System.nanoTime() - freedAt[slot];
+                refillLag.add(lag);
+                produced.increment();
+                updateMaxRefillLag(lag);
+                sequences.set(slot, position + 1);
+                return true;
+            }
+        }
+    }
+
+    private Layout poll() {
+        while (true) {
+            long position = head.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference < 0) return null;
+            if (difference == 0 && head.compareAndSet(position, position + 1)) {
+                Layout result = layouts.get(slot);
+                layouts.lazySet(slot, null);
+                freedAt[slot] = System.nanoTime();
+                sequences.set(slot, position + mask + 1);
+                return result;
+            }
+        }
+    }
+
+    private void updateMaxRefillLag(long lag) {
+        long max = maxRefillLag.get();
+        while (lag > max && !maxRefillLag.compareAndSet(max, lag)) {
+            max = maxRefillLag.get();
+        }
+    }
+
+    private static class Holder {
+        static final LayoutPool SHARED = new LayoutPool(DEFAULT_CAPACITY, 1);
+    }
+}
@@ -1,5 +1,6 @@
 package vovten.game.field;
 
+import vovten.game.RuleSet;
 import vovten.game.Ship;
 
 /**
@@ -11,9 +12,11 @@ public class ManualFieldBuilder extends AbstractFieldBuilder {
         super();
     }
 
-    @Override
-    public Ship[][] getField() {
-        return field;
+    /**
+     * @param rules rules of the game
+     */
+    public ManualFieldBuilder(RuleSet rules) {
+        super(rules);
     }
 
     /**
@@ -22,14 +25,7 @@ public class ManualFieldBuilder extends AbstractFieldBuilder {
      */
     public void removeShipFromField(Ship ship) {
         if (ship == null) return;
-        for (int i = 0; i < FIELD_SIZE; i++) {
-            for (int j = 0; j < FIELD_SIZE; j++) {
-                Ship s = field[i][j];
-                if (ship.equals(s)) {
-                    field[i][j] = null;
-                }
-            }
-        }
+        removeDecks(ship);
         ships.remove(ship);
         changeShipCounter(ship, CommandType.DEC);
     }
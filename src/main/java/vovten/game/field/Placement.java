@@ -0,0 +1,121 @@
+package vovten.game.field;
+
+import vovten.game.Ship;
+
+/**
+ * A legal placement of a ship on the empty field: the type, the initial cell and the direction of the ship.
+ * Besides the cells of the decks the placement keeps the masks (see {@link BitBoard}) of the decks
+ * and of the halo: the decks with the cells around them where no other ship can be placed.
+ * Placements are immutable and are shared through {@link Placements}.
+ */
+public final class Placement {
+    private final int id;
+    private final Ship.Type type;
+    private final Cell position;
+    private final Ship.Direction direction;
+    private final int[] cells;
+    private final long shipLo;
+    private final long shipHi;
+    private final long haloLo;
+    private final long haloHi;
+
+    Placement(int id, Ship.Type type, Cell position, Ship.Direction direction) {
+        this.id = id;
+        this.type = type;
+        this.position = position;
+        this.direction = direction;
+        this.cells = new int[Ship.Type.getDecksNumber(type)];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = direction == Ship.Direction.HORIZONTAL
+                    ? Cell.index(position.x + i, position.y)
+                    : Cell.index(position.x, position.y + i);
+        }
+        BitBoard ship = new BitBoard();
+        BitBoard halo = new BitBoard();
+        for (int cell : cells) {
+            ship.set(cell);
+            Cell deck = Cell.of(cell);
+            for (int x = deck.x - 1; x <= deck.x + 1; x++) {
+                for (int y = deck.y - 1; y <= deck.y + 1; y++) {
+                    if (Cell.isInField(x, y)) halo.set(Cell.index(x, y));
+                }
+            }
+        }
+        shipLo = ship.getLo();
+        shipHi = ship.getHi();
+        haloLo = halo.getLo();
+        haloHi = halo.getHi();
+    }
+
+    /**
+     * @return number of the placement in {@link Placements}
+     */
+    public int getId() {
+        return id;
+    }
+
+    public Ship.Type getType() {
+        return type;
+    }
+
+    public Cell getPosition() {
+        return position;
+    }
+
+    public Ship.Direction getDirection() {
+        return direction;
+    }
+
+    public int getDecksNumber() {
+        return cells.length;
+    }
+
+    /**
+     * @param i number of the deck
+     * @return index of the cell of the deck
+     */
+    public int getCell(int i) {
+        return cells[i];
+    }
+
+    public long getShipLo() {
+        return shipLo;
+    }
+
+    public long getShipHi() {
+        return shipHi;
+    }
+
+    public long getHaloLo() {
+        return haloLo;
+    }
+
+    public long getHaloHi() {
+        return haloHi;
+    }
+
+    /**
+     * @param lo low word of the mask
+     * @param hi high word of the mask
+     * @return true if the ship has a deck in the cells of the mask, otherwise false
+     */
+    public boolean intersects(long lo, long hi) {
+        return (shipLo & lo) != 0 || (shipHi & hi) != 0;
+    }
+
+    /**
+     * @return new ship in this placement
+     */
+    public Ship createShip() {
+        return new Ship(type, position, direction);
+    }
+
+    @Override
+    public String toString() {
+        return "Placement{" +
+                "type=" + type +
+                ", position=" + position +
+                ", direction=" + direction +
+                '}';
+    }
+}
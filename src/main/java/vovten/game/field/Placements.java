@@ -0,0 +1,116 @@
+package vovten.game.field;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table of all the legal placements of the ships on the empty field.
+ * The one deck ships are placed only horizontally, so every ship position has exactly one placement.
+ */
+public final class Placements {
+    private static final Placements INSTANCE = new Placements();
+    private final Placement[] placements;
+    private final int[][] placementsOfType;
+    private final int[][] placementsOfCell;
+
+    private Placements() {
+        List<Placement> result = new ArrayList<>();
+        Ship.Type[] types = Ship.Type.values();
+        placementsOfType = new int[types.length][];
+        for (Ship.Type type : types) {
+            int from = result.size();
+            int offset = Ship.Type.getDecksNumber(type) - 1;
+            for (int y = 0; y < Game.FIELD_SIZE; y++) {
+                for (int x = 0; x < Game.FIELD_SIZE; x++) {
+                    if (x + offset < Game.FIELD_SIZE) {
+                        result.add(new Placement(result.size(), type, Cell.of(x, y), Ship.Direction.HORIZONTAL));
+                    }
+                    if (offset > 0 && y + offset < Game.FIELD_SIZE) {
+                        result.add(new Placement(result.size(), type, Cell.of(x, y), Ship.Direction.VERTICAL));
+                    }
+                }
+            }
+            placementsOfType[type.ordinal()] = range(from, result.size());
+        }
+        placements = result.toArray(new Placement[result.size()]);
+        placementsOfCell = createPlacementsOfCell(placements);
+    }
+
+    public static Placements getInstance() {
+        return INSTANCE;
+    }
+
+    public int size() {
+        return placements.length;
+    }
+
+    public Placement get(int id) {
+        return placements[id];
+    }
+
+    /**
+     * @param type type of the ship
+     * @return ids of the placements of the ships of the type. The array must not be modified.
+     */
+    public int[] ofType(Ship.Type type) {
+        return placementsOfType[type.ordinal()];
+    }
+
+    /**
+     * @param cellIndex index of the cell
+     * @return ids of the placements covering the cell. The array must not be modified.
+     */
+    public int[] covering(int cellIndex) {
+        return placementsOfCell[cellIndex];
+    }
+
+    /**
+     * @param type type of the ship
+     * @param cellIndex index of the initial cell of the ship
+     * @param direction direction of the ship, it is ignored for the one deck ships
+     * @return id of the placement or -1 if the ship does not fit the field
+     */
+    public int find(Ship.Type type, int cellIndex, Ship.Direction direction) {
+        for (int id : placementsOfCell[cellIndex]) {
+            Placement placement = placements[id];
+            if (placement.getType() == type && placement.getCell(0) == cellIndex
+                    && (type == Ship.Type.ONE_DECK || placement.getDirection() == direction)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] range(int from, int to) {
+        int[] result = new int[to - from];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = from + i;
+        }
+        return result;
+    }
+
+    private static int[][] createPlacementsOfCell(Placement[] placements) {
+        int cellsNumber = Game.FIELD_SIZE * Game.FIELD_SIZE;
+        int[] sizes = new int[cellsNumber];
+        for (Placement placement : placements) {
+            for (int i = 0; i < placement.getDecksNumber(); i++) {
+                sizes[placement.getCell(i)]++;
+            }
+        }
+        int[][] result = new int[cellsNumber][];
+        for (int i = 0; i < cellsNumber; i++) {
+            result[i] = new int[sizes[i]];
+            sizes[i] = 0;
+        }
+        for (Placement placement : placements) {
+            for (int i = 0; i < placement.getDecksNumber(); i++) {
+                int cell = placement.getCell(i);
+                result[cell][sizes[cell]++] = placement.getId();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package vovten.game.field;
+
+import java.util.Arrays;
+
+/**
+ * Set of the cells of a large field kept in the hashed tiles of 8x8 cells.
+ * Every tile with at least one cell is a 64 bit word in the open addressing table keyed by the number of the tile,
+ * so the memory grows with the number of the touched tiles, not with the area of the field.
+ * The cells are numbered row by row, see {@link vovten.game.RuleSet#index(int, int)}.
+ */
+public final class SparseCellSet {
+    private static final int TILE_BITS = 3;
+    private static final int TILE_MASK = (1 << TILE_BITS) - 1;
+    private static final int EMPTY = -1;
+    private final int fieldSize;
+    private final int tilesPerRow;
+    private int[] tiles;
+    private long[] words;
+    private int mask;
+    private int shift;
+    private int tilesNumber;
+    private int cardinality;
+
+    /**
+     * @param fieldSize size of the side of the field
+     */
+    public SparseCellSet(int fieldSize) {
+        this.fieldSize = fieldSize;
+        tilesPerRow = (fieldSize + TILE_MASK) >> TILE_BITS;
+        allocate(16);
+    }
+
+    /**
+     * @param index index of the cell
+     * @return true if the cell is in the set
+     */
+    public boolean get(int index) {
+        int x = index % fieldSize;
+        int y = index / fieldSize;
+        int slot = find(getTile(x, y));
+        return tiles[slot] != EMPTY && (words[slot] & getBit(x, y)) != 0;
+    }
+
+    /**
+     * @param index index of the cell
+     * @return true if the cell has been added, false if it is already in the set
+     */
+    public boolean add(int index) {
+        int x = index % fieldSize;
+        int y = index / fieldSize;
+        int tile = getTile(x, y);
+        int slot = find(tile);
+        if (tiles[slot] == EMPTY) {
+            if (2 * (tilesNumber + 1) > tiles.length) {
+                grow();
+                slot = find(tile);
+            }
+            tiles[slot] = tile;
+            tilesNumber++;
+        }
+        long bit = getBit(x, y);
+        if ((words[slot] & bit) != 0) return false;
+        words[slot] |= bit;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return number of the cells in the set
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return number of the tiles having at least one cell
+     */
+    public int getTilesNumber() {
+        return tilesNumber;
+    }
+
+    private int getTile(int x, int y) {
+        return (y >> TILE_BITS) * tilesPerRow + (x >> TILE_BITS);
+    }
+
+    private static long getBit(int x, int y) {
+        return 1L << ((y & TILE_MASK) << TILE_BITS | x & TILE_MASK);
+    }
+
+    private int find(int tile) {
+        int slot = tile * 0x9E3779B9 >>> shift;
+        while (tiles[slot] != EMPTY && tiles[slot] != tile) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldTiles = tiles;
+        long[] oldWords = words;
+        allocate(tiles.length * 2);
+        for (int i = 0; i < oldTiles.length; i++) {
+            if (oldTiles[i] != EMPTY) {
+                int slot = find(oldTiles[i]);
+                tiles[slot] = oldTiles[i];
+                words[slot] = oldWords[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        tiles = new int[capacity];
+        Arrays.fill(tiles, EMPTY);
+        words = new long[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+}
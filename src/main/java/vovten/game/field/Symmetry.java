@@ -0,0 +1,61 @@
+package vovten.game.field;
+
+import vovten.game.Game;
+
+/**
+ * Symmetries of the square field: the rotations and the reflections mapping the field onto itself.
+ * Every symmetry maps a legal layout onto a legal layout.
+ */
+public enum Symmetry {
+    IDENTITY,
+    ROTATE_90,
+    ROTATE_180,
+    ROTATE_270,
+    FLIP_HORIZONTAL,
+    FLIP_VERTICAL,
+    TRANSPOSE,
+    ANTI_TRANSPOSE;
+
+    private static final int SIZE = Game.FIELD_SIZE;
+    private final int[] cells = new int[SIZE * SIZE];
+
+    static {
+        for (Symmetry symmetry : values()) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    symmetry.cells[Cell.index(x, y)] = symmetry.map(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param cellIndex index of the cell
+     * @return index of the image of the cell
+     */
+    public int apply(int cellIndex) {
+        return cells[cellIndex];
+    }
+
+    private int map(int x, int y) {
+        int last = SIZE - 1;
+        switch (this) {
+            case ROTATE_90:
+                return Cell.index(last - y, x);
+            case ROTATE_180:
+                return Cell.index(last - x, last - y);
+            case ROTATE_270:
+                return Cell.index(y, last - x);
+            case FLIP_HORIZONTAL:
+                return Cell.index(last - x, y);
+            case FLIP_VERTICAL:
+                return Cell.index(x, last - y);
+            case TRANSPOSE:
+                return Cell.index(y, x);
+            case ANTI_TRANSPOSE:
+                return Cell.index(last - y, last - x);
+            default:
+                return Cell.index(x, y);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package vovten.game.field;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Samples the layouts of the fleet uniformly: every legal layout has the same probability.
+ * <p>
+ * The cells are scanned row by row. The state of the scan is the broken profile: the statuses of the last
+ * cells scanned in every column, whether the cell above on the left is occupied, how many decks of the current
+ * horizontal ship remain and how many ships of every type remain to be placed. The status of a cell is empty,
+ * occupied with the cell below empty, or occupied by a vertical ship with 1..3 decks below it.
+ * <p>
+ * The numbers of the completions of the states are counted once, when the sampler is created, and kept
+ * for the beginnings of the rows and for all the cells of the first row. A layout is drawn by its rank:
+ * from a kept state the paths of the scan to the next kept states are enumerated (there are at most
+ * a few thousands of them) and the path is chosen which the rank falls into, the weight of a path being
+ * the number of the completions of its final state. So a layout takes a bounded number of steps
+ * and a single random number. The sampler is immutable and can be shared between threads.
+ * <p>
+ * The tables of the standard fleet take about 80 MB and are counted in about 20 seconds,
+ * so they are counted once in the background thread started by {@link #prepare()}.
+ */
+public final class UniformLayoutSampler {
+    private static final int SIZE = Game.FIELD_SIZE;
+    private static final int CELLS_NUMBER = SIZE * SIZE;
+    private static final Ship.Type[] TYPES = Ship.Type.values();
+    private static final int EMPTY = 0;
+    private static final int OCCUPIED = 1;
+    private static final int DIGIT_BITS = 3;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+    private static final int UP_LEFT_SHIFT = SIZE * DIGIT_BITS;
+    private static final int HORIZONTAL_SHIFT = UP_LEFT_SHIFT + 1;
+    private static final int FLEET_SHIFT = HORIZONTAL_SHIFT + 2;
+    private static final int COUNT_BITS = 3;
+    private static final int MAX_OPTIONS = 2 * TYPES.length + 1;
+    private final int[][] shipPlacements;
+    private final int shipsNumber;
+    private final long initialState;
+    private final long[][] keptStates;
+    private final long[][] keptCompletions;
+    private final long layoutsNumber;
+    private final ThreadLocal<Walk> walks = ThreadLocal.withInitial(Walk::new);
+
+    /**
+     * Counts the layouts of the fleet
+     * @param fleet number of the ships of every type by the ordinal of the type
+     */
+    UniformLayoutSampler(int[] fleet) {
+        long state = 0;
+        int number = 0;
+        for (Ship.Type type : TYPES) {
+            int count = fleet[type.ordinal()];
+            if (count < 0 || count >= 1 << COUNT_BITS) {
+                throw new IllegalArgumentException("Unsupported number of the ships: " + count);
+            }
+            state += (long) count << getCountShift(type.ordinal());
+            number += count;
+        }
+        shipsNumber = number;
+        initialState = state;
+        shipPlacements = createShipPlacements();
+        Counter counter = new Counter();
+        layoutsNumber = counter.count(0, initialState);
+        keptStates = new long[CELLS_NUMBER][];
+        keptCompletions = new long[CELLS_NUMBER][];
+        for (int p = 0; p < CELLS_NUMBER; p++) {
+            if (!isKept(p)) continue;
+            LongLongMap completions = counter.completions[p];
+            long[] states = completions.getKeys();
+            Arrays.sort(states);
+            long[] values = new long[states.length];
+            int size = 0;
+            for (long key : states) {
+                long value = completions.get(key);
+                if (value == 0) continue;
+                states[size] = key;
+                values[size++] = value;
+            }
+            keptStates[p] = Arrays.copyOf(states, size);
+            keptCompletions[p] = Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Starts counting the tables of the standard fleet in the background thread, if it is not started yet
+     * @return the sampler of the standard fleet, completed when the tables are counted
+     */
+    public static CompletableFuture<UniformLayoutSampler> prepare() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return the sampler of the layouts of the standard fleet, waits until its tables are counted
+     */
+    public static UniformLayoutSampler getInstance() {
+        return prepare().join();
+    }
+
+    /**
+     * @return the sampler of the layouts of the standard fleet or null if its tables are not counted yet
+     */
+    public static UniformLayoutSampler getIfReady() {
+        return prepare().getNow(null);
+    }
+
+    /**
+     * @return number of all the legal layouts of the fleet
+     */
+    public long getLayoutsNumber() {
+        return layoutsNumber;
+    }
+
+    /**
+     * @param random source of the layouts
+     * @return new random layout
+     */
+    public Layout next(Random random) {
+        int[] placementIds = new int[shipsNumber];
+        next(random, placementIds);
+        return new Layout(placementIds);
+    }
+
+    /**
+     * Samples a layout
+     * @param random source of the layouts
+     * @param placementIds array for the ids of the placements of the ships, from the largest ship to the smallest
+     */
+    public void next(Random random, int[] placementIds) {
+        if (placementIds.length < shipsNumber) {
+            throw new IllegalArgumentException("Array is too short for the fleet: " + placementIds.length);
+        }
+        Walk walk = walks.get();
+        walk.reset(nextLong(random, layoutsNumber), placementIds);
+        while (walk.position < CELLS_NUMBER) {
+            if (!walk.choose(walk.position, walk.state, 0)) {
+                throw new IllegalStateException("Rank out of the layouts");
+            }
+        }
+        Arrays.sort(placementIds, 0, shipsNumber);
+        for (int i = 0; i < shipsNumber / 2; i++) {
+            int id = placementIds[i];
+            placementIds[i] = placementIds[shipsNumber - 1 - i];
+            placementIds[shipsNumber - 1 - i] = id;
+        }
+    }
+
+    /**
+     * @param p index of the cell
+     * @return true if the numbers of the completions of the states before the cell are kept
+     */
+    private static boolean isKept(int p) {
+        return p < SIZE || p % SIZE == 0;
+    }
+
+    /**
+     * @param p index of the kept cell or the number of the cells for the end of the field
+     * @param state state before the cell
+     * @return number of the completions of the state
+     */
+    private long getCompletions(int p, long state) {
+        if (p == CELLS_NUMBER) return state >>> FLEET_SHIFT == 0 ? 1 : 0;
+        int i = Arrays.binarySearch(keptStates[p], state);
+        return i < 0 ? 0 : keptCompletions[p][i];
+    }
+
+    /**
+     * Finds the states after the cell
+     * @param p index of the cell
+     * @param state state before the cell
+     * @param states array for the states after the cell
+     * @param ships array for the ids of the placements of the ships starting in the cell, -1 if no ship starts
+     * @return number of the states after the cell
+     */
+    private int expand(int p, long state, long[] states, int[] ships) {
+        int x = p % SIZE;
+        int y = p / SIZE;
+        int up = getDigit(state, x);
+        boolean upLeftEmpty = x == 0 || (state >>> UP_LEFT_SHIFT & 1) == 0;
+        boolean upRightEmpty = x == SIZE - 1 || getDigit(state, x + 1) == EMPTY;
+        boolean leftEmpty = x == 0 || getDigit(state, x - 1) == EMPTY;
+        int horizontal = (int) (state >>> HORIZONTAL_SHIFT & 3);
+        long base = state & ~((long) DIGIT_MASK << x * DIGIT_BITS) & ~(7L << UP_LEFT_SHIFT);
+        if (up != EMPTY && x < SIZE - 1) base |= 1L << UP_LEFT_SHIFT;
+        int n = 0;
+
+        if (horizontal > 0) {
+            //the cell continues the horizontal ship
+            if (up == EMPTY && upRightEmpty) {
+                states[n] = setDigit(base, x, OCCUPIED) | (long) (horizontal - 1) << HORIZONTAL_SHIFT;
+                ships[n++] = -1;
+            }
+            return n;
+        }
+        if (up > OCCUPIED) {
+            //the cell continues the vertical ship
+            if (leftEmpty) {
+                states[n] = setDigit(base, x, up - 1);
+                ships[n++] = -1;
+            }
+            return n;
+        }
+        states[n] = base;
+        ships[n++] = -1;
+        if (up != EMPTY || !leftEmpty || !upLeftEmpty || !upRightEmpty) return n;
+
+        for (Ship.Type type : TYPES) {
+            int shift = getCountShift(type.ordinal());
+            if ((state >>> shift & (1 << COUNT_BITS) - 1) == 0) continue;
+            long placed = base - (1L << shift);
+            int decks = Ship.Type.getDecksNumber(type);
+            if (decks == 1) {
+                states[n] = setDigit(placed, x, OCCUPIED);
+                ships[n++] = shipPlacements[type.ordinal()][2 * p];
+                continue;
+            }
+            if (x + decks <= SIZE) {
+                states[n] = setDigit(placed, x, OCCUPIED) | (long) (decks - 1) << HORIZONTAL_SHIFT;
+                ships[n++] = shipPlacements[type.ordinal()][2 * p];
+            }
+            if (y + decks <= SIZE) {
+                states[n] = setDigit(placed, x, OCCUPIED + decks - 1);
+                ships[n++] = shipPlacements[type.ordinal()][2 * p + 1];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return ids of the placements by the type of the ship, then by the initial cell and the direction
+     */
+    private static int[][] createShipPlacements() {
+        Placements placements = Placements.getInstance();
+        int[][] result = new int[TYPES.length][2 * CELLS_NUMBER];
+        for (Ship.Type type : TYPES) {
+            for (int p = 0; p < CELLS_NUMBER; p++) {
+                result[type.ordinal()][2 * p] = placements.find(type, p, Ship.Direction.HORIZONTAL);
+                result[type.ordinal()][2 * p + 1] = placements.find(type, p, Ship.Direction.VERTICAL);
+            }
+        }
+        return result;
+    }
+
+    private static int getDigit(long state, int column) {
+        return (int) (state >>> column * DIGIT_BITS) & DIGIT_MASK;
+    }
+
+    private static long setDigit(long state, int column, int digit) {
+        return state | (long) digit << column * DIGIT_BITS;
+    }
+
+    private static int getCountShift(int type) {
+        return FLEET_SHIFT + type * COUNT_BITS;
+    }
+
+    /**
+     * @return uniformly distributed number from 0 inclusive to bound exclusive
+     */
+    private static long nextLong(Random random, long bound) {
+        long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+        long result;
+        do {
+            result = random.nextLong() >>> 1;
+        } while (result >= limit);
+        return result % bound;
+    }
+
+    /**
+     * Counts the completions of the states, the results are kept for the kept cells
+     */
+    private class Counter {
+        final LongLongMap[] completions = new LongLongMap[CELLS_NUMBER];
+        final long[][] states = new long[CELLS_NUMBER][MAX_OPTIONS];
+        final int[] ships = new int[MAX_OPTIONS];
+
+        Counter() {
+            for (int p = 0; p < CELLS_NUMBER; p++) {
+                if (isKept(p)) completions[p] = new LongLongMap();
+            }
+        }
+
+        long count(int p, long state) {
+            if (p == CELLS_NUMBER) return state >>> FLEET_SHIFT == 0 ? 1 : 0;
+            if (!isKept(p)) return countPaths(p, state);
+            long result = completions[p].get(state);
+            if (result < 0) {
+                result = countPaths(p, state);
+                completions[p].put(state, result);
+            }
+            return result;
+        }
+
+        long countPaths(int p, long state) {
+            long result = 0;
+            int optionsNumber = expand(p, state, states[p], ships);
+            for (int i = 0; i < optionsNumber; i++) {
+                result = Math.addExact(result, count(p + 1, states[p][i]));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Walk from a kept cell to the next kept cell choosing the path the rank falls into,
+     * it is reused by the samples of its thread
+     */
+    private class Walk {
+        final long[][] states = new long[SIZE][MAX_OPTIONS];
+        final int[][] ships = new int[SIZE][MAX_OPTIONS];
+        int[] placementIds;
+        int placed;
+        long rank;
+        int position;
+        long state;
+
+        void reset(long rank, int[] placementIds) {
+            this.rank = rank;
+            this.placementIds = placementIds;
+            placed = 0;
+            position = 0;
+            state = initialState;
+        }
+
+        /**
+         * @return true if the path has been chosen: the walk moves to the final state of the path,
+         * the rank is reduced to the rank among the completions of the state,
+         * the ships starting on the path are added to the layout
+         */
+        boolean choose(int p, long state, int depth) {
+            int optionsNumber = expand(p, state, states[depth], ships[depth]);
+            for (int i = 0; i < optionsNumber; i++) {
+                long next = states[depth][i];
+                boolean chosen;
+                if (p + 1 == CELLS_NUMBER || isKept(p + 1)) {
+                    long completions = getCompletions(p + 1, next);
+                    chosen = rank < completions;
+                    if (chosen) {
+                        position = p + 1;
+                        this.state = next;
+                    } else {
+                        rank -= completions;
+                    }
+                } else {
+                    chosen = choose(p + 1, next, depth + 1);
+                }
+                if (chosen) {
+                    if (ships[depth][i] >= 0) placementIds[placed++] = ships[depth][i];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Open addressing hash map of the non-negative long keys to the long values
+     */
+    private static class LongLongMap {
+        private static final long FREE = -1;
+        private long[] keys = newKeys(1 << 10);
+        private long[] values = new long[1 << 10];
+        private int size;
+
+        /**
+         * @return the value or -1 if there is no such key
+         */
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = i + 1 & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == FREE) return -1;
+            }
+        }
+
+        void put(long key, long value) {
+            if (2 * (size + 1) > keys.length) resize();
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != FREE && keys[i] != key) {
+                i = i + 1 & mask;
+            }
+            if (keys[i] == FREE) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        long[] getKeys() {
+            long[] result = new long[size];
+            int k = 0;
+            for (long key : keys) {
+                if (key != FREE) result[k++] = key;
+            }
+            return result;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new long[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static long[] newKeys(int length) {
+            long[] result = new long[length];
+            Arrays.fill(result, FREE);
+            return result;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+
+    private static class Holder {
+        static final CompletableFuture<UniformLayoutSampler> INSTANCE = createInstance();
+
+        private static CompletableFuture<UniformLayoutSampler> createInstance() {
+            CompletableFuture<UniformLayoutSampler> result = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    result.complete(new UniformLayoutSampler(new int[] {
+                            Ship.Type.getShipsNumber(Ship.Type.ONE_DECK), Ship.Type.getShipsNumber(Ship.Type.TWO_DECK),
+                            Ship.Type.getShipsNumber(Ship.Type.THREE_DECK),
+                            Ship.Type.getShipsNumber(Ship.Type.FOUR_DECK)}));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }, "uniform-layout-sampler");
+            thread.setDaemon(true);
+            thread.start();
+            return result;
+        }
+    }
+}
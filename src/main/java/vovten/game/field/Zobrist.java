@@ -0,0 +1,124 @@
+package vovten.game.field;
+
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys of the Zobrist hashing of the fields and of the knowledge about them.
+ * The hash of a state is the XOR of the keys of its features (a deck of a type in a cell, a hit cell and so on),
+ * so a change of a feature updates the hash with a single XOR. The keys are generated from a fixed seed,
+ * so the hashes are the same in every run. The keys of the cells of the classic field are kept in the tables,
+ * the keys of the cells of the larger fields are computed by mixing the index of the cell with the salt of the feature.
+ */
+public final class Zobrist {
+    private static final int CELLS_NUMBER = Game.FIELD_SIZE * Game.FIELD_SIZE;
+    private static final int TYPES_NUMBER = Ship.Type.values().length;
+    private static final int MAX_SHIPS_NUMBER = 8;
+    private static final long[][] DECK_LO = new long[TYPES_NUMBER][CELLS_NUMBER];
+    private static final long[][] DECK_HI = new long[TYPES_NUMBER][CELLS_NUMBER];
+    private static final long[] HIT = new long[CELLS_NUMBER];
+    private static final long[] STRUCK = new long[CELLS_NUMBER];
+    private static final long[] SUNK = new long[CELLS_NUMBER];
+    private static final long[][] FLEET = new long[TYPES_NUMBER][MAX_SHIPS_NUMBER];
+    private static final long[] DECK_LO_SALT = new long[TYPES_NUMBER];
+    private static final long[] DECK_HI_SALT = new long[TYPES_NUMBER];
+    private static final long[] FLEET_SALT = new long[TYPES_NUMBER];
+    private static final long HIT_SALT;
+    private static final long STRUCK_SALT;
+    private static final long SUNK_SALT;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EA_BA77L);
+        fill(random, DECK_LO);
+        fill(random, DECK_HI);
+        fill(random, HIT);
+        fill(random, STRUCK);
+        fill(random, SUNK);
+        fill(random, FLEET);
+        fill(random, DECK_LO_SALT);
+        fill(random, DECK_HI_SALT);
+        fill(random, FLEET_SALT);
+        HIT_SALT = random.nextLong();
+        STRUCK_SALT = random.nextLong();
+        SUNK_SALT = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param type type of the ship
+     * @param cellIndex index of the cell of the deck by the rules of the game
+     * @return key of the deck, the low word of the 128 bit key
+     */
+    public static long deck(Ship.Type type, int cellIndex) {
+        return cellIndex < CELLS_NUMBER ? DECK_LO[type.ordinal()][cellIndex] : mix(DECK_LO_SALT[type.ordinal()], cellIndex);
+    }
+
+    /**
+     * @param type type of the ship
+     * @param cellIndex index of the cell of the deck by the rules of the game
+     * @return the high word of the 128 bit key of the deck
+     */
+    public static long deckHi(Ship.Type type, int cellIndex) {
+        return cellIndex < CELLS_NUMBER ? DECK_HI[type.ordinal()][cellIndex] : mix(DECK_HI_SALT[type.ordinal()], cellIndex);
+    }
+
+    /**
+     * @param cellIndex index of the cell by the rules of the game
+     * @return key of the hit deck in the cell
+     */
+    public static long hit(int cellIndex) {
+        return cellIndex < CELLS_NUMBER ? HIT[cellIndex] : mix(HIT_SALT, cellIndex);
+    }
+
+    /**
+     * @param cellIndex index of the cell by the rules of the game
+     * @return key of the cell which needs no strikes
+     */
+    public static long struck(int cellIndex) {
+        return cellIndex < CELLS_NUMBER ? STRUCK[cellIndex] : mix(STRUCK_SALT, cellIndex);
+    }
+
+    /**
+     * @param cellIndex index of the cell by the rules of the game
+     * @return key of the deck of the sunk ship in the cell
+     */
+    public static long sunk(int cellIndex) {
+        return cellIndex < CELLS_NUMBER ? SUNK[cellIndex] : mix(SUNK_SALT, cellIndex);
+    }
+
+    /**
+     * @param type type of the ship
+     * @param count number of the remaining ships of the type
+     * @return key of the number of the remaining ships
+     */
+    public static long fleet(Ship.Type type, int count) {
+        if (count < 0) throw new IllegalArgumentException("Number of the ships must not be negative: " + count);
+        return count < MAX_SHIPS_NUMBER ? FLEET[type.ordinal()][count] : mix(FLEET_SALT[type.ordinal()], count);
+    }
+
+    /**
+     * @return the SplitMix64 finalizer of the salted index
+     */
+    private static long mix(long salt, int index) {
+        long z = salt + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    private static void fill(SplittableRandom random, long[][] keys) {
+        for (long[] row : keys) {
+            fill(random, row);
+        }
+    }
+
+    private static void fill(SplittableRandom random, long[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package vovten.game.simulation;
+
+import vovten.game.Player;
+import vovten.game.Terminator;
+import vovten.game.ai.TargetingStrategy;
+
+import java.util.Random;
+
+/**
+ * AI participant of a tournament.
+ */
+public final class Entrant {
+    private final String name;
+    private final TargetingStrategy.Factory factory;
+
+    /**
+     * @param name name of the entrant
+     * @param factory factory of the targeting strategy of the entrant
+     */
+    public Entrant(String name, TargetingStrategy.Factory factory) {
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a headless AI for a game
+     * @param player player of the AI
+     * @param random source of the random decisions
+     * @return the AI
+     */
+    public Terminator create(Player player, Random random) {
+        return new Terminator(player, factory.create(random));
+    }
+}
@@ -0,0 +1,57 @@
+package vovten.game.simulation;
+
+/**
+ * Statistics of the games gathered by a single task of the tournament.
+ */
+class Statistics {
+    private final long[][] wins;
+    private final long[] shotsToWin;
+    private final long[] winnerShotsHistogram;
+    private long games;
+
+    /**
+     * @param entrantsNumber number of the entrants
+     * @param maxShots max number of the shots of a game
+     */
+    Statistics(int entrantsNumber, int maxShots) {
+        wins = new long[entrantsNumber][entrantsNumber];
+        shotsToWin = new long[entrantsNumber];
+        winnerShotsHistogram = new long[maxShots + 1];
+    }
+
+    void addWin(int winner, int loser, int shots) {
+        wins[winner][loser]++;
+        shotsToWin[winner] += shots;
+        winnerShotsHistogram[shots]++;
+        games++;
+    }
+
+    void merge(Statistics other) {
+        for (int i = 0; i < wins.length; i++) {
+            for (int j = 0; j < wins.length; j++) {
+                wins[i][j] += other.wins[i][j];
+            }
+            shotsToWin[i] += other.shotsToWin[i];
+        }
+        for (int i = 0; i < winnerShotsHistogram.length; i++) {
+            winnerShotsHistogram[i] += other.winnerShotsHistogram[i];
+        }
+        games += other.games;
+    }
+
+    long getWins(int winner, int loser) {
+        return wins[winner][loser];
+    }
+
+    long getShotsToWin(int entrant) {
+        return shotsToWin[entrant];
+    }
+
+    long getWinnerShotsNumber(int shots) {
+        return shots >= 0 && shots < winnerShotsHistogram.length ? winnerShotsHistogram[shots] : 0;
+    }
+
+    long getGames() {
+        return games;
+    }
+}
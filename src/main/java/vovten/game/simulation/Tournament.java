@@ -0,0 +1,176 @@
+package vovten.game.simulation;
+
+import vovten.game.GameResult;
+import vovten.game.GameRunner;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.ai.DensityStrategy;
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Round-robin tournament among AI entrants played on a fork-join pool.
+ * Every pair of entrants plays the same number of games, the player who strikes first is chosen at random.
+ * A single entrant plays against itself.
+ * <p>
+ * The games are split into the tasks by their numbers only, every task derives its own
+ * {@link SplittableRandom} from the master seed, so the result of the tournament
+ * does not depend on the number of threads. The statistics are gathered by every task
+ * separately and merged when the tasks are joined.
+ */
+public class Tournament {
+    private static final int GAMES_PER_TASK = 64;
+    private final List<Entrant> entrants;
+    private final int[][] pairings;
+    private final int gamesPerPairing;
+    private final long seed;
+
+    /**
+     * @param entrants participants of the tournament
+     * @param gamesPerPairing number of games played by every pair of entrants
+     * @param seed master seed of the tournament
+     */
+    public Tournament(List<Entrant> entrants, int gamesPerPairing, long seed) {
+        if (entrants.isEmpty()) throw new IllegalArgumentException("No entrants.");
+        if (gamesPerPairing <= 0) throw new IllegalArgumentException("Not positive number of games.");
+        this.entrants = Collections.unmodifiableList(new ArrayList<>(entrants));
+        this.pairings = createPairings(entrants.size());
+        this.gamesPerPairing = gamesPerPairing;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the tournament on the common pool
+     * @return the result of the tournament
+     */
+    public TournamentResult run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays the tournament
+     * @param pool pool of the threads playing the games
+     * @return the result of the tournament
+     */
+    public TournamentResult run(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Statistics statistics = pool.invoke(new GamesTask(0, getGamesNumber(), new SplittableRandom(seed)));
+        long elapsed = System.nanoTime() - start;
+        List<String> names = new ArrayList<>();
+        entrants.forEach(entrant -> names.add(entrant.getName()));
+        return new TournamentResult(names, statistics, elapsed, pool.getParallelism());
+    }
+
+    /**
+     * Plays the tournament with 1, 2, 4 ... threads up to the specified number
+     * and reports the speed and the scaling efficiency for every number of threads
+     * @param maxParallelism max number of threads
+     * @return the report
+     */
+    public String measureScaling(int maxParallelism) {
+        StringBuilder report = new StringBuilder();
+        double singleThreadSpeed = 0;
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                TournamentResult result = run(pool);
+                double speed = result.getGamesPerSecond();
+                if (parallelism == 1) singleThreadSpeed = speed;
+                report.append(String.format("threads: %3d  games/sec: %12.0f  efficiency: %6.1f%%%n",
+                        parallelism, speed, 100 * speed / (singleThreadSpeed * parallelism)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return report.toString();
+    }
+
+    public int getGamesNumber() {
+        return pairings.length * gamesPerPairing;
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        List<Entrant> entrants = Arrays.asList(new Entrant("Hunting", HuntingStrategy::new),
+                new Entrant("Density", DensityStrategy::new));
+        Tournament tournament = new Tournament(entrants, games, seed);
+        tournament.run();   //warm up
+        System.out.println(tournament.run());
+        System.out.print(tournament.measureScaling(Runtime.getRuntime().availableProcessors()));
+    }
+
+    private static int[][] createPairings(int entrantsNumber) {
+        if (entrantsNumber == 1) return new int[][]{{0, 0}};
+        int[][] result = new int[entrantsNumber * (entrantsNumber - 1) / 2][];
+        int k = 0;
+        for (int i = 0; i < entrantsNumber; i++) {
+            for (int j = i + 1; j < entrantsNumber; j++) {
+                result[k++] = new int[]{i, j};
+            }
+        }
+        return result;
+    }
+
+    private void playGame(int gameNumber, Random random, Statistics statistics) {
+        int[] pairing = pairings[gameNumber / gamesPerPairing];
+        int first = pairing[0];
+        int second = pairing[1];
+        Player firstPlayer = new Player(entrants.get(first).getName(), Player.ID.FIRST, false);
+        Player secondPlayer = new Player(entrants.get(second).getName(), Player.ID.SECOND, false);
+
+        GameResult result = new GameRunner(random).play(
+                new BattleField(new AutoFieldBuilder(random)), new BattleField(new AutoFieldBuilder(random)),
+                entrants.get(first).create(firstPlayer, random), entrants.get(second).create(secondPlayer, random),
+                random.nextBoolean() ? Player.ID.FIRST : Player.ID.SECOND);
+        if (result.getWinner() == Player.ID.FIRST) {
+            statistics.addWin(first, second, result.getWinnerShots());
+        } else {
+            statistics.addWin(second, first, result.getWinnerShots());
+        }
+    }
+
+    /**
+     * Plays the games with numbers from the range
+     */
+    private class GamesTask extends RecursiveTask<Statistics> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        GamesTask(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Statistics compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Statistics statistics = new Statistics(entrants.size(), GameRunner.getMaxShots(RuleSet.CLASSIC));
+                for (int i = from; i < to; i++) {
+                    playGame(i, new Random(random.nextLong()), statistics);
+                }
+                return statistics;
+            }
+            int middle = (from + to) >>> 1;
+            GamesTask left = new GamesTask(from, middle, random.split());
+            GamesTask right = new GamesTask(middle, to, random);
+            left.fork();
+            Statistics result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
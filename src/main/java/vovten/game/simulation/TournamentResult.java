@@ -0,0 +1,95 @@
+package vovten.game.simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a tournament: the wins of every pairing, the shots needed to win and the speed of the play.
+ */
+public class TournamentResult {
+    private final List<String> entrants;
+    private final Statistics statistics;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    TournamentResult(List<String> entrants, Statistics statistics, long elapsedNanos, int parallelism) {
+        this.entrants = Collections.unmodifiableList(entrants);
+        this.statistics = statistics;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    public List<String> getEntrants() {
+        return entrants;
+    }
+
+    public long getGames() {
+        return statistics.getGames();
+    }
+
+    /**
+     * @param winner index of the winning entrant
+     * @param loser index of the losing entrant
+     * @return number of the games the winner won against the loser
+     */
+    public long getWins(int winner, int loser) {
+        return statistics.getWins(winner, loser);
+    }
+
+    /**
+     * @param entrant index of the entrant
+     * @return number of the games won by the entrant
+     */
+    public long getWins(int entrant) {
+        long result = 0;
+        for (int i = 0; i < entrants.size(); i++) {
+            result += statistics.getWins(entrant, i);
+        }
+        return result;
+    }
+
+    /**
+     * @param entrant index of the entrant
+     * @return average number of the shots the entrant needed to win or 0 if the entrant has no wins
+     */
+    public double getAverageShotsToWin(int entrant) {
+        long wins = getWins(entrant);
+        return wins == 0 ? 0 : (double) statistics.getShotsToWin(entrant) / wins;
+    }
+
+    /**
+     * @param shots number of shots
+     * @return number of the games won with the specified number of shots
+     */
+    public long getGamesWonWithShots(int shots) {
+        return statistics.getWinnerShotsNumber(shots);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public double getGamesPerSecond() {
+        return getGames() * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("%d games in %.3f s on %d threads, %.0f games/sec%n",
+                getGames(), elapsedNanos / 1e9, parallelism, getGamesPerSecond()));
+        for (int i = 0; i < entrants.size(); i++) {
+            result.append(String.format("%-20s wins: %10d  shots to win: %6.2f ",
+                    entrants.get(i), getWins(i), getAverageShotsToWin(i)));
+            for (int j = 0; j < entrants.size(); j++) {
+                result.append(String.format(" %10d", getWins(i, j)));
+            }
+            result.append(String.format("%n"));
+        }
+        return result.toString();
+    }
+}
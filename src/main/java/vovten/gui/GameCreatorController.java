@@ -17,7 +17,8 @@ import vovten.game.*;
 import vovten.game.field.Cell;
 import vovten.game.field.BattleField;
 import vovten.game.field.ManualFieldBuilder;
-import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.LayoutFieldBuilder;
+import vovten.game.field.LayoutPool;
 
 
 /**
@@ -64,7 +65,7 @@ public class GameCreatorController {
 
     @FXML
     public void btnStartGameAction() {
-        Game game = createGame();
+        GameActor game = createGame();
         if (game == null) return;
         mainController.setGame(game);
         mainController.startGame();
@@ -73,25 +74,25 @@ public class GameCreatorController {
 
     @FXML
     public void rectOneDeckShipMouseClicked() {
-        Ship oneDeckShip = new Ship(Ship.Type.ONE_DECK, new Cell(0, 0), Ship.Direction.HORIZONTAL);
+        Ship oneDeckShip = new Ship(Ship.Type.ONE_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
         paintRectShipAndSetShipProp(oneDeckShip);
     }
 
     @FXML
     public void rectTwoDeckShipMouseClicked() {
-        Ship twoDeckShip = new Ship(Ship.Type.TWO_DECK, new Cell(0, 0), Ship.Direction.HORIZONTAL);
+        Ship twoDeckShip = new Ship(Ship.Type.TWO_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
         paintRectShipAndSetShipProp(twoDeckShip);
     }
 
     @FXML
     public void rectThreeDeckShipMouseClicked() {
-        Ship threeDeckShip = new Ship(Ship.Type.THREE_DECK, new Cell(0, 0), Ship.Direction.HORIZONTAL);
+        Ship threeDeckShip = new Ship(Ship.Type.THREE_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
         paintRectShipAndSetShipProp(threeDeckShip);
     }
 
     @FXML
     public void rectFourDeckShipMouseClicked() {
-        Ship fourDeckShip = new Ship(Ship.Type.FOUR_DECK, new Cell(0, 0), Ship.Direction.HORIZONTAL);
+        Ship fourDeckShip = new Ship(Ship.Type.FOUR_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
         paintRectShipAndSetShipProp(fourDeckShip);
     }
 
@@ -175,14 +176,14 @@ public class GameCreatorController {
         generateFieldAndPaintShipsOnGrid();
     }
 
-    private Game createGame() {
+    private GameActor createGame() {
         if (isAdversaryComputer()) {
-            secondBattleField = new BattleField(new AutoFieldBuilder());
+            secondBattleField = new BattleField(new LayoutFieldBuilder(LayoutPool.getShared().take()));
         }
         if (firstBattleField == null || secondBattleField == null) return null;
         Player firstPlayer = new Player(tfFirstPlayerName.getText(), Player.ID.FIRST, !chbxMeComputer.isSelected());
         Player secondPlayer = new Player("Tерминатор", Player.ID.SECOND, false);
-        Game game = new Game(firstBattleField, secondBattleField, firstPlayer, secondPlayer);
+        GameActor game = new GameActor(new Game(firstBattleField, secondBattleField, firstPlayer, secondPlayer));
         if (!firstPlayer.isHuman()) {
             new Terminator(game, firstPlayer);
         }
@@ -217,7 +218,7 @@ public class GameCreatorController {
     }
 
     private void placeShipOnFieldAndPaintShipOnGridPane(int col, int row) {
-        Cell position = new Cell(col, row);
+        Cell position = Cell.of(col, row);
         Ship ship = createShip(position);
         if (isPlaceForShipValid(ship)) {
             placeShipOnField(ship);
@@ -262,7 +263,7 @@ public class GameCreatorController {
     }
 
     private Ship getShipFromFieldByPosition(int col, int row) {
-        return manualFieldCreator.getField()[col][row];
+        return manualFieldCreator.getShip(col, row);
     }
 
     private void removeShipFromFieldAndGridPane(Ship ship) {
@@ -284,7 +285,7 @@ public class GameCreatorController {
 
     private void generateFieldAndPaintShipsOnGrid() {
         shipsPainter.clearGridPane();
-        firstBattleField = new BattleField(new AutoFieldBuilder());
+        firstBattleField = new BattleField(new LayoutFieldBuilder(LayoutPool.getShared().take()));
         firstBattleField.getShips().forEach(shipsPainter::paintRectShipOnGridPane);
         if (firstBattleField.allShipsPlaced()) {
             btnStartGame.setDisable(false);
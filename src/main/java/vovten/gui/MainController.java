@@ -19,17 +19,18 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import vovten.game.*;
 import vovten.game.field.Cell;
-import vovten.game.field.BattleField;
-import vovten.util.Observable;
-import vovten.util.Observer;
+import vovten.util.EventBus;
 
 import java.io.IOException;
 import java.util.List;
 
 /**
- * GUI Controller
+ * GUI Controller.
+ * The events of the game are delivered in batches on the JavaFX application thread.
+ * The game is accessed only by the commands of its actor, so the turn, the winner and the remaining fleets
+ * shown by the controller are derived from the delivered events.
  */
-public class MainController implements Observer {
+public class MainController implements EventBus.Subscriber<GameEvent> {
     private static final int GRID_CELL_SIZE = 23;
     private static final String MSG_GOOD_STRIKE = "Есть попадание!";
     private static final String MSG_BAD_STRIKE = "Промах!";
@@ -64,15 +65,17 @@ public class MainController implements Observer {
     private @FXML Button btnStartGame;
     private @FXML Button btnStopGame;
 
+    private GameActor gameActor;
     private Game game;
+    private EventBus.Subscription<GameEvent> subscription;
     private Stage mainStage;
     private Player firstPlayer;
     private Player secondPlayer;
     private Painter firstPainter;
     private Painter secondPainter;
-    private Game.Status currGameStatus;
-    private BattleField firstBattleField;
-    private BattleField secondBattleField;
+    private int[] firstFleet;
+    private int[] secondFleet;
+    private Player.ID currentPlayerId;
     private int firstStrikeCounter;
     private int secondStrikeCounter;
 
@@ -82,62 +85,8 @@ public class MainController implements Observer {
     }
 
     @Override
-    public void update(Observable o, Object arg) {
-        Game.Status status = (Game.Status) arg;
-        currGameStatus = status;
-        switch (status) {
-            case FP_STRIKE:
-                handleStrikeEvent(Player.ID.FIRST);
-                break;
-
-            case FP_GOOD_STRIKE:
-                handleGoodStrikeEvent(Player.ID.FIRST);
-                break;
-
-            case FP_HAS_STRUCK:
-                handleStruckEvent(Player.ID.FIRST);
-                break;
-
-            case FP_BAD_STRIKE:
-                handleBadStrikeEvent(Player.ID.FIRST);
-                break;
-
-            case FP_DESTROYED_SHIP:
-                handleDestroyedShipEvent(Player.ID.FIRST);
-                break;
-
-            case FP_SURRENDERED:
-                handleSurrenderedEvent(Player.ID.FIRST);
-                break;
-
-            case SP_GOOD_STRIKE:
-                handleGoodStrikeEvent(Player.ID.SECOND);
-                break;
-
-            case SP_BAD_STRIKE:
-                handleBadStrikeEvent(Player.ID.SECOND);
-                break;
-
-            case SP_STRIKE:
-                handleStrikeEvent(Player.ID.SECOND);
-                break;
-
-            case SP_HAS_STRUCK:
-                handleStruckEvent(Player.ID.SECOND);
-                break;
-
-            case SP_DESTROYED_SHIP:
-            handleDestroyedShipEvent(Player.ID.SECOND);
-            break;
-
-            case SP_SURRENDERED:
-                handleSurrenderedEvent(Player.ID.SECOND);
-                break;
-
-            case GAME_OVER:
-                handleGameOverEvent();
-                break;
-        }
+    public void onEvents(List<? extends GameEvent> events) {
+        events.forEach(this::handleEvent);
     }
 
     @FXML
@@ -158,7 +107,7 @@ public class MainController implements Observer {
     @FXML
     public void secondGridPanelMouseClicked(MouseEvent e) {
         if (!firstPlayer.isHuman()) return;
-        if (currGameStatus == Game.Status.SP_STRIKE) return;
+        if (currentPlayerId != Player.ID.FIRST) return;
         int col = (int) e.getX() / GRID_CELL_SIZE; //column of the grid pane
         int row = (int) e.getY() / GRID_CELL_SIZE; //row of the grid pane
         strike(col, row);
@@ -171,20 +120,24 @@ public class MainController implements Observer {
 
     @FXML
     public void btnStopGameAction() {
-        showConfirmDialog("Капитуляция", "Сдаешься?", () -> game.surrender(firstPlayer));
+        showConfirmDialog("Капитуляция", "Сдаешься?", () -> gameActor.surrender(firstPlayer));
     }
 
     public void startGame() {
         initGame();
-        game.start();
+        gameActor.start();
     }
 
     public void showConfirmDialogExitGame() {
         Platform.runLater(() -> showConfirmDialog("Выход из игры", "Выйти из игры?", () -> System.exit(0)));
     }
 
-    public void setGame(Game game) {
-        this.game = game;
+    /**
+     * @param gameActor actor of the game, the controller changes the game only by its commands
+     */
+    public void setGame(GameActor gameActor) {
+        this.gameActor = gameActor;
+        game = gameActor.getGame();
     }
 
     public void setMainStage(Stage mainStage) {
@@ -198,9 +151,14 @@ public class MainController implements Observer {
         secondPainter.clearGridPane();
         firstPlayer = game.getFirstPlayer();
         secondPlayer = game.getSecondPlayer();
-        firstBattleField = game.getFirstBattleField();
-        secondBattleField = game.getSecondBattleField();
-        game.addObserver(this);
+        //the game is not started yet, so its rules may be read here
+        firstFleet = createFleet(game.getRuleSet());
+        secondFleet = createFleet(game.getRuleSet());
+        currentPlayerId = null;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        subscription = game.getEvents().subscribe(this, Platform::runLater);
         paintShipsOnFirstGridPanel();
         initComponents();
         btnStartGame.setVisible(false);
@@ -209,7 +167,16 @@ public class MainController implements Observer {
         secondStrikeCounter = 0;
     }
 
+    private static int[] createFleet(RuleSet rules) {
+        int[] fleet = new int[Ship.Type.values().length];
+        for (Ship.Type type : Ship.Type.values()) {
+            fleet[type.ordinal()] = rules.getShipsNumber(type);
+        }
+        return fleet;
+    }
+
     private void handleStrikeEvent(Player.ID playerId) {
+        currentPlayerId = playerId;
         switch (playerId) {
             case FIRST:
                 anchorPaneDisableSecond.setVisible(false);
@@ -223,9 +190,76 @@ public class MainController implements Observer {
         }
     }
 
-    private void handleGoodStrikeEvent(Player.ID playerId) {
-        Ship ship = game.getCurrDamagedShip();
-        Cell position = ship.getLastDamagedDeck().getCell();
+    private void handleEvent(GameEvent event) {
+        if (event instanceof StrikeResult) {
+            handleStrikeResult((StrikeResult) event);
+            return;
+        }
+        if (event instanceof SalvoResult) {
+            handleSalvoResult((SalvoResult) event);
+            return;
+        }
+        Game.Status status = (Game.Status) event;
+        switch (status) {
+            case FP_STRIKE:
+                handleStrikeEvent(Player.ID.FIRST);
+                break;
+
+            case FP_SURRENDERED:
+                handleSurrenderedEvent(Player.ID.FIRST);
+                break;
+
+            case SP_STRIKE:
+                handleStrikeEvent(Player.ID.SECOND);
+                break;
+
+            case SP_SURRENDERED:
+                handleSurrenderedEvent(Player.ID.SECOND);
+                break;
+        }
+    }
+
+    private void handleStrikeResult(StrikeResult result) {
+        paintStrike(result);
+        if (result.isGameOver()) {
+            handleGameOverEvent(result.getPlayerId());
+        } else if (result.isTurnPassed()) {
+            handleStrikeEvent(result.getPlayerId() == Player.ID.FIRST ? Player.ID.SECOND : Player.ID.FIRST);
+        }
+    }
+
+    private void handleSalvoResult(SalvoResult salvo) {
+        for (int i = 0; i < salvo.size(); i++) {
+            paintStrike(salvo.getStrike(i));
+        }
+        if (salvo.isGameOver()) {
+            handleGameOverEvent(salvo.getPlayer().getID());
+        } else if (salvo.isTurnPassed()) {
+            handleStrikeEvent(salvo.getPlayer().isFirstPlayer() ? Player.ID.SECOND : Player.ID.FIRST);
+        }
+    }
+
+    private void paintStrike(StrikeResult result) {
+        Player.ID playerId = result.getPlayerId();
+        switch (result.getOutcome()) {
+            case MISS:
+                handleBadStrikeEvent(playerId, result.getCell());
+                break;
+
+            case HIT:
+                handleGoodStrikeEvent(playerId, result.getCell());
+                break;
+
+            case SUNK:
+                (playerId == Player.ID.FIRST ? secondFleet : firstFleet)[result.getShip().getType().ordinal()]--;
+                handleGoodStrikeEvent(playerId, result.getCell());
+                handleDestroyedShipEvent(playerId, result.getShip());
+                break;
+        }
+        handleStruckEvent(playerId);
+    }
+
+    private void handleGoodStrikeEvent(Player.ID playerId, Cell position) {
         switch (playerId) {
             case FIRST:
                 secondPainter.paintDamagedDeckOnGridPane(position);
@@ -242,57 +276,63 @@ public class MainController implements Observer {
     }
 
     private void updateSecondRectShipsViewAndCounters() {
-        updateShipCounters(secondBattleField, labelSecondOneShipCounter, labelSecondTwoShipCounter,
+        updateShipCounters(secondFleet, labelSecondOneShipCounter, labelSecondTwoShipCounter,
                 labelSecondThreeShipCounter, labelSecondFourShipCounter);
-        updateRectShipView(secondBattleField, secondPainter, rectSecondOneShip, rectSecondTwoShip,
+        updateRectShipView(secondFleet, secondPainter, rectSecondOneShip, rectSecondTwoShip,
                 rectSecondThreeShip, rectSecondFourShip);
     }
 
     private void updateFirstRectShipsViewAndCounters() {
-        updateShipCounters(firstBattleField, labelFirstOneShipCounter, labelFirstTwoShipCounter,
+        updateShipCounters(firstFleet, labelFirstOneShipCounter, labelFirstTwoShipCounter,
                 labelFirstThreeShipCounter, labelFirstFourShipCounter);
-        updateRectShipView(firstBattleField, firstPainter, rectFirstOneShip, rectFirstTwoShip,
+        updateRectShipView(firstFleet, firstPainter, rectFirstOneShip, rectFirstTwoShip,
                 rectFirstThreeShip, rectFirstFourShip);
     }
 
-    private void updateShipCounters(BattleField battleField, Label one, Label two, Label three, Label four) {
-        Platform.runLater(() -> one.setText(String.valueOf(battleField.getOneDeckShipCounter())));
-        Platform.runLater(() -> two.setText(String.valueOf(battleField.getTwoDeckShipCounter())));
-        Platform.runLater(() -> three.setText(String.valueOf(battleField.getThreeDeckShipCounter())));
-        Platform.runLater(() -> four.setText(String.valueOf(battleField.getFourDeckShipCounter())));
+    /**
+     * @param fleet number of the remaining ships by the type
+     */
+    private void updateShipCounters(int[] fleet, Label one, Label two, Label three, Label four) {
+        String oneText = String.valueOf(fleet[Ship.Type.ONE_DECK.ordinal()]);
+        String twoText = String.valueOf(fleet[Ship.Type.TWO_DECK.ordinal()]);
+        String threeText = String.valueOf(fleet[Ship.Type.THREE_DECK.ordinal()]);
+        String fourText = String.valueOf(fleet[Ship.Type.FOUR_DECK.ordinal()]);
+        Platform.runLater(() -> one.setText(oneText));
+        Platform.runLater(() -> two.setText(twoText));
+        Platform.runLater(() -> three.setText(threeText));
+        Platform.runLater(() -> four.setText(fourText));
     }
 
-    private void updateRectShipView(BattleField battleField, Painter painter, Rectangle one, Rectangle two,
+    private void updateRectShipView(int[] fleet, Painter painter, Rectangle one, Rectangle two,
                                     Rectangle three, Rectangle four) {
-        if (battleField.allShipsTypeDestroyed(Ship.Type.ONE_DECK)) {
+        if (fleet[Ship.Type.ONE_DECK.ordinal()] == 0) {
             painter.disableRectangle(one, true);
         }
-        if (battleField.allShipsTypeDestroyed(Ship.Type.TWO_DECK)) {
+        if (fleet[Ship.Type.TWO_DECK.ordinal()] == 0) {
             painter.disableRectangle(two, true);
         }
-        if (battleField.allShipsTypeDestroyed(Ship.Type.THREE_DECK)) {
+        if (fleet[Ship.Type.THREE_DECK.ordinal()] == 0) {
             painter.disableRectangle(three, true);
         }
-        if (battleField.allShipsTypeDestroyed(Ship.Type.FOUR_DECK)) {
+        if (fleet[Ship.Type.FOUR_DECK.ordinal()] == 0) {
             painter.disableRectangle(four, true);
         }
     }
 
-    private void handleBadStrikeEvent(Player.ID playerId) {
-        Cell position = game.getStruckCell();
+    private void handleBadStrikeEvent(Player.ID playerId, Cell position) {
         switch (playerId) {
             case FIRST:
                 secondPainter.paintPointOnGridPane(position);
                 secondPainter.showFadeMessage(labelFirstBottomInfo, MSG_BAD_STRIKE);
                 if (!firstPlayer.isHuman()) {
-                    secondPainter.illuminateStrikePoint(game.getStruckCell(), Color.RED);
+                    secondPainter.illuminateStrikePoint(position, Color.RED);
                 }
                 break;
 
             case SECOND:
                 firstPainter.paintPointOnGridPane(position);
                 firstPainter.showFadeMessage(labelSecondBottomInfo, MSG_BAD_STRIKE);
-                firstPainter.illuminateStrikePoint(game.getStruckCell(), Color.RED);
+                firstPainter.illuminateStrikePoint(position, Color.RED);
                 break;
         }
     }
@@ -308,8 +348,7 @@ public class MainController implements Observer {
         }
     }
 
-    private void handleDestroyedShipEvent(Player.ID playerId) {
-        Ship ship = game.getCurrDamagedShip();
+    private void handleDestroyedShipEvent(Player.ID playerId, Ship ship) {
         switch (playerId) {
             case FIRST:
                 secondPainter.paintDestroyedShip(ship);
@@ -324,7 +363,8 @@ public class MainController implements Observer {
     }
 
     private void handleSurrenderedEvent(Player.ID playerId) {
-        Player winner = game.getWinner();
+        currentPlayerId = null;
+        Player winner = playerId == Player.ID.FIRST ? secondPlayer : firstPlayer;
         switch (playerId) {
             case FIRST:
                 Platform.runLater(() -> labelTopInfo.setText(
@@ -339,12 +379,14 @@ public class MainController implements Observer {
         btnStopGame.setVisible(false);
     }
 
-    private void handleGameOverEvent() {
-        Player winner = game.getWinner();
+    private void handleGameOverEvent(Player.ID winnerId) {
+        currentPlayerId = null;
+        Player winner = winnerId == Player.ID.FIRST ? firstPlayer : secondPlayer;
         labelTopInfo.setTextFill(Color.web("#842219"));
         Platform.runLater(() -> labelTopInfo.setText("Победил " + winner.getName() + "!"));
         if (winner.equals(secondPlayer)) {
-            game.getSecondPlayerShips().forEach(secondPainter::paintRectShipOnGridPane);
+            gameActor.call(Game::getSecondPlayerShips).thenAccept(ships ->
+                    Platform.runLater(() -> ships.forEach(secondPainter::paintRectShipOnGridPane)));
         }
         anchorPaneDisableFirst.setVisible(true);
         anchorPaneDisableSecond.setVisible(true);
@@ -403,7 +445,7 @@ public class MainController implements Observer {
     }
 
     private void strike(int col, int row) {
-        game.strike(firstPlayer, new Cell(col, row));
+        gameActor.strike(firstPlayer, Cell.of(col, row));
     }
 
     private void paintShipsOnFirstGridPanel() {
@@ -75,7 +75,7 @@ class Painter {
     public void paintRectShipOnGridPane(Ship ship) {
         for (int i = 0; i < GRID_SIZE; i++) {
             for (int j = 0; j < GRID_SIZE; j++) {
-                Cell position = new Cell(i, j);
+                Cell position = Cell.of(i, j);
                 if (isShipOnPositionPresent(ship, position)) {
                     Rectangle square = createSquare(GRID_CELL_SIZE, position, RECT_SHIP_COLOR);
                     int fi = i, fj = j;
@@ -90,7 +90,7 @@ class Painter {
     public void removeRectShipFromGridPane(Ship ship) {
         for (int i = 0; i < GRID_SIZE; i++) {
             for (int j = 0; j < GRID_SIZE; j++) {
-                Cell position = new Cell(i, j);
+                Cell position = Cell.of(i, j);
                 if (isShipOnPositionPresent(ship, position)) {
                     Rectangle rect = findRectShipOnGridPanel(position);
                     if (rect != null) {
@@ -142,7 +142,7 @@ class Painter {
     public void paintDestroyedShip(Ship ship) {
         for (int i = 0; i < GRID_SIZE; i++) {
             for (int j = 0; j < GRID_SIZE; j++) {
-                Cell position = new Cell(i, j);
+                Cell position = Cell.of(i, j);
                 if (isShipOnPositionPresent(ship, position)) {
                     Rectangle rectangle = createSquare(GRID_CELL_SIZE, position, Color.GRAY);
                     Group cross = createCross();
@@ -157,7 +157,7 @@ class Painter {
     public void paintDamagedDeckOnGridPane(Cell position) {
         for (int i = 0; i < GRID_SIZE; i++) {
             for (int j = 0; j < GRID_SIZE; j++) {
-                Cell currPosition = new Cell(i, j);
+                Cell currPosition = Cell.of(i, j);
                 if (currPosition.equals(position)) {
                     Group cross = createCross();
                     int fi = i, fj = j;
@@ -170,7 +170,7 @@ class Painter {
     public void paintPointOnGridPane(Cell position) {
         for (int i = 0; i < GRID_SIZE; i++) {
             for (int j = 0; j < GRID_SIZE; j++) {
-                Cell currPosition = new Cell(i, j);
+                Cell currPosition = Cell.of(i, j);
                 if (currPosition.equals(position)) {
                     Shape point = new Circle(3.5, Color.BLACK);
                     int fi = i, fj = j;
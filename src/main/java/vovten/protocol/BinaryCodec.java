@@ -0,0 +1,284 @@
+package vovten.protocol;
+
+import vovten.game.Game;
+import vovten.game.GameEvent;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.SalvoResult;
+import vovten.game.Ship;
+import vovten.game.StrikeResult;
+import vovten.game.ai.Outcome;
+import vovten.game.field.Cell;
+import vovten.game.field.Layout;
+import vovten.game.field.Placements;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Binary protocol of the classic games. A message is the type byte followed by the payload of a fixed size,
+ * so the messages are decoded straight from the buffer, several of them by one read, see {@link BinaryDecoder}.
+ * <pre>
+ * HELLO      type, version                       2 bytes, the first message of both sides
+ * NEW_GAME   type, 0 - against AI | 1 - human    2 bytes
+ * STRIKE     type, cell index                    2 bytes
+ * SURRENDER  type                                1 byte
+ * WAIT       type                                1 byte
+ * GAME       type, player, game id (long)        10 bytes
+ * STATUS     type, status                        2 bytes
+ * RESULT     type, flags, cell index, ship id    5 bytes
+ *            flags: bit 0 - player, bits 1-2 - outcome, bit 3 - game over, bit 4 - turn passed
+ *            ship id: id of the {@link vovten.game.field.Placement} of the sunk ship, {@link #NO_SHIP} for a miss
+ *            or a hit, so the position of a damaged ship is not revealed to the clients
+ * LAYOUT     type, player, placement ids of the fleet (short) 22 bytes
+ * ERROR      type, {@link ErrorCode#getCode() error code} 2 bytes
+ * </pre>
+ * The enums are sent by their wire codes, which do not depend on the order of the constants:
+ * player FIRST 0, SECOND 1; outcome MISS 0, HIT 1, SUNK 2;
+ * status FP_STRIKE 0, FP_SURRENDERED 1, SP_STRIKE 2, SP_SURRENDERED 3.
+ * A salvo is sent as the RESULTs of its cells, the turn passed flag marks the last of them.
+ * By the default rules the flag is set on a miss.
+ * <p>
+ * A cell is sent as its index in the classic field, so only the classic games are supported:
+ * the encoders reject the other rules with {@link IllegalArgumentException}.
+ * The encoders write to the buffer at its position, they never allocate.
+ * The buffer must have room for the message, see {@link #MAX_MESSAGE_SIZE}.
+ */
+public final class BinaryCodec {
+    public static final int VERSION = 1;
+    public static final byte HELLO = 1;
+    public static final byte NEW_GAME = 2;
+    public static final byte STRIKE = 3;
+    public static final byte SURRENDER = 4;
+    public static final byte WAIT = 16;
+    public static final byte GAME = 17;
+    public static final byte STATUS = 18;
+    public static final byte RESULT = 19;
+    public static final byte LAYOUT = 20;
+    public static final byte ERROR = 21;
+    public static final int RESULT_SIZE = 5;
+    public static final int LAYOUT_SIZE = 2 + 2 * Game.GENERAL_SHIPS_NUMBER;
+    public static final int MAX_MESSAGE_SIZE = LAYOUT_SIZE;
+    public static final int NO_SHIP = 0xFFFF;
+    private static final int[] SIZES = createSizes();
+    private static final Player.ID[] PLAYER_IDS = {Player.ID.FIRST, Player.ID.SECOND};
+    private static final Outcome[] OUTCOMES = {Outcome.MISS, Outcome.HIT, Outcome.SUNK};
+    private static final Game.Status[] STATUSES = {Game.Status.FP_STRIKE, Game.Status.FP_SURRENDERED,
+            Game.Status.SP_STRIKE, Game.Status.SP_SURRENDERED};
+    private static final int TURN_PASSED = 1 << 4;
+    private static final int GAME_OVER = 1 << 3;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * @param type type of the message
+     * @return size of the message with the type byte or -1 if the type is unknown
+     */
+    public static int getMessageSize(byte type) {
+        return type >= 0 && type < SIZES.length ? SIZES[type] : -1;
+    }
+
+    public static void putHello(ByteBuffer buffer) {
+        buffer.put(HELLO).put((byte) VERSION);
+    }
+
+    /**
+     * @param human true to play against the other client, false to play against AI
+     */
+    public static void putNewGame(ByteBuffer buffer, boolean human) {
+        buffer.put(NEW_GAME).put((byte) (human ? 1 : 0));
+    }
+
+    /**
+     * @param cellIndex index of the cell of the classic field
+     */
+    public static void putStrike(ByteBuffer buffer, int cellIndex) {
+        buffer.put(STRIKE).put(toCellByte(cellIndex));
+    }
+
+    public static void putSurrender(ByteBuffer buffer) {
+        buffer.put(SURRENDER);
+    }
+
+    public static void putWait(ByteBuffer buffer) {
+        buffer.put(WAIT);
+    }
+
+    /**
+     * @param id id of the game
+     * @param playerId the player of the receiver
+     * @param rules rules of the game, only the classic ones are supported
+     */
+    public static void putGame(ByteBuffer buffer, long id, Player.ID playerId, RuleSet rules) {
+        if (!rules.isClassic()) throw new IllegalArgumentException("Not a classic game: " + rules);
+        buffer.put(GAME).put((byte) getCode(playerId)).putLong(id);
+    }
+
+    public static void putStatus(ByteBuffer buffer, Game.Status status) {
+        buffer.put(STATUS).put((byte) getCode(status));
+    }
+
+    /**
+     * @param result result of the strike on the classic field
+     */
+    public static void putResult(ByteBuffer buffer, StrikeResult result) {
+        Cell cell = result.getCell();
+        if (!Cell.isInField(cell.getX(), cell.getY())) {
+            throw new IllegalArgumentException("Not a cell of the classic field: " + cell);
+        }
+        Ship ship = result.getShip();
+        int shipId = result.getOutcome() != Outcome.SUNK ? NO_SHIP
+                : Placements.getInstance().find(ship.getType(), ship.getPosition().getIndex(), ship.getDirection());
+        putResult(buffer, result.getPlayerId(), cell.getIndex(), result.getOutcome(), shipId,
+                result.isGameOver(), result.isTurnPassed());
+    }
+
+    /**
+     * @param playerId the player who strikes
+     * @param cellIndex index of the struck cell
+     * @param outcome outcome of the strike
+     * @param shipId placement id of the sunk ship, {@link #NO_SHIP} for a miss or a hit
+     * @param gameOver true if the strike wins the game
+     * @param turnPassed true if the turn passes to the adversary after the strike
+     */
+    public static void putResult(ByteBuffer buffer, Player.ID playerId, int cellIndex, Outcome outcome, int shipId,
+                                 boolean gameOver, boolean turnPassed) {
+        if ((outcome == Outcome.SUNK) == (shipId == NO_SHIP)) {
+            throw new IllegalArgumentException("Ship id " + shipId + " does not match the outcome " + outcome);
+        }
+        int flags = getCode(playerId) | getCode(outcome) << 1 | (gameOver ? GAME_OVER : 0)
+                | (turnPassed ? TURN_PASSED : 0);
+        buffer.put(RESULT).put((byte) flags).put(toCellByte(cellIndex)).putShort((short) shipId);
+    }
+
+    /**
+     * Writes the status or the results of the strikes of the event
+     * @param event event of the classic game
+     */
+    public static void putEvent(ByteBuffer buffer, GameEvent event) {
+        if (event instanceof StrikeResult) {
+            putResult(buffer, (StrikeResult) event);
+        } else if (event instanceof SalvoResult) {
+            SalvoResult salvo = (SalvoResult) event;
+            for (int i = 0; i < salvo.size(); i++) {
+                putResult(buffer, salvo.getStrike(i));
+            }
+        } else {
+            putStatus(buffer, (Game.Status) event);
+        }
+    }
+
+    /**
+     * @param event event of the game
+     * @return number of the bytes written by {@link #putEvent(ByteBuffer, GameEvent)}
+     */
+    public static int getEventSize(GameEvent event) {
+        if (event instanceof StrikeResult) return RESULT_SIZE;
+        if (event instanceof SalvoResult) return RESULT_SIZE * ((SalvoResult) event).size();
+        return SIZES[STATUS];
+    }
+
+    /**
+     * @param playerId owner of the fleet
+     * @param layout layout of the classic fleet
+     */
+    public static void putLayout(ByteBuffer buffer, Player.ID playerId, Layout layout) {
+        if (layout.getShipsNumber() != Game.GENERAL_SHIPS_NUMBER) {
+            throw new IllegalArgumentException("Not a classic fleet: " + layout);
+        }
+        buffer.put(LAYOUT).put((byte) getCode(playerId));
+        for (int i = 0; i < Game.GENERAL_SHIPS_NUMBER; i++) {
+            buffer.putShort((short) layout.getPlacementId(i));
+        }
+    }
+
+    public static void putError(ByteBuffer buffer, ErrorCode code) {
+        buffer.put(ERROR).put((byte) code.getCode());
+    }
+
+    static int getCode(Player.ID playerId) {
+        switch (playerId) {
+            case FIRST:
+                return 0;
+            default:
+                return 1;
+        }
+    }
+
+    static int getCode(Outcome outcome) {
+        switch (outcome) {
+            case MISS:
+                return 0;
+            case HIT:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    static int getCode(Game.Status status) {
+        switch (status) {
+            case FP_STRIKE:
+                return 0;
+            case FP_SURRENDERED:
+                return 1;
+            case SP_STRIKE:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * @return the player of the wire code or null if the code is unknown
+     */
+    static Player.ID getPlayerId(int code) {
+        return code >= 0 && code < PLAYER_IDS.length ? PLAYER_IDS[code] : null;
+    }
+
+    /**
+     * @return the outcome of the wire code or null if the code is unknown
+     */
+    static Outcome getOutcome(int code) {
+        return code >= 0 && code < OUTCOMES.length ? OUTCOMES[code] : null;
+    }
+
+    /**
+     * @return the status of the wire code or null if the code is unknown
+     */
+    static Game.Status getStatus(int code) {
+        return code >= 0 && code < STATUSES.length ? STATUSES[code] : null;
+    }
+
+    static boolean isGameOver(int flags) {
+        return (flags & GAME_OVER) != 0;
+    }
+
+    static boolean isTurnPassed(int flags) {
+        return (flags & TURN_PASSED) != 0;
+    }
+
+    private static byte toCellByte(int cellIndex) {
+        if (cellIndex < 0 || cellIndex >= Game.FIELD_SIZE * Game.FIELD_SIZE) {
+            throw new IllegalArgumentException("Not a cell of the classic field: " + cellIndex);
+        }
+        return (byte) cellIndex;
+    }
+
+    private static int[] createSizes() {
+        int[] sizes = new int[ERROR + 1];
+        Arrays.fill(sizes, -1);
+        sizes[HELLO] = 2;
+        sizes[NEW_GAME] = 2;
+        sizes[STRIKE] = 2;
+        sizes[SURRENDER] = 1;
+        sizes[WAIT] = 1;
+        sizes[GAME] = 10;
+        sizes[STATUS] = 2;
+        sizes[RESULT] = RESULT_SIZE;
+        sizes[LAYOUT] = LAYOUT_SIZE;
+        sizes[ERROR] = 2;
+        return sizes;
+    }
+}
@@ -0,0 +1,170 @@
+package vovten.protocol;
+
+import vovten.game.Game;
+import vovten.game.Player;
+import vovten.game.ai.Outcome;
+import vovten.game.field.Placements;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes the messages of the {@link BinaryCodec} and passes them to the handler.
+ * The decoder reads the buffer in place and never allocates, so it is not thread safe.
+ */
+public final class BinaryDecoder {
+    private final Handler handler;
+    private final int[] placementIds = new int[Game.GENERAL_SHIPS_NUMBER];
+
+    /**
+     * @param handler receiver of the messages
+     */
+    public BinaryDecoder(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Decodes the complete messages between the position and the limit of the buffer.
+     * The position is moved to the first byte of the incomplete message, so the rest may be compacted
+     * and decoded after the next read, so the capacity of the buffer must be at least
+     * {@link BinaryCodec#MAX_MESSAGE_SIZE}.
+     * @param buffer buffer in the read mode
+     * @return number of the decoded messages
+     * @throws ProtocolException if the buffer contains an unknown or a malformed message
+     */
+    public int decode(ByteBuffer buffer) throws ProtocolException {
+        int number = 0;
+        while (buffer.hasRemaining()) {
+            int position = buffer.position();
+            byte type = buffer.get(position);
+            int size = BinaryCodec.getMessageSize(type);
+            if (size < 0) throw new ProtocolException("Unknown message type " + type);
+            if (buffer.remaining() < size) break;
+            buffer.position(position + 1);
+            dispatch(type, buffer);
+            number++;
+        }
+        return number;
+    }
+
+    private void dispatch(byte type, ByteBuffer buffer) throws ProtocolException {
+        switch (type) {
+            case BinaryCodec.HELLO:
+                handler.onHello(buffer.get() & 0xFF);
+                break;
+            case BinaryCodec.NEW_GAME:
+                handler.onNewGame(buffer.get() != 0);
+                break;
+            case BinaryCodec.STRIKE:
+                handler.onStrike(getCellIndex(buffer));
+                break;
+            case BinaryCodec.SURRENDER:
+                handler.onSurrender();
+                break;
+            case BinaryCodec.WAIT:
+                handler.onWait();
+                break;
+            case BinaryCodec.GAME: {
+                Player.ID playerId = getPlayerId(buffer.get());
+                handler.onGame(buffer.getLong(), playerId);
+                break;
+            }
+            case BinaryCodec.STATUS:
+                handler.onStatus(check(BinaryCodec.getStatus(buffer.get()), "status"));
+                break;
+            case BinaryCodec.RESULT: {
+                int flags = buffer.get();
+                int cellIndex = getCellIndex(buffer);
+                Outcome outcome = check(BinaryCodec.getOutcome(flags >> 1 & 3), "outcome");
+                int shipId = buffer.getShort() & 0xFFFF;
+                if (outcome == Outcome.SUNK) {
+                    checkPlacementId(shipId);
+                } else if (shipId != BinaryCodec.NO_SHIP) {
+                    throw new ProtocolException("Ship of the " + outcome + " strike: " + shipId);
+                }
+                handler.onResult(getPlayerId(flags & 1), cellIndex, outcome, shipId,
+                        BinaryCodec.isGameOver(flags), BinaryCodec.isTurnPassed(flags));
+                break;
+            }
+            case BinaryCodec.LAYOUT: {
+                Player.ID playerId = getPlayerId(buffer.get());
+                for (int i = 0; i < placementIds.length; i++) {
+                    placementIds[i] = checkPlacementId(buffer.getShort() & 0xFFFF);
+                }
+                handler.onLayout(playerId, placementIds);
+                break;
+            }
+            case BinaryCodec.ERROR:
+                handler.onError(check(ErrorCode.ofCode(buffer.get()), "error"));
+                break;
+            default:
+                throw new ProtocolException("Unknown message type " + type);
+        }
+    }
+
+    /**
+     * Reads the index of the cell of the classic field, the only field of the protocol
+     */
+    private static int getCellIndex(ByteBuffer buffer) throws ProtocolException {
+        int cellIndex = buffer.get() & 0xFF;
+        if (cellIndex >= Game.FIELD_SIZE * Game.FIELD_SIZE) throw new ProtocolException("Unknown cell " + cellIndex);
+        return cellIndex;
+    }
+
+    private static int checkPlacementId(int id) throws ProtocolException {
+        if (id >= Placements.getInstance().size()) throw new ProtocolException("Unknown placement " + id);
+        return id;
+    }
+
+    private static Player.ID getPlayerId(int code) throws ProtocolException {
+        return check(BinaryCodec.getPlayerId(code), "player");
+    }
+
+    private static <T> T check(T value, String name) throws ProtocolException {
+        if (value == null) throw new ProtocolException("Unknown " + name + " code");
+        return value;
+    }
+
+    /**
+     * Receiver of the decoded messages, the messages of the other side are ignored by default
+     */
+    public interface Handler {
+        default void onHello(int version) {
+        }
+
+        default void onNewGame(boolean human) {
+        }
+
+        default void onStrike(int cellIndex) {
+        }
+
+        default void onSurrender() {
+        }
+
+        default void onWait() {
+        }
+
+        default void onGame(long id, Player.ID playerId) {
+        }
+
+        default void onStatus(Game.Status status) {
+        }
+
+        /**
+         * @param shipId placement id of the sunk ship, {@link BinaryCodec#NO_SHIP} for a miss or a hit
+         * @param turnPassed true if the turn passes after the strike, it marks the last strike of a salvo
+         */
+        default void onResult(Player.ID playerId, int cellIndex, Outcome outcome, int shipId, boolean gameOver,
+                              boolean turnPassed) {
+        }
+
+        /**
+         * @param placementIds placement ids of the fleet, the array is reused by the decoder
+         */
+        default void onLayout(Player.ID playerId, int[] placementIds) {
+        }
+
+        default void onError(ErrorCode code) {
+        }
+    }
+}
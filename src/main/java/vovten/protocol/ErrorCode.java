@@ -0,0 +1,55 @@
+package vovten.protocol;
+
+/**
+ * Errors of the commands reported by the server.
+ * Every error has its wire code of the {@link BinaryCodec}, the codes never change.
+ */
+public enum ErrorCode {
+    UNKNOWN_COMMAND(0, "Unknown command"),
+    MALFORMED_COMMAND(1, "Malformed command"),
+    UNSUPPORTED_VERSION(2, "Unsupported protocol version"),
+    NO_GAME(3, "No game"),
+    GAME_IN_PROGRESS(4, "Game is in progress"),
+    NOT_YOUR_TURN(5, "Not your turn"),
+    OUT_OF_FIELD(6, "Cell is out of the field");
+
+    private static final ErrorCode[] BY_CODE = createByCode();
+    private final int code;
+    private final String message;
+
+    ErrorCode(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    /**
+     * @param code wire code
+     * @return the error or null if the code is unknown
+     */
+    public static ErrorCode ofCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * @return wire code of the error
+     */
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    private static ErrorCode[] createByCode() {
+        int length = 0;
+        for (ErrorCode error : values()) {
+            length = Math.max(length, error.code + 1);
+        }
+        ErrorCode[] result = new ErrorCode[length];
+        for (ErrorCode error : values()) {
+            result[error.code] = error;
+        }
+        return result;
+    }
+}
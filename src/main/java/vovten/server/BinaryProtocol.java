@@ -0,0 +1,90 @@
+package vovten.server;
+
+import vovten.game.GameEvent;
+import vovten.protocol.BinaryCodec;
+import vovten.protocol.BinaryDecoder;
+import vovten.protocol.ErrorCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link BinaryCodec} of the server for the bots. The client starts with HELLO of its version,
+ * the commands before the accepted HELLO are rejected. The events are encoded straight into the output buffer
+ * by the selector loop, the encoding and the decoding allocate nothing.
+ * The protocol supports only the classic games.
+ */
+final class BinaryProtocol implements Protocol, BinaryDecoder.Handler {
+    private final Connection connection;
+    private final BinaryDecoder decoder = new BinaryDecoder(this);
+    private boolean accepted;
+
+    BinaryProtocol(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void decode(ByteBuffer input) throws IOException {
+        decoder.decode(input);
+    }
+
+    @Override
+    public boolean encode(Object message, ByteBuffer output) {
+        if (message instanceof GameEvent) {
+            GameEvent event = (GameEvent) message;
+            if (output.remaining() < BinaryCodec.getEventSize(event)) return false;
+            BinaryCodec.putEvent(output, event);
+            return true;
+        }
+        if (message instanceof ErrorCode) {
+            if (output.remaining() < BinaryCodec.getMessageSize(BinaryCodec.ERROR)) return false;
+            BinaryCodec.putError(output, (ErrorCode) message);
+            return true;
+        }
+        Reply reply = (Reply) message;
+        switch (reply.getType()) {
+            case HELLO:
+                if (output.remaining() < BinaryCodec.getMessageSize(BinaryCodec.HELLO)) return false;
+                BinaryCodec.putHello(output);
+                return true;
+            case WAIT:
+                if (output.remaining() < BinaryCodec.getMessageSize(BinaryCodec.WAIT)) return false;
+                BinaryCodec.putWait(output);
+                return true;
+            case GAME:
+                if (output.remaining() < BinaryCodec.getMessageSize(BinaryCodec.GAME)) return false;
+                BinaryCodec.putGame(output, reply.getGameId(), reply.getPlayerId(), reply.getRules());
+                return true;
+            default:
+                if (output.remaining() < BinaryCodec.LAYOUT_SIZE) return false;
+                BinaryCodec.putLayout(output, reply.getPlayerId(), reply.getLayout());
+                return true;
+        }
+    }
+
+    @Override
+    public void onHello(int version) {
+        accepted = version == BinaryCodec.VERSION;
+        connection.send(accepted ? Reply.HELLO : ErrorCode.UNSUPPORTED_VERSION);
+    }
+
+    @Override
+    public void onNewGame(boolean human) {
+        if (isAccepted()) connection.newGame(human, Connection.DEFAULT_NAME);
+    }
+
+    @Override
+    public void onStrike(int cellIndex) {
+        if (isAccepted()) connection.strike(cellIndex);
+    }
+
+    @Override
+    public void onSurrender() {
+        if (isAccepted()) connection.surrender();
+    }
+
+    private boolean isAccepted() {
+        if (!accepted) connection.send(ErrorCode.UNSUPPORTED_VERSION);
+        return accepted;
+    }
+}
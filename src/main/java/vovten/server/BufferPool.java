@@ -0,0 +1,57 @@
+package vovten.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of the direct buffers of a selector loop.
+ * The buffers are taken by the connections only while they have unread input or unwritten output,
+ * so an idle connection holds no buffer. The pool is not thread safe, it is used by its loop only.
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final int maxPooledNumber;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private int allocatedNumber;
+
+    /**
+     * @param bufferSize capacity of the buffers
+     * @param maxPooledNumber maximum number of the free buffers kept by the pool
+     */
+    BufferPool(int bufferSize, int maxPooledNumber) {
+        this.bufferSize = bufferSize;
+        this.maxPooledNumber = maxPooledNumber;
+    }
+
+    /**
+     * @return a cleared buffer
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+            allocatedNumber++;
+        }
+        return buffer;
+    }
+
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (free.size() < maxPooledNumber) free.offerFirst(buffer);
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return number of the buffers allocated by the pool since its creation
+     */
+    int getAllocatedNumber() {
+        return allocatedNumber;
+    }
+
+    int getFreeNumber() {
+        return free.size();
+    }
+}
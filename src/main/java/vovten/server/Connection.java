@@ -0,0 +1,222 @@
+package vovten.server;
+
+import vovten.game.Player;
+import vovten.game.field.Cell;
+import vovten.game.field.Layout;
+import vovten.protocol.BinaryCodec;
+import vovten.protocol.ErrorCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client connection of the server.
+ * The input and the output are handled by the selector loop of the connection. The messages are sent from any thread:
+ * they are queued and the loop encodes them when the channel is ready, so a slow client never blocks a game.
+ * The buffers are taken from the pool of the loop only while there is a partial command or unwritten output.
+ * The protocol is {@link BinaryProtocol} if the first byte of the client is HELLO, otherwise {@link TextProtocol}.
+ */
+final class Connection {
+    static final String DEFAULT_NAME = "Player";
+    private final GameServer server;
+    private final SelectorLoop loop;
+    private final SocketChannel channel;
+    private final Queue<Object> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Runnable flush = this::flush;
+    private SelectionKey key;
+    private Protocol protocol;
+    private ByteBuffer input;
+    private ByteBuffer output;
+    private String name;
+    private volatile boolean closed;
+    private volatile SessionManager.Session session;
+    private volatile Player.ID playerId;
+
+    Connection(GameServer server, SelectorLoop loop, SocketChannel channel) {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    SessionManager.Session getSession() {
+        return session;
+    }
+
+    Player.ID getPlayerId() {
+        return playerId;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Binds the connection to the game before its start
+     * @param layout layout of the own fleet
+     */
+    void join(SessionManager.Session session, Player.ID playerId, Layout layout) {
+        this.playerId = playerId;
+        this.session = session;
+        send(Reply.game(session.getId(), playerId, session.getActor().getGame().getRuleSet()));
+        send(Reply.layout(playerId, layout));
+    }
+
+    /**
+     * Unbinds the connection from the game which is over
+     */
+    void leave(SessionManager.Session session) {
+        if (this.session == session) this.session = null;
+    }
+
+    /**
+     * Queues the message, it may be called from any thread
+     * @param message {@link vovten.game.GameEvent}, {@link ErrorCode} or {@link Reply}
+     */
+    void send(Object message) {
+        if (closed) return;
+        outbound.offer(message);
+        if (flushScheduled.compareAndSet(false, true)) loop.execute(flush);
+    }
+
+    /**
+     * Starts the game of the connection
+     * @param human true to play against the other client, false to play against Terminator
+     * @param name name of the player
+     */
+    void newGame(boolean human, String name) {
+        if (session != null) {
+            send(ErrorCode.GAME_IN_PROGRESS);
+            return;
+        }
+        this.name = name;
+        server.newGame(this, human);
+    }
+
+    /**
+     * @param cellIndex index of the cell of the classic field
+     */
+    void strike(int cellIndex) {
+        SessionManager.Session session = this.session;
+        if (session == null) {
+            send(ErrorCode.NO_GAME);
+            return;
+        }
+        server.getSessionManager().strike(session.getId(), playerId, Cell.of(cellIndex)).whenComplete((result, e) -> {
+            //the game is over and removed from the manager before the connection is unbound
+            if (e != null) send(ErrorCode.NO_GAME);
+            else if (result == null) send(ErrorCode.NOT_YOUR_TURN);
+        });
+    }
+
+    void surrender() {
+        SessionManager.Session session = this.session;
+        if (session == null) {
+            send(ErrorCode.NO_GAME);
+            return;
+        }
+        server.surrender(session, playerId);
+    }
+
+    void onReadable() throws IOException {
+        if (input == null) input = loop.getBuffers().acquire();
+        if (channel.read(input) < 0) {
+            close();
+            return;
+        }
+        input.flip();
+        //the read may return no bytes, the protocol is chosen by the first byte
+        if (protocol == null && input.hasRemaining()) {
+            protocol = input.get(0) == BinaryCodec.HELLO ? new BinaryProtocol(this)
+                    : new TextProtocol(this, loop.getLineBytes());
+        }
+        if (protocol != null) protocol.decode(input);
+        if (closed) return;
+        input.compact();
+        if (input.position() == 0) {
+            loop.getBuffers().release(input);
+            input = null;
+        } else if (!input.hasRemaining()) {
+            send(ErrorCode.MALFORMED_COMMAND);
+            input.clear();
+        }
+    }
+
+    void onWritable() throws IOException {
+        write();
+    }
+
+    /**
+     * Closes the channel and surrenders the game of the connection, it is called by the loop
+     */
+    void close() {
+        if (closed) return;
+        closed = true;
+        if (key != null) key.cancel();
+        SelectorLoop.closeQuietly(channel);
+        if (input != null) loop.getBuffers().release(input);
+        if (output != null) loop.getBuffers().release(output);
+        input = null;
+        output = null;
+        outbound.clear();
+        if (key != null) loop.onClosed(this);
+        server.onClosed(this);
+    }
+
+    private void flush() {
+        if (closed) return;
+        try {
+            write();
+        } catch (IOException e) {
+            close();
+        } catch (RuntimeException e) {
+            //the flush stays scheduled after the failure, so the connection would stall
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the queued messages until the socket buffer is full, then waits for OP_WRITE
+     */
+    private void write() throws IOException {
+        while (true) {
+            if (output == null) output = loop.getBuffers().acquire();
+            Object message;
+            while ((message = outbound.peek()) != null && protocol.encode(message, output)) {
+                outbound.poll();
+            }
+            if (message != null && output.position() == 0) {
+                throw new IOException("Message exceeds the buffer: " + message);
+            }
+            output.flip();
+            channel.write(output);
+            if (output.hasRemaining()) {
+                output.compact();
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            output.clear();
+            if (!outbound.isEmpty()) continue;
+            loop.getBuffers().release(output);
+            output = null;
+            key.interestOps(SelectionKey.OP_READ);
+            flushScheduled.set(false);
+            //a message queued after the check must not be lost
+            if (outbound.isEmpty() || !flushScheduled.compareAndSet(false, true)) return;
+        }
+    }
+}
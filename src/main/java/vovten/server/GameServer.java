@@ -0,0 +1,216 @@
+package vovten.server;
+
+import vovten.game.Game;
+import vovten.game.GameEvent;
+import vovten.game.Player;
+import vovten.game.field.Layout;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TCP server of the games, the clients speak {@link TextProtocol} or {@link BinaryProtocol}.
+ * The connections are served by the selector loops with the non-blocking reads and writes,
+ * the first loop also accepts the connections and spreads them over the loops in turn.
+ * The games are hosted by the {@link SessionManager}, so the selector loops never execute the game logic.
+ */
+public final class GameServer implements AutoCloseable {
+    private static final int BACKLOG = 1024;
+    private static final String TERMINATOR_NAME = "Terminator";
+    private final SessionManager sessionManager;
+    private final SelectorLoop[] loops;
+    private final AtomicReference<Connection> waiting = new AtomicReference<>();
+    private final AtomicLong acceptedNumber = new AtomicLong();
+    private ServerSocketChannel serverChannel;
+    private int nextLoop;
+
+    /**
+     * Creates the server with a selector loop per processor
+     * @param sessionManager host of the games
+     */
+    public GameServer(SessionManager sessionManager) {
+        this(sessionManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param sessionManager host of the games
+     * @param loopsNumber number of the selector threads
+     */
+    public GameServer(SessionManager sessionManager, int loopsNumber) {
+        if (loopsNumber < 1) throw new IllegalArgumentException("Loops number must be positive: " + loopsNumber);
+        this.sessionManager = sessionManager;
+        loops = new SelectorLoop[loopsNumber];
+    }
+
+    /**
+     * Starts the server on the loopback interface
+     * @param port port, 0 for any free port
+     */
+    public void start(int port) throws IOException {
+        start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * @param address local address of the server
+     */
+    public void start(InetSocketAddress address) throws IOException {
+        if (serverChannel != null) throw new IllegalStateException("Server is already started");
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new SelectorLoop(this, i);
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address, BACKLOG);
+        serverChannel.register(loops[0].getSelector(), SelectionKey.OP_ACCEPT);
+        for (SelectorLoop loop : loops) {
+            loop.start();
+        }
+    }
+
+    /**
+     * @return local port of the started server
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public SessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    public int getLoopsNumber() {
+        return loops.length;
+    }
+
+    /**
+     * @return number of the open connections
+     */
+    public int getConnectionsNumber() {
+        int number = 0;
+        for (SelectorLoop loop : loops) {
+            if (loop != null) number += loop.getConnectionsNumber();
+        }
+        return number;
+    }
+
+    /**
+     * @return number of the connections accepted since the start
+     */
+    public long getAcceptedNumber() {
+        return acceptedNumber.get();
+    }
+
+    /**
+     * Closes the connections and stops the loops, the games of the connections are abandoned
+     */
+    @Override
+    public void close() throws IOException {
+        if (serverChannel == null) return;
+        serverChannel.close();
+        for (SelectorLoop loop : loops) {
+            try {
+                loop.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Accepts the pending connections, it is called by the first loop
+     */
+    void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                try {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    SelectorLoop.closeQuietly(channel);
+                    continue;
+                }
+                loops[nextLoop].register(channel);
+                nextLoop = (nextLoop + 1) % loops.length;
+                acceptedNumber.incrementAndGet();
+            }
+        } catch (IOException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    /**
+     * Starts the game of the connection against Terminator or pairs it with the waiting connection
+     * @param connection connection without a game
+     * @param human true to play against the other client
+     */
+    void newGame(Connection connection, boolean human) {
+        if (!human) {
+            waiting.compareAndSet(connection, null);
+            startGame(connection, null);
+            return;
+        }
+        while (true) {
+            Connection other = waiting.get();
+            if (other == connection) return;
+            if (other == null) {
+                if (waiting.compareAndSet(null, connection)) {
+                    connection.send(Reply.WAIT);
+                    return;
+                }
+            } else if (waiting.compareAndSet(other, null)) {
+                startGame(other, connection);
+                return;
+            }
+        }
+    }
+
+    void surrender(SessionManager.Session session, Player.ID playerId) {
+        //the future fails if the game is already over and removed
+        sessionManager.surrender(session.getId(), playerId);
+    }
+
+    void onClosed(Connection connection) {
+        waiting.compareAndSet(connection, null);
+        SessionManager.Session session = connection.getSession();
+        if (session != null) surrender(session, connection.getPlayerId());
+    }
+
+    /**
+     * @param first connection of the first player
+     * @param second connection of the second player, null for Terminator
+     */
+    private void startGame(Connection first, Connection second) {
+        Player firstPlayer = new Player(first.getName(), Player.ID.FIRST, true);
+        Player secondPlayer = second == null ? new Player(TERMINATOR_NAME, Player.ID.SECOND, false)
+                : new Player(second.getName(), Player.ID.SECOND, true);
+        SessionManager.Session session = sessionManager.create(firstPlayer, secondPlayer, s -> {
+            //the game is not started yet, so its fields may be read here
+            Game game = s.getActor().getGame();
+            first.join(s, Player.ID.FIRST, Layout.of(game.getFirstBattleField().getShips()));
+            if (second != null) second.join(s, Player.ID.SECOND, Layout.of(game.getSecondBattleField().getShips()));
+            game.getEvents().subscribe(events -> {
+                for (GameEvent event : events) {
+                    //the session is already removed, so the clients which have seen the end must be unbound
+                    if (SessionManager.isFinal(event)) {
+                        first.leave(s);
+                        if (second != null) second.leave(s);
+                    }
+                    first.send(event);
+                    if (second != null) second.send(event);
+                }
+            }, Runnable::run);
+        });
+        //a connection closed during the start has missed its surrender
+        if (first.isClosed()) surrender(session, Player.ID.FIRST);
+        if (second != null && second.isClosed()) surrender(session, Player.ID.SECOND);
+    }
+}
@@ -0,0 +1,25 @@
+package vovten.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of a connection, it is chosen by the first byte received from the client
+ */
+interface Protocol {
+
+    /**
+     * Decodes the complete commands of the input and passes them to the connection.
+     * The position is moved to the first byte of the incomplete command.
+     * @param input buffer in the read mode
+     * @throws IOException if the input is malformed, the connection is closed
+     */
+    void decode(ByteBuffer input) throws IOException;
+
+    /**
+     * @param message {@link vovten.game.GameEvent}, {@link vovten.protocol.ErrorCode} or {@link Reply}
+     * @param output buffer in the write mode
+     * @return false if the buffer has no room for the message, then nothing is written
+     */
+    boolean encode(Object message, ByteBuffer output);
+}
@@ -0,0 +1,67 @@
+package vovten.server;
+
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.field.Layout;
+
+/**
+ * Message of the server which is not an event of the game
+ */
+final class Reply {
+    static final Reply HELLO = new Reply(Type.HELLO, 0, null, null, null);
+    static final Reply WAIT = new Reply(Type.WAIT, 0, null, null, null);
+    private final Type type;
+    private final long gameId;
+    private final Player.ID playerId;
+    private final RuleSet rules;
+    private final Layout layout;
+
+    private Reply(Type type, long gameId, Player.ID playerId, RuleSet rules, Layout layout) {
+        this.type = type;
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.rules = rules;
+        this.layout = layout;
+    }
+
+    /**
+     * @param gameId id of the started game
+     * @param playerId the player of the receiver
+     * @param rules rules of the game
+     */
+    static Reply game(long gameId, Player.ID playerId, RuleSet rules) {
+        return new Reply(Type.GAME, gameId, playerId, rules, null);
+    }
+
+    /**
+     * @param playerId owner of the fleet
+     * @param layout layout of the fleet
+     */
+    static Reply layout(Player.ID playerId, Layout layout) {
+        return new Reply(Type.LAYOUT, 0, playerId, null, layout);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    long getGameId() {
+        return gameId;
+    }
+
+    Player.ID getPlayerId() {
+        return playerId;
+    }
+
+    RuleSet getRules() {
+        return rules;
+    }
+
+    Layout getLayout() {
+        return layout;
+    }
+
+    enum Type {
+        HELLO, WAIT, GAME, LAYOUT
+    }
+}
@@ -0,0 +1,179 @@
+package vovten.server;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector thread of the server. It owns its connections: their channels, buffers and interest sets
+ * are accessed only by the loop, other threads pass the work to it as tasks.
+ */
+final class SelectorLoop implements Runnable {
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+    private final GameServer server;
+    private final int index;
+    private final Selector selector;
+    private final BufferPool buffers = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final byte[] lineBytes = new byte[BUFFER_SIZE];
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connectionsNumber = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    SelectorLoop(GameServer server, int index) throws IOException {
+        this.server = server;
+        this.index = index;
+        selector = Selector.open();
+        thread = new Thread(this, "selector-" + index);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Queues the task to the loop, it is executed after the current select
+     * @param task task
+     */
+    void execute(Runnable task) {
+        tasks.offer(task);
+        if (Thread.currentThread() != thread) selector.wakeup();
+    }
+
+    /**
+     * Passes the accepted channel to the loop
+     * @param channel non-blocking channel
+     */
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                Connection connection = new Connection(server, this, channel);
+                connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                connectionsNumber.incrementAndGet();
+            } catch (IOException e) {
+                closeQuietly(channel);
+            }
+        });
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    BufferPool getBuffers() {
+        return buffers;
+    }
+
+    /**
+     * @return scratch array of the loop for decoding of the input lines
+     */
+    byte[] getLineBytes() {
+        return lineBytes;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return number of the open connections of the loop
+     */
+    int getConnectionsNumber() {
+        return connectionsNumber.get();
+    }
+
+    boolean isLoopThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    void onClosed(Connection connection) {
+        connectionsNumber.decrementAndGet();
+    }
+
+    /**
+     * Stops the loop and closes its connections
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                //the tasks queued by the loop itself do not wake up the select
+                runTasks();
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                } else {
+                    closeQuietly(key.channel());
+                }
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Handles the ready key, a failure of a connection closes only this connection
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            server.accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) connection.onReadable();
+            if (key.isValid() && key.isWritable()) connection.onWritable();
+        } catch (IOException e) {
+            connection.close();
+        } catch (RuntimeException e) {
+            connection.close();
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package vovten.server;
+
+import vovten.game.Game;
+import vovten.game.GameActor;
+import vovten.game.GameEvent;
+import vovten.game.Pacing;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.SalvoResult;
+import vovten.game.StrikeResult;
+import vovten.game.Terminator;
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+import vovten.game.field.LayoutFieldBuilder;
+import vovten.game.field.LayoutPool;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hosts many independent games in one process.
+ * Every game is assigned to one of the shards by the hash of its id. A shard is an event loop thread
+ * which owns the games of the shard: the commands of the games, their AI players and the timers of the players
+ * are executed on the loop, so the games need no locks and the shards share nothing but the lookup table.
+ * A game is removed from the manager when it is over. A game which publishes no events for the idle timeout
+ * is abandoned, the player who has to strike surrenders it.
+ */
+public final class SessionManager implements AutoCloseable {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    public static final long DEFAULT_IDLE_TIMEOUT = 600_000;
+    private final Shard[] shards;
+    private final Pacing pacing;
+    private final long idleTimeout;
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator = new AtomicLong();
+
+    /**
+     * @param shardsNumber number of the event loop threads
+     */
+    public SessionManager(int shardsNumber) {
+        this(shardsNumber, Pacing.HUMAN_LIKE);
+    }
+
+    /**
+     * @param shardsNumber number of the event loop threads
+     * @param pacing delays before the strikes of the AI players
+     */
+    public SessionManager(int shardsNumber, Pacing pacing) {
+        this(shardsNumber, pacing, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param shardsNumber number of the event loop threads
+     * @param pacing delays before the strikes of the AI players
+     * @param idleTimeout time in milliseconds without events after which a game is surrendered
+     */
+    public SessionManager(int shardsNumber, Pacing pacing, long idleTimeout) {
+        if (shardsNumber < 1) throw new IllegalArgumentException("Shards number must be positive: " + shardsNumber);
+        if (idleTimeout < 1) throw new IllegalArgumentException("Idle timeout must be positive: " + idleTimeout);
+        this.pacing = pacing;
+        this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        shards = new Shard[shardsNumber];
+        for (int i = 0; i < shardsNumber; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    /**
+     * Creates and starts the classic game on the random fields
+     * @see #create(Player, Player, Consumer)
+     */
+    public Session create(Player firstPlayer, Player secondPlayer) {
+        return create(firstPlayer, secondPlayer, (Consumer<Session>) null);
+    }
+
+    /**
+     * Creates and starts the classic game on the layouts of the shared pool,
+     * the players which are not human are played by Terminators
+     * @param firstPlayer first player
+     * @param secondPlayer second player
+     * @param initializer it is called with the session before the game starts, so it may subscribe
+     *                    to all the events of the game
+     * @return the session of the game
+     */
+    public Session create(Player firstPlayer, Player secondPlayer, Consumer<Session> initializer) {
+        LayoutPool pool = LayoutPool.getShared();
+        return start(new Game(new BattleField(new LayoutFieldBuilder(pool.take())),
+                new BattleField(new LayoutFieldBuilder(pool.take())), firstPlayer, secondPlayer), initializer);
+    }
+
+    /**
+     * Creates and starts the game on the random fields
+     * @see #create(Player, Player, RuleSet, Consumer)
+     */
+    public CompletableFuture<Session> create(Player firstPlayer, Player secondPlayer, RuleSet rules) {
+        return create(firstPlayer, secondPlayer, rules, null);
+    }
+
+    /**
+     * Creates and starts the game on the random fields, the players which are not human are played by Terminators.
+     * The classic fields are taken from the shared pool, the other fields are built in the common pool,
+     * so the caller never waits for the placement of a dense fleet.
+     * @param firstPlayer first player
+     * @param secondPlayer second player
+     * @param rules rules of the game
+     * @param initializer it is called with the session before the game starts, so it may subscribe
+     *                    to all the events of the game
+     * @return the session of the game, failed with {@link IllegalStateException} if the fleet is not placed
+     */
+    public CompletableFuture<Session> create(Player firstPlayer, Player secondPlayer, RuleSet rules,
+                                             Consumer<Session> initializer) {
+        if (rules.equals(RuleSet.CLASSIC)) {
+            try {
+                return CompletableFuture.completedFuture(create(firstPlayer, secondPlayer, initializer));
+            } catch (RuntimeException e) {
+                return failed(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> new Game(new BattleField(new AutoFieldBuilder(new Random(), rules)),
+                new BattleField(new AutoFieldBuilder(new Random(), rules)), firstPlayer, secondPlayer))
+                .thenApply(game -> start(game, initializer));
+    }
+
+    /**
+     * @param id id of the game
+     * @return the session of the game or null if there is no such game or it is over
+     */
+    public Session get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @param id id of the game
+     * @param playerId the player who strikes
+     * @param cell position of the strike
+     * @return the result of the strike, null if it is not the turn of the player,
+     *         failed with {@link IllegalArgumentException} if there is no such game
+     */
+    public CompletableFuture<StrikeResult> strike(long id, Player.ID playerId, Cell cell) {
+        Session session = sessions.get(id);
+        if (session == null) return noGame(id);
+        return session.actor.strike(session.getPlayer(playerId), cell);
+    }
+
+    /**
+     * @param id id of the game
+     * @param playerId the player who strikes
+     * @param cells positions of the strikes
+     * @return the result of the strikes, null if it is not the turn of the player,
+     *         failed with {@link IllegalArgumentException} if there is no such game or the cells are invalid
+     */
+    public CompletableFuture<SalvoResult> strikeBatch(long id, Player.ID playerId, List<Cell> cells) {
+        Session session = sessions.get(id);
+        if (session == null) return noGame(id);
+        return session.actor.strikeBatch(session.getPlayer(playerId), cells);
+    }
+
+    /**
+     * @param id id of the game
+     * @param playerId the player who surrenders
+     * @return completed when the game is over, the surrender is ignored if the game is already over,
+     *         failed with {@link IllegalArgumentException} if there is no such game
+     */
+    public CompletableFuture<Void> surrender(long id, Player.ID playerId) {
+        Session session = sessions.get(id);
+        if (session == null) return noGame(id);
+        Player player = session.getPlayer(playerId);
+        return session.actor.call(game -> {
+            if (!game.isGameOver()) game.surrender(player);
+            return null;
+        });
+    }
+
+    /**
+     * @return number of the hosted games which are not over
+     */
+    public int getSessionsNumber() {
+        return sessions.size();
+    }
+
+    public int getShardsNumber() {
+        return shards.length;
+    }
+
+    /**
+     * @param index index of the shard
+     * @return the shard with its load metrics
+     */
+    public Shard getShard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * Stops the event loops, the hosted games are abandoned
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.loop.shutdownNow();
+        }
+        sessions.clear();
+    }
+
+    private int shardOf(long id) {
+        return (int) (((id * GOLDEN_GAMMA) >>> 32) % shards.length);
+    }
+
+    private Session start(Game game, Consumer<Session> initializer) {
+        long id = idGenerator.incrementAndGet();
+        Shard shard = shards[shardOf(id)];
+        Session session = new Session(id, shard, new GameActor(game, shard.loop));
+        game.getEvents().subscribe(events -> {
+            session.lastEventTime = System.nanoTime();
+            for (GameEvent event : events) {
+                if (isFinal(event)) finish(session);
+            }
+        }, Runnable::run);
+        sessions.put(id, session);
+        shard.created.incrementAndGet();
+        shard.active.incrementAndGet();
+        if (initializer != null) {
+            initializer.accept(session);
+        }
+        session.actor.execute(() -> {
+            for (Player player : new Player[]{game.getFirstPlayer(), game.getSecondPlayer()}) {
+                if (!player.isHuman()) {
+                    new Terminator(session.actor, player, new HuntingStrategy(new Random()), shard.loop, pacing);
+                }
+            }
+            game.start();
+            session.expiry = shard.loop.schedule(() -> expire(session), idleTimeout, TimeUnit.NANOSECONDS);
+        });
+        return session;
+    }
+
+    /**
+     * Surrenders the game for the player who has to strike if the game has published no events for the idle timeout,
+     * otherwise checks the game again when the timeout of its last event is over
+     */
+    private void expire(Session session) {
+        session.actor.execute(() -> {
+            Game game = session.actor.getGame();
+            if (game.isGameOver()) return;
+            long left = idleTimeout - (System.nanoTime() - session.lastEventTime);
+            if (left > 0) {
+                session.expiry = session.shard.loop.schedule(() -> expire(session), left, TimeUnit.NANOSECONDS);
+            } else {
+                game.surrender(game.getCurrentPlayer());
+            }
+        });
+    }
+
+    private void finish(Session session) {
+        ScheduledFuture<?> expiry = session.expiry;
+        if (expiry != null) expiry.cancel(false);
+        if (sessions.remove(session.id) != null) {
+            session.shard.active.decrementAndGet();
+            session.shard.finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return true if the game is over after the event
+     */
+    static boolean isFinal(GameEvent event) {
+        if (event instanceof StrikeResult) return ((StrikeResult) event).isGameOver();
+        if (event instanceof SalvoResult) return ((SalvoResult) event).isGameOver();
+        return event == Game.Status.FP_SURRENDERED || event == Game.Status.SP_SURRENDERED;
+    }
+
+    private static <T> CompletableFuture<T> noGame(long id) {
+        return failed(new IllegalArgumentException("No game with id " + id));
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
+    }
+
+    /**
+     * A hosted game
+     */
+    public static final class Session {
+        private final long id;
+        private final Shard shard;
+        private final GameActor actor;
+        //the time of the last event and the expiry check are accessed on the loop of the shard
+        private long lastEventTime = System.nanoTime();
+        private ScheduledFuture<?> expiry;
+
+        private Session(long id, Shard shard, GameActor actor) {
+            this.id = id;
+            this.shard = shard;
+            this.actor = actor;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return index of the shard which owns the game
+         */
+        public int getShardIndex() {
+            return shard.index;
+        }
+
+        /**
+         * @return actor of the game, the game may be accessed only by its commands
+         */
+        public GameActor getActor() {
+            return actor;
+        }
+
+        private Player getPlayer(Player.ID playerId) {
+            Game game = actor.getGame();
+            return playerId == Player.ID.FIRST ? game.getFirstPlayer() : game.getSecondPlayer();
+        }
+    }
+
+    /**
+     * Event loop thread with its games
+     */
+    public static final class Shard {
+        private final int index;
+        private final ScheduledThreadPoolExecutor loop;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong finished = new AtomicLong();
+
+        private Shard(int index) {
+            this.index = index;
+            loop = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "game-loop-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+            loop.setRemoveOnCancelPolicy(true);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return number of the games of the shard which are not over
+         */
+        public int getActiveGamesNumber() {
+            return active.get();
+        }
+
+        public long getCreatedGamesNumber() {
+            return created.get();
+        }
+
+        public long getFinishedGamesNumber() {
+            return finished.get();
+        }
+
+        /**
+         * @return number of the tasks waiting in the loop, including the timers of the AI players
+         */
+        public int getPendingTasksNumber() {
+            return loop.getQueue().size();
+        }
+
+        /**
+         * @return approximate number of the tasks executed by the loop
+         */
+        public long getCompletedTasksNumber() {
+            return loop.getCompletedTaskCount();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package vovten.server;
+
+import vovten.game.Game;
+import vovten.game.GameEvent;
+import vovten.game.RuleSet;
+import vovten.game.SalvoResult;
+import vovten.game.StrikeResult;
+import vovten.game.field.Cell;
+import vovten.game.field.Layout;
+import vovten.protocol.BinaryCodec;
+import vovten.protocol.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Line protocol of the server for the people and the scripts, a line is terminated by '\n'.
+ * <pre>
+ * Commands of the client:
+ *   NEW AI [name]       play against Terminator
+ *   NEW HUMAN [name]    play against the next client who sends the same command
+ *   STRIKE x y          strike the adversary field, 0 &lt;= x, y &lt; 10
+ *   SURRENDER
+ *   QUIT
+ * Messages of the server:
+ *   WAIT                waiting for the adversary
+ *   GAME id FIRST|SECOND
+ *   LAYOUT FIRST|SECOND placement ids of the own fleet
+ *   TURN FIRST|SECOND   the game is started, the player strikes first
+ *   STRIKE FIRST|SECOND x y MISS|HIT|SUNK [OVER]
+ *   SURRENDERED FIRST|SECOND
+ *   ERROR message
+ * </pre>
+ * The player keeps the turn after a hit and passes it after a miss.
+ */
+final class TextProtocol implements Protocol {
+    private final Connection connection;
+    private final byte[] lineBytes;
+
+    /**
+     * @param connection receiver of the commands
+     * @param lineBytes scratch array of the loop for the decoding of the lines
+     */
+    TextProtocol(Connection connection, byte[] lineBytes) {
+        this.connection = connection;
+        this.lineBytes = lineBytes;
+    }
+
+    @Override
+    public void decode(ByteBuffer input) {
+        int start = input.position();
+        for (int i = start; i < input.limit() && !connection.isClosed(); i++) {
+            if (input.get(i) != '\n') continue;
+            handleLine(toString(input, start, i));
+            start = i + 1;
+        }
+        if (!connection.isClosed()) input.position(start);
+    }
+
+    @Override
+    public boolean encode(Object message, ByteBuffer output) {
+        String text = toText(message);
+        if (text.length() + 1 > output.remaining()) return false;
+        for (int i = 0; i < text.length(); i++) {
+            output.put((byte) text.charAt(i));
+        }
+        output.put((byte) '\n');
+        return true;
+    }
+
+    /**
+     * @param message message of the server
+     * @return the lines of the message without the final line terminator
+     */
+    static String toText(Object message) {
+        if (message instanceof GameEvent) return toText((GameEvent) message);
+        if (message instanceof ErrorCode) return "ERROR " + ((ErrorCode) message).getMessage();
+        Reply reply = (Reply) message;
+        switch (reply.getType()) {
+            case HELLO:
+                return "HELLO " + BinaryCodec.VERSION;
+            case WAIT:
+                return "WAIT";
+            case GAME:
+                return "GAME " + reply.getGameId() + ' ' + reply.getPlayerId();
+            default:
+                StringBuilder builder = new StringBuilder("LAYOUT ").append(reply.getPlayerId());
+                Layout layout = reply.getLayout();
+                for (int i = 0; i < layout.getShipsNumber(); i++) {
+                    builder.append(' ').append(layout.getPlacementId(i));
+                }
+                return builder.toString();
+        }
+    }
+
+    private static String toText(GameEvent event) {
+        if (event instanceof StrikeResult) return toText((StrikeResult) event);
+        if (event instanceof SalvoResult) {
+            SalvoResult salvo = (SalvoResult) event;
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < salvo.size(); i++) {
+                if (i > 0) builder.append('\n');
+                builder.append(toText(salvo.getStrike(i)));
+            }
+            return builder.toString();
+        }
+        Game.Status status = (Game.Status) event;
+        switch (status) {
+            case FP_STRIKE:
+            case SP_STRIKE:
+                return "TURN " + status.getPlayerId();
+            default:
+                return "SURRENDERED " + status.getPlayerId();
+        }
+    }
+
+    private static String toText(StrikeResult result) {
+        String line = "STRIKE " + result.getPlayerId() + ' ' + result.getCell().getX() + ' '
+                + result.getCell().getY() + ' ' + result.getOutcome();
+        return result.isGameOver() ? line + " OVER" : line;
+    }
+
+    private String toString(ByteBuffer input, int start, int end) {
+        if (end > start && input.get(end - 1) == '\r') end--;
+        int length = Math.min(end - start, lineBytes.length);
+        for (int i = 0; i < length; i++) {
+            lineBytes[i] = input.get(start + i);
+        }
+        return new String(lineBytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private void handleLine(String line) {
+        String[] words = line.trim().split("\\s+");
+        switch (words[0].toUpperCase()) {
+            case "":
+                break;
+            case "NEW":
+                newGame(words);
+                break;
+            case "STRIKE":
+                strike(words);
+                break;
+            case "SURRENDER":
+                connection.surrender();
+                break;
+            case "QUIT":
+                connection.close();
+                break;
+            default:
+                connection.send(ErrorCode.UNKNOWN_COMMAND);
+        }
+    }
+
+    private void newGame(String[] words) {
+        String mode = words.length > 1 ? words[1].toUpperCase() : "AI";
+        if (!mode.equals("AI") && !mode.equals("HUMAN")) {
+            connection.send(ErrorCode.MALFORMED_COMMAND);
+            return;
+        }
+        connection.newGame(mode.equals("HUMAN"), words.length > 2 ? words[2] : Connection.DEFAULT_NAME);
+    }
+
+    private void strike(String[] words) {
+        int x;
+        int y;
+        try {
+            if (words.length != 3) throw new NumberFormatException();
+            x = Integer.parseInt(words[1]);
+            y = Integer.parseInt(words[2]);
+        } catch (NumberFormatException e) {
+            connection.send(ErrorCode.MALFORMED_COMMAND);
+            return;
+        }
+        if (!RuleSet.CLASSIC.isInField(x, y)) {
+            connection.send(ErrorCode.OUT_OF_FIELD);
+            return;
+        }
+        connection.strike(Cell.index(x, y));
+    }
+}
@@ -0,0 +1,269 @@
+package vovten.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Typed bus of events with a delivery queue per subscriber.
+ * The publisher only appends the event to the queues, the events are delivered to every subscriber
+ * in the order of publishing, in batches, on the executor chosen by the subscriber.
+ * At most one batch of a subscriber is delivered at a time, so a subscriber needs no synchronization
+ * and a slow subscriber delays neither the publisher nor the other subscribers.
+ * The subscriptions are copied on write, so they may be added and cancelled from any thread.
+ * @param <E> type of the events
+ */
+public final class EventBus<E> {
+    /**
+     * Maximal number of the events delivered to a subscriber at once by default
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    private volatile Subscription<E>[] subscriptions = newArray(0);
+
+    /**
+     * @return the executor of the subscribers which have not chosen one,
+     * its daemon threads number equals the number of the processors
+     */
+    public static Executor getDefaultExecutor() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Subscribes to the events delivered on the default executor
+     * @param subscriber subscriber
+     * @return the subscription
+     */
+    public Subscription<E> subscribe(Subscriber<? super E> subscriber) {
+        return subscribe(subscriber, getDefaultExecutor());
+    }
+
+    /**
+     * @param subscriber subscriber
+     * @param executor executor of the delivery, {@code Runnable::run} delivers on the thread of the publisher
+     * @return the subscription
+     */
+    public Subscription<E> subscribe(Subscriber<? super E> subscriber, Executor executor) {
+        return subscribe(subscriber, executor, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param subscriber subscriber
+     * @param executor executor of the delivery, {@code Runnable::run} delivers on the thread of the publisher
+     * @param batchSize maximal number of the events delivered at once
+     * @return the subscription
+     */
+    public synchronized Subscription<E> subscribe(Subscriber<? super E> subscriber, Executor executor, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        Subscription<E> subscription = new Subscription<>(this, subscriber, executor, batchSize);
+        Subscription<E>[] result = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        result[subscriptions.length] = subscription;
+        subscriptions = result;
+        return subscription;
+    }
+
+    /**
+     * Appends the event to the queues of the subscribers
+     * @param event event
+     */
+    public void publish(E event) {
+        if (event == null) throw new IllegalArgumentException("Event must not be null");
+        Subscription<E>[] snapshot = subscriptions;
+        for (Subscription<E> subscription : snapshot) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * @return number of the active subscriptions
+     */
+    public int getSubscribersNumber() {
+        return subscriptions.length;
+    }
+
+    private synchronized void remove(Subscription<E> subscription) {
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i] == subscription) {
+                Subscription<E>[] result = newArray(subscriptions.length - 1);
+                System.arraycopy(subscriptions, 0, result, 0, i);
+                System.arraycopy(subscriptions, i + 1, result, i, result.length - i);
+                subscriptions = result;
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Subscription<E>[] newArray(int length) {
+        return (Subscription<E>[]) new Subscription<?>[length];
+    }
+
+    /**
+     * Receiver of the events
+     * @param <E> type of the events
+     */
+    public interface Subscriber<E> {
+        /**
+         * @param events the events in the order of publishing, the list is not modifiable
+         */
+        void onEvents(List<? extends E> events);
+    }
+
+    /**
+     * Subscription to the events with its own queue
+     * @param <E> type of the events
+     */
+    public static final class Subscription<E> implements Runnable {
+        private static final ThreadLocal<Delivery> DELIVERING = ThreadLocal.withInitial(Delivery::new);
+        private final EventBus<E> bus;
+        private final Subscriber<? super E> subscriber;
+        private final Executor executor;
+        private final int batchSize;
+        private final Queue<E> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private volatile boolean cancelled;
+
+        private Subscription(EventBus<E> bus, Subscriber<? super E> subscriber, Executor executor, int batchSize) {
+            this.bus = bus;
+            this.subscriber = subscriber;
+            this.executor = executor;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Stops the delivery, the queued events are dropped
+         */
+        public void cancel() {
+            cancelled = true;
+            bus.remove(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return number of the queued events
+         */
+        public int getPendingNumber() {
+            return pending.get();
+        }
+
+        /**
+         * @return number of the delivered events
+         */
+        public long getDeliveredNumber() {
+            return delivered.get();
+        }
+
+        /**
+         * @return number of the delivered batches
+         */
+        public long getBatchesNumber() {
+            return batches.get();
+        }
+
+        /**
+         * Delivers a batch of the queued events, the rest is delivered by the next task of the executor.
+         * If the executor runs the next task on this thread, the batches are delivered in a loop,
+         * so the stack does not grow with the number of the batches.
+         */
+        @Override
+        public void run() {
+            Delivery delivery = DELIVERING.get();
+            if (delivery.subscription == this) {
+                //the executor runs the task inline, the loop of the caller delivers the rest
+                delivery.redelivery = true;
+                return;
+            }
+            Subscription<?> outer = delivery.subscription;
+            boolean outerRedelivery = delivery.redelivery;
+            delivery.subscription = this;
+            try {
+                do {
+                    deliverBatch();
+                    scheduled.set(false);
+                    if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) return;
+                    delivery.redelivery = false;
+                    try {
+                        executor.execute(this);
+                    } catch (RejectedExecutionException e) {
+                        //the executor is shut down, the rest is delivered on this thread
+                        delivery.redelivery = true;
+                    }
+                } while (delivery.redelivery);
+            } finally {
+                delivery.subscription = outer;
+                delivery.redelivery = outerRedelivery;
+            }
+        }
+
+        private void offer(E event) {
+            if (cancelled) return;
+            queue.offer(event);
+            pending.incrementAndGet();
+            if (!scheduled.compareAndSet(false, true)) return;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                //the executor is shut down, the events are delivered on the thread of the publisher
+                run();
+            }
+        }
+
+        private void deliverBatch() {
+            List<E> batch = new ArrayList<>(Math.min(batchSize, pending.get()));
+            E event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            pending.addAndGet(-batch.size());
+            if (batch.isEmpty() || cancelled) return;
+            try {
+                subscriber.onEvents(Collections.unmodifiableList(batch));
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+            delivered.addAndGet(batch.size());
+            batches.incrementAndGet();
+        }
+
+        /**
+         * Delivery state of a thread: the subscription delivered by the thread and the request to deliver
+         * its rest on the same thread. The state is confined to the thread, so a delivery started on another thread
+         * never affects the loop of this one.
+         */
+        private static final class Delivery {
+            Subscription<?> subscription;
+            boolean redelivery;
+        }
+    }
+
+    private static class Holder {
+        static final ExecutorService DEFAULT = createDefaultExecutor();
+
+        private static ExecutorService createDefaultExecutor() {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "event-bus-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), factory);
+        }
+    }
+}
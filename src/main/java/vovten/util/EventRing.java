@@ -0,0 +1,319 @@
+package vovten.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of events with a single writer and any number of readers.
+ * Every reader reads the events at its own cursor in the order of publishing, publishing allocates nothing.
+ * A {@link Policy#BLOCK} reader never misses an event: the writer waits while the slot it is going to reuse
+ * is not read, so such a reader lags at most the capacity of the ring behind the writer.
+ * If the writer waits for a reader longer than the block timeout, the reader is taken for abandoned
+ * and downgraded to {@link Policy#DROP}, so a reader which is never polled cannot stall the writer forever.
+ * A {@link Policy#DROP} reader never delays the writer: when the writer laps it, the reader skips
+ * to the oldest event kept in the ring and counts the skipped events as dropped.
+ * The events have to be published by one thread at a time.
+ * @param <E> type of the events
+ */
+public final class EventRing<E> {
+    private static final int SPINS = 100;
+    private static final long PARK_NANOS = 1000;
+    /**
+     * Time in milliseconds the writer waits for a {@link Policy#BLOCK} reader by default
+     */
+    public static final long DEFAULT_BLOCK_TIMEOUT = 10_000;
+    private final AtomicReferenceArray<E> entries;
+    private final int capacity;
+    private final int mask;
+    private final long blockTimeout;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile Reader<E>[] gatingReaders = newArray(0);
+    private long cachedGating;
+    private volatile long stallsNumber;
+    private volatile long downgradesNumber;
+
+    /**
+     * @param capacity minimal number of the events kept in the ring, it is rounded up to a power of two
+     */
+    public EventRing(int capacity) {
+        this(capacity, DEFAULT_BLOCK_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param capacity minimal number of the events kept in the ring, it is rounded up to a power of two
+     * @param blockTimeout time the writer waits for a {@link Policy#BLOCK} reader before its downgrade
+     * @param unit unit of the timeout
+     */
+    public EventRing(int capacity, long blockTimeout, TimeUnit unit) {
+        if (capacity < 2 || capacity > 1 << 30) throw new IllegalArgumentException("Unsupported capacity: " + capacity);
+        if (blockTimeout < 0) throw new IllegalArgumentException("Block timeout must not be negative: " + blockTimeout);
+        this.blockTimeout = unit.toNanos(blockTimeout);
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        mask = this.capacity - 1;
+        entries = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Adds the reader which reads the events published after this call
+     * @param policy what the writer does when the reader is too slow
+     * @return the reader
+     */
+    public synchronized Reader<E> newReader(Policy policy) {
+        Reader<E> reader = new Reader<>(this, policy, cursor.get() + 1);
+        if (policy == Policy.BLOCK) {
+            Reader<E>[] result = Arrays.copyOf(gatingReaders, gatingReaders.length + 1);
+            result[gatingReaders.length] = reader;
+            gatingReaders = result;
+        }
+        return reader;
+    }
+
+    /**
+     * Publishes the event, waits while a {@link Policy#BLOCK} reader has not read the slot of the event,
+     * but not longer than the block timeout
+     * @param event event
+     */
+    public void publish(E event) {
+        if (event == null) throw new IllegalArgumentException("Event must not be null");
+        long next = cursor.get() + 1;
+        long wrapPoint = next - capacity;
+        if (wrapPoint >= cachedGating) {
+            awaitReaders(wrapPoint);
+        }
+        entries.lazySet((int) next & mask, event);
+        cursor.lazySet(next);
+    }
+
+    /**
+     * @return sequence number of the last published event, -1 if no event is published
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of the times the writer has waited for a {@link Policy#BLOCK} reader
+     */
+    public long getStallsNumber() {
+        return stallsNumber;
+    }
+
+    /**
+     * @return number of the {@link Policy#BLOCK} readers downgraded after the block timeout
+     */
+    public long getDowngradesNumber() {
+        return downgradesNumber;
+    }
+
+    private void awaitReaders(long wrapPoint) {
+        long gating = getMinimalSequence(wrapPoint + 1);
+        if (gating <= wrapPoint) {
+            stallsNumber++;
+            long start = System.nanoTime();
+            for (int spins = 0; (gating = getMinimalSequence(wrapPoint + 1)) <= wrapPoint; spins++) {
+                if (System.nanoTime() - start >= blockTimeout) {
+                    downgrade(wrapPoint);
+                } else if (spins < SPINS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        }
+        cachedGating = gating;
+    }
+
+    private long getMinimalSequence(long initial) {
+        long result = Long.MAX_VALUE;
+        for (Reader<E> reader : gatingReaders) {
+            result = Math.min(result, reader.sequence.get());
+        }
+        return result == Long.MAX_VALUE ? initial : result;
+    }
+
+    /**
+     * Downgrades the readers which have not read the slot of the next event
+     */
+    private synchronized void downgrade(long wrapPoint) {
+        for (Reader<E> reader : gatingReaders) {
+            if (reader.sequence.get() <= wrapPoint) {
+                reader.policy = Policy.DROP;
+                remove(reader);
+                downgradesNumber++;
+            }
+        }
+    }
+
+    private synchronized void remove(Reader<E> reader) {
+        for (int i = 0; i < gatingReaders.length; i++) {
+            if (gatingReaders[i] == reader) {
+                Reader<E>[] result = newArray(gatingReaders.length - 1);
+                System.arraycopy(gatingReaders, 0, result, 0, i);
+                System.arraycopy(gatingReaders, i + 1, result, i, result.length - i);
+                gatingReaders = result;
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Reader<E>[] newArray(int length) {
+        return (Reader<E>[]) new Reader<?>[length];
+    }
+
+    /**
+     * What happens when a reader is too slow
+     */
+    public enum Policy {
+        /**
+         * The writer waits for the reader, but not longer than the block timeout of the ring
+         */
+        BLOCK,
+        /**
+         * The reader skips the overwritten events
+         */
+        DROP
+    }
+
+    /**
+     * Handler of the events read from the ring
+     * @param <E> type of the events
+     */
+    public interface Handler<E> {
+        /**
+         * @param event event
+         * @param sequence sequence number of the event
+         * @param endOfBatch true if the event is the last one of the events read at once
+         */
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Cursor of a reader of the ring. A reader is used by one thread at a time.
+     * @param <E> type of the events
+     */
+    public static final class Reader<E> {
+        private final EventRing<E> ring;
+        private final AtomicLong sequence;
+        private volatile Policy policy;
+        private volatile long droppedNumber;
+
+        private Reader(EventRing<E> ring, Policy policy, long sequence) {
+            this.ring = ring;
+            this.policy = policy;
+            this.sequence = new AtomicLong(sequence);
+        }
+
+        /**
+         * Reads all the published events which are not read yet
+         * @param handler handler of the events
+         * @return number of the handled events
+         */
+        public int poll(Handler<? super E> handler) {
+            return poll(handler, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Reads the published events which are not read yet
+         * @param handler handler of the events
+         * @param limit maximal number of the events
+         * @return number of the handled events
+         */
+        public int poll(Handler<? super E> handler, int limit) {
+            long next = sequence.get();
+            long available = ring.cursor.get();
+            if (next > available || limit < 1) return 0;
+            if (policy == Policy.DROP && isOverwritten(next, available)) {
+                next = skip(next, available);
+            }
+            long end = Math.min(available, next + limit - 1);
+            int result = 0;
+            for (long current = next; current <= end; current++) {
+                E event = ring.entries.get((int) current & ring.mask);
+                //the policy is read after every event, the writer may downgrade the reader meanwhile
+                if (policy == Policy.DROP) {
+                    long cursor = ring.cursor.get();
+                    if (isOverwritten(current, cursor)) {
+                        sequence.lazySet(skip(current, cursor));
+                        return result;
+                    }
+                }
+                handler.onEvent(event, current, current == end);
+                result++;
+            }
+            sequence.lazySet(end + 1);
+            return result;
+        }
+
+        /**
+         * Reads the published events waiting for at least one of them
+         * @param handler handler of the events
+         * @param timeout maximal time of the waiting
+         * @param unit unit of the timeout
+         * @return number of the handled events, 0 if the time is out
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        public int take(Handler<? super E> handler, long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            for (int spins = 0; ; spins++) {
+                int result = poll(handler);
+                if (result > 0 || System.nanoTime() - deadline >= 0) return result;
+                if (Thread.interrupted()) throw new InterruptedException();
+                if (spins < SPINS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+        }
+
+        /**
+         * Stops the reading, the writer does not wait for the reader any more
+         */
+        public void close() {
+            ring.remove(this);
+        }
+
+        /**
+         * @return number of the published events which are not read yet
+         */
+        public long getLag() {
+            return Math.max(0, ring.cursor.get() + 1 - sequence.get());
+        }
+
+        /**
+         * @return number of the events skipped by the {@link Policy#DROP} reader
+         */
+        public long getDroppedNumber() {
+            return droppedNumber;
+        }
+
+        /**
+         * @return the policy of the reader, {@link Policy#DROP} after the downgrade
+         */
+        public Policy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * The writer may be storing the event of sequence + capacity as soon as
+         * the event of sequence + capacity - 1 is published
+         */
+        private boolean isOverwritten(long current, long cursor) {
+            return cursor - current >= ring.capacity - 1;
+        }
+
+        private long skip(long current, long cursor) {
+            long oldest = cursor - ring.capacity + 2;
+            droppedNumber += oldest - current;
+            return oldest;
+        }
+    }
+}
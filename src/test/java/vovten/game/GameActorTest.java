@@ -0,0 +1,213 @@
+package vovten.game;
+
+import org.junit.Test;
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.ai.Outcome;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GameActorTest {
+
+    @Test
+    public void testCommandsAreConfined() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            GameActor actor = new GameActor(createGame(new Random(1)), executor);
+            int threadsNumber = 8;
+            int commandsNumber = 10_000;
+            int[] counter = new int[1];
+            AtomicInteger inside = new AtomicInteger();
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            ExecutorService callers = Executors.newFixedThreadPool(threadsNumber);
+            List<Future<List<CompletableFuture<Integer>>>> futures = new ArrayList<>();
+            for (int i = 0; i < threadsNumber; i++) {
+                futures.add(callers.submit(() -> {
+                    List<CompletableFuture<Integer>> own = new ArrayList<>();
+                    for (int j = 0; j < commandsNumber; j++) {
+                        own.add(actor.call(game -> {
+                            assertTrue(actor.isOwnerThread());
+                            assertEquals(1, inside.incrementAndGet());
+                            int result = ++counter[0];
+                            inside.decrementAndGet();
+                            return result;
+                        }));
+                    }
+                    return own;
+                }));
+            }
+            for (Future<List<CompletableFuture<Integer>>> future : futures) {
+                results.addAll(future.get());
+            }
+            callers.shutdown();
+            boolean[] seen = new boolean[threadsNumber * commandsNumber + 1];
+            for (CompletableFuture<Integer> result : results) {
+                int value = result.get(10, TimeUnit.SECONDS);
+                assertFalse(seen[value]);
+                seen[value] = true;
+            }
+            assertEquals(threadsNumber * commandsNumber, counter[0]);
+            assertFalse(actor.isOwnerThread());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentRandomStrikes() throws Exception {
+        int gamesNumber = 200;
+        int threadsNumber = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ExecutorService strikers = Executors.newFixedThreadPool(threadsNumber);
+        try {
+            Random random = new Random(2);
+            GameActor[] actors = new GameActor[gamesNumber];
+            List<List<StrikeResult>> logs = new ArrayList<>();
+            AtomicInteger[] accepted = new AtomicInteger[gamesNumber];
+            for (int i = 0; i < gamesNumber; i++) {
+                actors[i] = new GameActor(createGame(random), executor);
+                List<StrikeResult> log = new ArrayList<>();
+                logs.add(log);
+                accepted[i] = new AtomicInteger();
+                actors[i].getGame().getEvents().subscribe(events -> {
+                    for (GameEvent event : events) {
+                        if (event instanceof StrikeResult) log.add((StrikeResult) event);
+                    }
+                }, Runnable::run);
+                actors[i].start(Player.ID.FIRST);
+            }
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadsNumber; t++) {
+                futures.add(strikers.submit(() -> {
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int j = 0; j < 50_000; j++) {
+                        int i = r.nextInt(gamesNumber);
+                        Game game = actors[i].getGame();
+                        Player player = r.nextBoolean() ? game.getFirstPlayer() : game.getSecondPlayer();
+                        Cell cell = Cell.of(r.nextInt(Game.FIELD_SIZE), r.nextInt(Game.FIELD_SIZE));
+                        AtomicInteger counter = accepted[i];
+                        actors[i].strike(player, cell).thenAccept(result -> {
+                            if (result != null) counter.incrementAndGet();
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            for (int i = 0; i < gamesNumber; i++) {
+                //the command is executed after all the strikes of the game
+                actors[i].call(game -> null).get(10, TimeUnit.SECONDS);
+                assertEquals(accepted[i].get(), logs.get(i).size());
+                assertTurnsAlternate(logs.get(i), Player.ID.FIRST);
+            }
+        } finally {
+            strikers.shutdown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedCommandIsDropped() throws Exception {
+        boolean[] rejecting = {true};
+        GameActor actor = new GameActor(createGame(new Random(4)), command -> {
+            if (rejecting[0]) throw new RejectedExecutionException("Shut down");
+            command.run();
+        });
+        AtomicInteger executed = new AtomicInteger();
+        CompletableFuture<Integer> rejected = actor.call(game -> executed.incrementAndGet());
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            actor.execute(executed::incrementAndGet);
+            fail("The rejection must be reported");
+        } catch (RejectedExecutionException expected) {
+        }
+
+        rejecting[0] = false;
+        assertEquals(1, (int) actor.call(game -> executed.incrementAndGet()).get(5, TimeUnit.SECONDS));
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    public void testTerminators() throws InterruptedException {
+        int gamesNumber = 500;
+        ScheduledExecutorService scheduler = AiScheduler.newScheduler(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch finished = new CountDownLatch(gamesNumber);
+        Random random = new Random(3);
+        List<List<StrikeResult>> logs = new ArrayList<>();
+        GameActor[] actors = new GameActor[gamesNumber];
+        for (int i = 0; i < gamesNumber; i++) {
+            GameActor actor = new GameActor(createGame(random), executor);
+            Game game = actor.getGame();
+            new Terminator(actor, game.getFirstPlayer(), new HuntingStrategy(new Random(i)), scheduler, Pacing.NONE);
+            new Terminator(actor, game.getSecondPlayer(), new HuntingStrategy(new Random(-i)), scheduler,
+                    Pacing.NONE);
+            List<StrikeResult> log = new ArrayList<>();
+            logs.add(log);
+            game.getEvents().subscribe(events -> {
+                for (GameEvent event : events) {
+                    if (!(event instanceof StrikeResult)) continue;
+                    StrikeResult result = (StrikeResult) event;
+                    log.add(result);
+                    if (result.isGameOver()) finished.countDown();
+                }
+            }, Runnable::run);
+            actors[i] = actor;
+        }
+        for (GameActor actor : actors) {
+            actor.start(Player.ID.FIRST);
+        }
+        assertTrue(finished.await(60, TimeUnit.SECONDS));
+        for (int i = 0; i < gamesNumber; i++) {
+            List<StrikeResult> log = logs.get(i);
+            assertTurnsAlternate(log, Player.ID.FIRST);
+            Player.ID winner = actors[i].getGame().getWinner().getID();
+            int hits = 0;
+            for (StrikeResult result : log) {
+                if (result.getPlayerId() == winner && result.getOutcome() != Outcome.MISS) hits++;
+            }
+            assertEquals(RuleSet.CLASSIC.getDecksNumber(), hits);
+        }
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    /**
+     * Checks that the player keeps the turn after a hit and passes it after a miss
+     */
+    private static void assertTurnsAlternate(List<StrikeResult> log, Player.ID beginPlayer) {
+        Player.ID current = beginPlayer;
+        for (int i = 0; i < log.size(); i++) {
+            StrikeResult result = log.get(i);
+            assertEquals("Strike " + i + " out of turn", current, result.getPlayerId());
+            if (result.isGameOver()) {
+                assertEquals(log.size() - 1, i);
+            } else if (result.isTurnPassed()) {
+                current = current == Player.ID.FIRST ? Player.ID.SECOND : Player.ID.FIRST;
+            }
+        }
+    }
+
+    private static Game createGame(Random random) {
+        return new Game(new BattleField(new AutoFieldBuilder(random)), new BattleField(new AutoFieldBuilder(random)),
+                new Player("first", Player.ID.FIRST, false), new Player("second", Player.ID.SECOND, false));
+    }
+}
@@ -0,0 +1,30 @@
+package vovten.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GameRunnerTest {
+
+    @Test
+    public void testPlay() {
+        GameRunner runner = new GameRunner(new Random(42));
+        for (int i = 0; i < 1000; i++) {
+            GameResult result = runner.play();
+            assertNotNull(result.getWinner());
+            assertTrue(result.getWinnerShots() >= 20);
+            assertTrue(result.getWinnerShots() <= Game.FIELD_SIZE * Game.FIELD_SIZE);
+        }
+    }
+
+    @Test
+    public void testPlayIsReproducible() {
+        for (int i = 0; i < 10; i++) {
+            GameResult first = new GameRunner(new Random(i)).play();
+            GameResult second = new GameRunner(new Random(i)).play();
+            assertEquals(first.toString(), second.toString());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package vovten.game;
+
+import org.junit.Test;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RuleSetTest {
+
+    @Test
+    public void testClassic() {
+        RuleSet rules = RuleSet.CLASSIC;
+        assertTrue(rules.isClassic());
+        assertEquals(Game.FIELD_SIZE, rules.getFieldSize());
+        assertEquals(Game.GENERAL_SHIPS_NUMBER, rules.getShipsNumber());
+        assertEquals(20, rules.getDecksNumber());
+        for (Ship.Type type : Ship.Type.values()) {
+            assertEquals(Ship.Type.getShipsNumber(type), rules.getShipsNumber(type));
+        }
+        assertEquals(37, rules.index(rules.cellOf(37)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooSmallField() {
+        RuleSet.of(7, 4, 3, 2, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFleetDoesNotFit() {
+        RuleSet.of(8, 0, 0, 0, 9);
+    }
+
+    @Test(timeout = 60_000)
+    public void testDenseFleets() {
+        RuleSet[] fleets = {RuleSet.of(8, 4, 3, 2, 1), RuleSet.of(8, 6, 4, 2, 1), RuleSet.of(10, 4, 3, 2, 2),
+                RuleSet.of(8, 8, 0, 0, 0), RuleSet.CLASSIC};
+        for (RuleSet rules : fleets) {
+            for (int seed = 0; seed < 3; seed++) {
+                try {
+                    BattleField field = new BattleField(new AutoFieldBuilder(new Random(seed), rules));
+                    assertTrue(field.allShipsPlaced());
+                    assertEquals(rules.getShipsNumber(), field.getShips().size());
+                } catch (IllegalStateException e) {
+                    assertFalse(rules.equals(RuleSet.CLASSIC) || rules.getShipsNumber(Ship.Type.ONE_DECK) == 8);
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 60_000, expected = IllegalStateException.class)
+    public void testFleetIsNotPlaced() {
+        //the area check passes, but every 2x2 block of the field 8x8 holds at most one of the 17 ships
+        new AutoFieldBuilder(new Random(4), RuleSet.of(8, 17, 0, 0, 0)).getShips();
+    }
+
+    @Test
+    public void testPlaySmallField() {
+        RuleSet rules = RuleSet.of(8, 3, 2, 1, 0);
+        GameRunner runner = new GameRunner(new Random(1), rules);
+        for (int i = 0; i < 200; i++) {
+            GameResult result = runner.play();
+            assertTrue(result.getWinnerShots() >= rules.getDecksNumber());
+            assertTrue(result.getWinnerShots() <= rules.getCellsNumber());
+        }
+    }
+
+    @Test
+    public void testLargeField() {
+        RuleSet rules = RuleSet.of(RuleSet.MAX_FIELD_SIZE, 40, 30, 20, 10);
+        BattleField field = new BattleField(new AutoFieldBuilder(new Random(2), rules));
+        assertTrue(field.allShipsPlaced());
+        assertFalse(field.strike(Cell.of(RuleSet.MAX_FIELD_SIZE, 0)));
+        for (Ship ship : field.getShips().toArray(new Ship[0])) {
+            for (Ship.Deck deck : ship.getDecks()) {
+                assertTrue(field.strike(deck.getCell()));
+            }
+            assertTrue(ship.isDestroyed());
+        }
+        assertTrue(field.isNavyDestroyed());
+        assertTrue(field.getShips().isEmpty());
+        assertTrue(field.allShipsTypeDestroyed(Ship.Type.FOUR_DECK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentRules() {
+        new Game(new BattleField(new AutoFieldBuilder(new Random(3))),
+                new BattleField(new AutoFieldBuilder(new Random(3), RuleSet.of(12, 4, 3, 2, 1))));
+    }
+}
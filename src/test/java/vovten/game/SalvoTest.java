@@ -0,0 +1,177 @@
+package vovten.game;
+
+import org.junit.Test;
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.ai.Outcome;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SalvoTest {
+    private static final RuleSet SALVO = RuleSet.CLASSIC.withSalvo();
+    private final Player firstPlayer = new Player("first", Player.ID.FIRST, false);
+    private final Player secondPlayer = new Player("second", Player.ID.SECOND, false);
+
+    @Test
+    public void testSalvoSinksShip() {
+        Game game = createGame(SALVO, 1);
+        List<GameEvent> events = new ArrayList<>();
+        game.getEvents().subscribe(events::addAll, Runnable::run);
+        game.start(Player.ID.FIRST);
+        events.clear();
+
+        Ship ship = findShip(game.getSecondBattleField(), Ship.Type.FOUR_DECK);
+        List<Cell> cells = new ArrayList<>();
+        for (Ship.Deck deck : ship.getDecks()) {
+            cells.add(deck.getCell());
+        }
+        cells.add(findEmptyCell(game.getSecondBattleField()));
+        SalvoResult result = game.strikeBatch(firstPlayer, cells);
+
+        assertEquals(5, result.size());
+        assertEquals(Arrays.asList(Outcome.HIT, Outcome.HIT, Outcome.HIT, Outcome.SUNK, Outcome.MISS),
+                Arrays.asList(result.getOutcome(0), result.getOutcome(1), result.getOutcome(2),
+                        result.getOutcome(3), result.getOutcome(4)));
+        assertEquals(4, result.getHitsNumber());
+        assertEquals(Arrays.asList(ship), result.getSunkShips());
+        assertEquals(Arrays.asList(result), events);
+        assertTrue(result.isTurnPassed());
+        for (int i = 0; i < 4; i++) {
+            assertFalse(result.getStrike(i).isTurnPassed());
+        }
+        assertTrue(result.getStrike(4).isTurnPassed());
+        assertSame(secondPlayer, game.getCurrentPlayer());
+
+        Terminator terminator = new Terminator(firstPlayer, new HuntingStrategy(new Random(2)), SALVO);
+        terminator.registerSalvo(result);
+        assertEquals(9, terminator.getKnowledge().getRemainingShipsNumber());
+        assertEquals(0, terminator.getKnowledge().getDamagedDecksNumber());
+    }
+
+    @Test
+    public void testBatchStopsAtMissByDefaultRules() {
+        Game game = createGame(RuleSet.CLASSIC, 3);
+        game.start(Player.ID.FIRST);
+        Ship ship = findShip(game.getSecondBattleField(), Ship.Type.TWO_DECK);
+        SalvoResult result = game.strikeBatch(firstPlayer, Arrays.asList(ship.getDecks().get(0).getCell(),
+                findEmptyCell(game.getSecondBattleField()), ship.getDecks().get(1).getCell()));
+
+        assertEquals(2, result.size());
+        assertEquals(Outcome.HIT, result.getOutcome(0));
+        assertEquals(Outcome.MISS, result.getOutcome(1));
+        assertTrue(result.getStrike(1).isTurnPassed());
+        assertFalse(ship.isDestroyed());
+        assertSame(secondPlayer, game.getCurrentPlayer());
+        assertNull(game.strikeBatch(firstPlayer, Arrays.asList(Cell.of(0, 0))));
+    }
+
+    @Test
+    public void testMissInSalvoKeepsTurn() {
+        Game game = createGame(SALVO, 5);
+        game.start(Player.ID.FIRST);
+        Ship ship = findShip(game.getSecondBattleField(), Ship.Type.TWO_DECK);
+        Cell empty = findEmptyCell(game.getSecondBattleField());
+        SalvoResult result = game.strikeBatch(firstPlayer, Arrays.asList(empty, ship.getDecks().get(0).getCell()));
+
+        assertEquals(2, result.size());
+        assertEquals(Outcome.MISS, result.getOutcome(0));
+        assertFalse(result.getStrike(0).isTurnPassed());
+        assertEquals(Outcome.HIT, result.getOutcome(1));
+        assertTrue(result.getStrike(1).isTurnPassed());
+        assertSame(secondPlayer, game.getCurrentPlayer());
+
+        StrikeResult miss = game.strike(secondPlayer, findEmptyCell(game.getFirstBattleField()));
+        assertTrue(miss.isTurnPassed());
+        assertSame(firstPlayer, game.getCurrentPlayer());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSalvoTooLarge() {
+        Game game = createGame(SALVO, 4);
+        game.start(Player.ID.FIRST);
+        List<Cell> cells = new ArrayList<>();
+        for (int x = 0; x <= Game.GENERAL_SHIPS_NUMBER; x++) {
+            cells.add(Cell.of(x % Game.FIELD_SIZE, x / Game.FIELD_SIZE));
+        }
+        game.strikeBatch(firstPlayer, cells);
+    }
+
+    @Test
+    public void testDuplicateCellsAreRejected() {
+        for (RuleSet rules : new RuleSet[]{SALVO, RuleSet.CLASSIC}) {
+            Game game = createGame(rules, 4);
+            List<GameEvent> events = new ArrayList<>();
+            game.getEvents().subscribe(events::addAll, Runnable::run);
+            game.start(Player.ID.FIRST);
+            events.clear();
+            try {
+                game.strikeBatch(firstPlayer, Arrays.asList(Cell.of(0, 0), Cell.of(5, 5), Cell.of(0, 0)));
+                fail("The batch with the same cell twice must be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            assertSame(firstPlayer, game.getCurrentPlayer());
+            assertTrue(events.isEmpty());
+            assertNull(game.getSecondBattleField().getDamagedShip());
+        }
+    }
+
+    @Test
+    public void testGameRunner() {
+        GameRunner runner = new GameRunner(new Random(5), SALVO);
+        for (int i = 0; i < 200; i++) {
+            GameResult result = runner.play();
+            assertTrue(result.getWinnerShots() >= 20);
+            assertTrue(result.getWinnerShots() <= Game.FIELD_SIZE * Game.FIELD_SIZE);
+        }
+    }
+
+    @Test
+    public void testTerminators() throws InterruptedException {
+        ScheduledExecutorService scheduler = AiScheduler.newScheduler(2);
+        Game game = createGame(SALVO, 6);
+        new Terminator(game, firstPlayer, new HuntingStrategy(new Random(7)), scheduler, Pacing.NONE);
+        new Terminator(game, secondPlayer, new HuntingStrategy(new Random(8)), scheduler, Pacing.NONE);
+        CountDownLatch finished = new CountDownLatch(1);
+        game.getEvents().subscribe(events -> {
+            for (GameEvent event : events) {
+                if (event instanceof SalvoResult && ((SalvoResult) event).isGameOver()) finished.countDown();
+            }
+        }, Runnable::run);
+        game.start(Player.ID.FIRST);
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertNotNull(game.getWinner());
+        scheduler.shutdown();
+    }
+
+    private Game createGame(RuleSet rules, long seed) {
+        Random random = new Random(seed);
+        return new Game(new BattleField(new AutoFieldBuilder(random, rules)),
+                new BattleField(new AutoFieldBuilder(random, rules)), firstPlayer, secondPlayer);
+    }
+
+    private static Ship findShip(BattleField field, Ship.Type type) {
+        for (Ship ship : field.getShips()) {
+            if (ship.getType() == type) return ship;
+        }
+        throw new AssertionError("No ship of type " + type);
+    }
+
+    private static Cell findEmptyCell(BattleField field) {
+        for (int x = 0; x < Game.FIELD_SIZE; x++) {
+            for (int y = 0; y < Game.FIELD_SIZE; y++) {
+                if (field.getField()[x][y] == null) return Cell.of(x, y);
+            }
+        }
+        throw new AssertionError("No empty cell");
+    }
+}
@@ -0,0 +1,119 @@
+package vovten.game;
+
+import org.junit.Test;
+import vovten.game.ai.Outcome;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import vovten.util.EventRing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StrikeResultTest {
+    private final Player firstPlayer = new Player("first", Player.ID.FIRST, false);
+    private final Player secondPlayer = new Player("second", Player.ID.SECOND, false);
+
+    @Test
+    public void testSingleEventPerStrike() {
+        Game game = createGame(1);
+        List<GameEvent> events = new ArrayList<>();
+        game.getEvents().subscribe(events::addAll, Runnable::run);
+        game.start(Player.ID.FIRST);
+        events.clear();
+
+        Ship ship = findShip(game.getSecondBattleField(), Ship.Type.TWO_DECK);
+        StrikeResult hit = game.strike(firstPlayer, ship.getDecks().get(0).getCell());
+        assertEquals(Outcome.HIT, hit.getOutcome());
+        assertSame(ship, hit.getShip());
+        assertFalse(hit.isTurnPassed());
+        StrikeResult sunk = game.strike(firstPlayer, ship.getDecks().get(1).getCell());
+        assertEquals(Outcome.SUNK, sunk.getOutcome());
+        assertEquals(ship.getDecks().get(1).getCell(), sunk.getCell());
+        assertSame(firstPlayer, game.getCurrentPlayer());
+
+        Cell empty = findEmptyCell(game.getSecondBattleField());
+        StrikeResult miss = game.strike(firstPlayer, empty);
+        assertEquals(Outcome.MISS, miss.getOutcome());
+        assertNull(miss.getShip());
+        assertTrue(miss.isTurnPassed());
+        assertSame(secondPlayer, game.getCurrentPlayer());
+        assertNull(game.strike(firstPlayer, empty));
+
+        assertEquals(3, events.size());
+        assertSame(hit, events.get(0));
+        assertSame(sunk, events.get(1));
+        assertSame(miss, events.get(2));
+    }
+
+    @Test
+    public void testEventRing() {
+        Game game = createGame(3);
+        EventRing<GameEvent> ring = new EventRing<>(16);
+        EventRing.Reader<GameEvent> reader = ring.newReader(EventRing.Policy.BLOCK);
+        game.setEventRing(ring);
+        game.start(Player.ID.SECOND);
+        StrikeResult miss = game.strike(secondPlayer, findEmptyCell(game.getFirstBattleField()));
+        List<GameEvent> events = new ArrayList<>();
+        reader.poll((event, sequence, endOfBatch) -> events.add(event));
+        assertEquals(Arrays.asList(Game.Status.SP_STRIKE, miss), events);
+    }
+
+    @Test
+    public void testSharedMisses() {
+        StrikeResult miss = StrikeResult.miss(Player.ID.FIRST, Cell.of(3, 4), true);
+        assertSame(miss, StrikeResult.miss(Player.ID.FIRST, Cell.of(3, 4), true));
+        assertNotSame(miss, StrikeResult.miss(Player.ID.SECOND, Cell.of(3, 4), true));
+        StrikeResult salvoMiss = StrikeResult.miss(Player.ID.FIRST, Cell.of(3, 4), false);
+        assertFalse(salvoMiss.isTurnPassed());
+        assertSame(miss, salvoMiss.passTurn());
+        StrikeResult outside = StrikeResult.miss(Player.ID.SECOND, Cell.of(12, 4), true);
+        assertEquals(Cell.of(12, 4), outside.getCell());
+        assertEquals(Player.ID.SECOND, outside.getPlayerId());
+        assertTrue(outside.isTurnPassed());
+    }
+
+    @Test
+    public void testGameOver() {
+        Game game = createGame(2);
+        game.start(Player.ID.SECOND);
+        StrikeResult last = null;
+        for (Ship ship : new ArrayList<>(game.getFirstPlayerShips())) {
+            for (Ship.Deck deck : ship.getDecks()) {
+                last = game.strike(secondPlayer, deck.getCell());
+            }
+        }
+        assertNotNull(last);
+        assertTrue(last.isGameOver());
+        assertEquals(Outcome.SUNK, last.getOutcome());
+        assertTrue(game.isGameOver());
+        assertSame(secondPlayer, game.getWinner());
+    }
+
+    private Game createGame(long seed) {
+        Random random = new Random(seed);
+        return new Game(new BattleField(new AutoFieldBuilder(random)),
+                new BattleField(new AutoFieldBuilder(random)), firstPlayer, secondPlayer);
+    }
+
+    private static Ship findShip(BattleField field, Ship.Type type) {
+        for (Ship ship : field.getShips()) {
+            if (ship.getType() == type) return ship;
+        }
+        throw new AssertionError("No ship of type " + type);
+    }
+
+    private static Cell findEmptyCell(BattleField field) {
+        for (int x = 0; x < Game.FIELD_SIZE; x++) {
+            for (int y = 0; y < Game.FIELD_SIZE; y++) {
+                if (field.getField()[x][y] == null) return Cell.of(x, y);
+            }
+        }
+        throw new AssertionError("No empty cell");
+    }
+}
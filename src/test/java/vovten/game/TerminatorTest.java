@@ -0,0 +1,135 @@
+package vovten.game;
+
+import org.junit.Test;
+import vovten.game.ai.HuntingStrategy;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TerminatorTest {
+
+    @Test
+    public void testSurrenderCancelsStrike() throws Exception {
+        Random random = new Random(1);
+        Player firstPlayer = new Player("first", Player.ID.FIRST, false);
+        Player secondPlayer = new Player("second", Player.ID.SECOND, true);
+        Game game = new Game(new BattleField(new AutoFieldBuilder(random)),
+                new BattleField(new AutoFieldBuilder(random)), firstPlayer, secondPlayer);
+        RecordingScheduler scheduler = new RecordingScheduler();
+        new Terminator(game, firstPlayer, new HuntingStrategy(random), scheduler, Pacing.fixed(60_000));
+
+        game.start(Player.ID.FIRST);
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        assertEquals(1, scheduler.strikes.size());
+        ScheduledFuture<?> strike = scheduler.strikes.get(0);
+        assertFalse(strike.isDone());
+
+        game.surrender(secondPlayer);
+        scheduler.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        assertTrue(strike.isCancelled());
+        assertEquals(1, scheduler.strikes.size());
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testShutdownSchedulerStopsStrikes() {
+        Random random = new Random(4);
+        Player firstPlayer = new Player("first", Player.ID.FIRST, true);
+        Player secondPlayer = new Player("second", Player.ID.SECOND, false);
+        Game game = new Game(new BattleField(new AutoFieldBuilder(random)),
+                new BattleField(new AutoFieldBuilder(random)), firstPlayer, secondPlayer);
+        ScheduledExecutorService scheduler = AiScheduler.newScheduler(1);
+        new Terminator(game, secondPlayer, new HuntingStrategy(random), scheduler, Pacing.NONE);
+        List<GameEvent> received = new ArrayList<>();
+        game.getEvents().subscribe(received::addAll, Runnable::run);
+        scheduler.shutdown();
+
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        List<Throwable> errors = new ArrayList<>();
+        Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+        try {
+            game.start(Player.ID.FIRST);
+            for (int i = 0; game.getCurrentPlayer() == firstPlayer; i++) {
+                game.strike(firstPlayer, Cell.of(i));
+            }
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+        assertEquals(Collections.emptyList(), errors);
+        assertSame(secondPlayer, game.getCurrentPlayer());
+        assertTrue(received.get(received.size() - 1) instanceof StrikeResult);
+    }
+
+    @Test
+    public void testConcurrentGames() throws InterruptedException {
+        final int gamesNumber = 1000;
+        ScheduledExecutorService scheduler = AiScheduler.newScheduler(2);
+        CountDownLatch finished = new CountDownLatch(gamesNumber);
+        Game[] games = new Game[gamesNumber];
+        Random random = new Random(2);
+        for (int i = 0; i < gamesNumber; i++) {
+            Player firstPlayer = new Player("first", Player.ID.FIRST, false);
+            Player secondPlayer = new Player("second", Player.ID.SECOND, false);
+            Game game = new Game(new BattleField(new AutoFieldBuilder(random)),
+                    new BattleField(new AutoFieldBuilder(random)), firstPlayer, secondPlayer);
+            new Terminator(game, firstPlayer, new HuntingStrategy(new Random(i)), scheduler, Pacing.NONE);
+            new Terminator(game, secondPlayer, new HuntingStrategy(new Random(-i)), scheduler, Pacing.NONE);
+            game.getEvents().subscribe(events -> {
+                for (GameEvent event : events) {
+                    if (event instanceof StrikeResult && ((StrikeResult) event).isGameOver()) finished.countDown();
+                }
+            }, Runnable::run);
+            games[i] = game;
+        }
+        for (Game game : games) {
+            game.start(Player.ID.FIRST);
+        }
+        assertTrue(finished.await(60, TimeUnit.SECONDS));
+        for (Game game : games) {
+            assertNotNull(game.getWinner());
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testPacing() {
+        Random random = new Random(3);
+        assertEquals(0, Pacing.NONE.nextDelay(random));
+        assertEquals(200, Pacing.fixed(200).nextDelay(random));
+        for (int i = 0; i < 100; i++) {
+            long delay = Pacing.HUMAN_LIKE.nextDelay(random);
+            assertTrue(delay >= 500 && delay < 1500);
+        }
+    }
+
+    /**
+     * Scheduler which records the delayed strikes, the deliveries of the events are not delayed
+     */
+    private static final class RecordingScheduler extends ScheduledThreadPoolExecutor {
+        private final List<ScheduledFuture<?>> strikes = new CopyOnWriteArrayList<>();
+
+        RecordingScheduler() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = super.schedule(command, delay, unit);
+            if (delay > 0) strikes.add(future);
+            return future;
+        }
+    }
+}
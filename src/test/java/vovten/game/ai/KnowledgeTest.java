@@ -0,0 +1,70 @@
+package vovten.game.ai;
+
+import org.junit.Test;
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+import vovten.game.field.Cell;
+
+import static org.junit.Assert.*;
+
+public class KnowledgeTest {
+
+    @Test
+    public void testDamagedShipDirection() {
+        Knowledge knowledge = new Knowledge();
+        Ship ship = new Ship(Ship.Type.THREE_DECK, Cell.of(4, 2), Ship.Direction.VERTICAL);
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(4, 3), ship));
+        assertNull(knowledge.getDamagedShipDirection());
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(4, 2), ship));
+        assertEquals(Ship.Direction.VERTICAL, knowledge.getDamagedShipDirection());
+        assertEquals(2, knowledge.getDamagedDecksNumber());
+    }
+
+    @Test
+    public void testSalvoDamagesTwoShips() {
+        Knowledge knowledge = new Knowledge(RuleSet.CLASSIC.withSalvo());
+        Ship four = new Ship(Ship.Type.FOUR_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
+        Ship three = new Ship(Ship.Type.THREE_DECK, Cell.of(0, 5), Ship.Direction.HORIZONTAL);
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(0, 0), four, false));
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(0, 5), three, false));
+        //the decks in one column belong to different ships
+        assertEquals(1, knowledge.getDamagedDecksNumber());
+        assertNull(knowledge.getDamagedShipDirection());
+        for (int x = 1; x < 3; x++) {
+            assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(x, 5), three, false));
+            assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(x, 0), four, false));
+        }
+        assertEquals(6, knowledge.getHitCells().cardinality());
+        assertEquals(3, knowledge.getDamagedDecksNumber());
+        assertEquals(Ship.Direction.HORIZONTAL, knowledge.getDamagedShipDirection());
+        for (int x = 0; x < 3; x++) {
+            assertEquals(Cell.of(x, 0), knowledge.getDamagedDeck(x));
+        }
+        try {
+            knowledge.getDamagedDeck(3);
+            fail("The decks of the other ship must not be counted");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void testSinkKeepsOtherDamagedShip() {
+        Knowledge knowledge = new Knowledge(RuleSet.CLASSIC.withSalvo());
+        Ship two = new Ship(Ship.Type.TWO_DECK, Cell.of(3, 3), Ship.Direction.VERTICAL);
+        Ship three = new Ship(Ship.Type.THREE_DECK, Cell.of(5, 3), Ship.Direction.VERTICAL);
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(3, 3), two, false));
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(5, 4), three, false));
+        assertEquals(Outcome.HIT, knowledge.registerStrike(Cell.of(5, 5), three, false));
+        assertEquals(Cell.of(3, 3), knowledge.getDamagedDeck(0));
+        assertEquals(1, knowledge.getDamagedDecksNumber());
+
+        assertEquals(Outcome.SUNK, knowledge.registerStrike(Cell.of(3, 4), two, true));
+        assertEquals(2, knowledge.getDamagedDecksNumber());
+        assertEquals(Cell.of(5, 4), knowledge.getDamagedDeck(0));
+        assertEquals(Cell.of(5, 5), knowledge.getDamagedDeck(1));
+        assertEquals(Ship.Direction.VERTICAL, knowledge.getDamagedShipDirection());
+
+        assertEquals(Outcome.SUNK, knowledge.registerStrike(Cell.of(5, 3), three, true));
+        assertEquals(0, knowledge.getDamagedDecksNumber());
+    }
+}
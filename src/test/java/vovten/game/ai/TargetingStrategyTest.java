@@ -0,0 +1,77 @@
+package vovten.game.ai;
+
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.Ship;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+import vovten.game.simulation.Entrant;
+import vovten.game.simulation.Tournament;
+import vovten.game.simulation.TournamentResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TargetingStrategyTest {
+
+    @Test
+    public void testDensityStrategyBeatsHuntingStrategy() {
+        Tournament tournament = new Tournament(Arrays.asList(
+                new Entrant("Hunting", HuntingStrategy::new), new Entrant("Density", DensityStrategy::new)), 400, 3);
+        TournamentResult result = tournament.run();
+        assertEquals(400, result.getGames());
+        assertTrue(result.getWins(1) > result.getWins(0));
+    }
+
+    @Test
+    public void testMonteCarloStrategy() {
+        MonteCarloStrategy strategy = new MonteCarloStrategy(new Random(1), TimeUnit.MILLISECONDS.toNanos(100),
+                ForkJoinPool.commonPool());
+        assertNotNull(strategy.nextTarget(new Knowledge()));
+        assertTrue(strategy.getLastSamplesNumber() > 0);
+
+        long budget = TimeUnit.MICROSECONDS.toNanos(100);
+
+        Tournament tournament = new Tournament(Arrays.asList(new Entrant("Hunting", HuntingStrategy::new),
+                new Entrant("Monte Carlo", random -> new MonteCarloStrategy(random, budget, ForkJoinPool.commonPool()))),
+                4, 5);
+        assertEquals(4, tournament.run().getGames());
+    }
+
+    @Test
+    public void testEndgameSolver() {
+        BattleField field = new BattleField(new AutoFieldBuilder(new Random(1)));
+        List<Ship> remaining = Arrays.asList(field.getShips().get(0), field.getShips().get(9));
+        Knowledge knowledge = new Knowledge();
+        for (int x = 0; x < Game.FIELD_SIZE; x++) {
+            for (int y = 0; y < Game.FIELD_SIZE; y++) {
+                Ship ship = field.getField()[x][y];
+                if (ship == null ? (x + y) % 3 != 0 : !remaining.contains(ship)) {
+                    strike(field, knowledge, Cell.of(x, y));   //leaves a third of the empty cells unknown
+                }
+            }
+        }
+        assertEquals(2, knowledge.getRemainingShipsNumber());
+
+        EndgameSolver solver = new EndgameSolver(1 << 10);
+        while (!field.isNavyDestroyed()) {
+            Cell cell = solver.solve(knowledge);
+            assertNotNull(cell);
+            assertFalse(knowledge.isStruck(cell.getIndex()));
+            strike(field, knowledge, cell);
+        }
+        assertTrue(solver.getTableHits() > 0);
+    }
+
+    private static void strike(BattleField field, Knowledge knowledge, Cell cell) {
+        knowledge.markStruck(cell);
+        field.strike(cell);
+        knowledge.registerStrike(cell, field.getDamagedShip());
+    }
+}
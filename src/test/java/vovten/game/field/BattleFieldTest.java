@@ -58,6 +58,68 @@ public class BattleFieldTest {
 
     }
 
+    @Test
+    public void testStrikeMultiDeckShip() {
+        ManualFieldBuilder builder = new ManualFieldBuilder();
+        builder.placeShipOnField(new Ship(Ship.Type.THREE_DECK, new Cell(7, 9), Ship.Direction.HORIZONTAL));
+        builder.placeShipOnField(new Ship(Ship.Type.TWO_DECK, new Cell(0, 0), Ship.Direction.VERTICAL));
+        BattleField battleField = new BattleField(builder);
+
+        assertTrue(battleField.strike(new Cell(8, 9)));
+        assertTrue(battleField.strike(new Cell(9, 9)));
+        assertFalse(battleField.getDamagedShip().isDestroyed());
+        assertTrue(battleField.strike(new Cell(7, 9)));
+        assertTrue(battleField.getDamagedShip().isDestroyed());
+        assertTrue(battleField.allShipsTypeDestroyed(Ship.Type.THREE_DECK));
+        assertFalse(battleField.allShipsTypeDestroyed(Ship.Type.TWO_DECK));
+        assertFalse(battleField.isNavyDestroyed());
+
+        battleField.strike(new Cell(0, 0));
+        battleField.strike(new Cell(0, 1));
+        assertTrue(battleField.isNavyDestroyed());
+    }
+
+    @Test
+    public void testRepeatedStrike() {
+        BattleField battleField = createFieldWithThreeOneDeckShips(new Cell(0, 0), new Cell(2, 2), new Cell(3, 3));
+        assertTrue(battleField.strike(new Cell(0, 0)));
+        assertTrue(battleField.strike(new Cell(0, 0)));
+        assertEquals(2, battleField.getOneDeckShipCounter());
+        assertEquals(2, battleField.getShips().size());
+    }
+
+    @Test
+    public void testStrikeByIndex() {
+        BattleField battleField = createFieldWithThreeOneDeckShips(new Cell(0, 0), new Cell(2, 2), new Cell(3, 3));
+        assertSame(Cell.of(2, 2), Cell.of(Cell.index(2, 2)));
+        assertTrue(battleField.strike(Cell.index(2, 2)));
+        assertFalse(battleField.strike(Cell.index(2, 3)));
+        assertNull(battleField.getDamagedShip());
+    }
+
+    @Test
+    public void testCellBounds() {
+        assertEquals(10, Cell.of(10, 0).getX());
+        assertNotSame(Cell.of(0, 1), Cell.of(10, 0));
+        assertFalse(Cell.isInField(10, 0));
+        try {
+            Cell.of(10, 0).getIndex();
+            fail("The index of a cell out of the classic field must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            Cell.of(-1, 0);
+            fail("Negative coordinates must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStrikeIndexOutOfField() {
+        BattleField battleField = createFieldWithThreeOneDeckShips(new Cell(0, 0), new Cell(2, 2), new Cell(3, 3));
+        battleField.strike(100);
+    }
+
     private BattleField createFieldWithThreeOneDeckShips(Cell cell, Cell cell2, Cell cell3) {
         ManualFieldBuilder builder = new ManualFieldBuilder();
         Ship ship = new Ship(Ship.Type.ONE_DECK, cell, Ship.Direction.HORIZONTAL);
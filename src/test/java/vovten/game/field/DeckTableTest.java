@@ -0,0 +1,34 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Ship;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DeckTableTest {
+
+    @Test
+    public void testAgainstHashMap() {
+        DeckTable table = new DeckTable(4);
+        Map<Integer, Ship> expected = new HashMap<>();
+        Ship ship = new Ship(Ship.Type.ONE_DECK, Cell.of(0, 0), Ship.Direction.HORIZONTAL);
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            int index = random.nextInt(500);
+            if (random.nextBoolean()) {
+                table.put(index, ship);
+                expected.put(index, ship);
+            } else {
+                table.remove(index);
+                expected.remove(index);
+            }
+            int probe = random.nextInt(500);
+            assertEquals(expected.get(probe), table.get(probe));
+            assertEquals(expected.size(), table.size());
+        }
+    }
+}
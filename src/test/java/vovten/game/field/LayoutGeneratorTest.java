@@ -0,0 +1,46 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LayoutGeneratorTest {
+
+    @Test
+    public void testNext() {
+        LayoutGenerator generator = new LayoutGenerator(new Random(1));
+        for (int i = 0; i < 10_000; i++) {
+            Layout layout = generator.next();
+            assertEquals(Game.GENERAL_SHIPS_NUMBER, layout.getShipsNumber());
+            BattleField field = new BattleField(new LayoutFieldBuilder(layout));
+            assertTrue(field.allShipsPlaced());
+            assertEquals(1, field.getFourDeckShipCounter());
+            assertEquals(2, field.getThreeDeckShipCounter());
+            assertEquals(3, field.getTwoDeckShipCounter());
+            assertEquals(4, field.getOneDeckShipCounter());
+        }
+    }
+
+    @Test
+    public void testPlacementTableMode() {
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            BattleField field = new BattleField(new AutoFieldBuilder(random, AutoFieldBuilder.Mode.PLACEMENT_TABLE));
+            assertTrue(field.allShipsPlaced());
+            assertEquals(Game.GENERAL_SHIPS_NUMBER, field.getShips().size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTouchingShips() {
+        Placements placements = Placements.getInstance();
+        int[] ids = new int[2];
+        ids[0] = placements.ofType(Ship.Type.ONE_DECK)[0];
+        ids[1] = placements.ofType(Ship.Type.ONE_DECK)[1];
+        new LayoutFieldBuilder(new Layout(ids));
+    }
+}
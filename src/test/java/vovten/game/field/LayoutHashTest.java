@@ -0,0 +1,91 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.Ship;
+import vovten.game.ai.Knowledge;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LayoutHashTest {
+
+    @Test
+    public void testCanonicalHash() {
+        LayoutGenerator generator = new LayoutGenerator(new Random(1));
+        Set<LayoutHash> hashes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Layout layout = generator.next();
+            LayoutHash canonical = LayoutHash.canonical(layout);
+            for (Symmetry symmetry : Symmetry.values()) {
+                Layout image = transform(layout, symmetry);
+                new LayoutFieldBuilder(image);
+                assertEquals(canonical, LayoutHash.canonical(image));
+                assertTrue(canonical.compareTo(LayoutHash.of(image)) <= 0);
+            }
+            hashes.add(canonical);
+        }
+        assertEquals(1000, hashes.size());
+    }
+
+    @Test
+    public void testBattleFieldHash() {
+        Layout layout = new LayoutGenerator(new Random(2)).next();
+        BattleField field = new BattleField(new LayoutFieldBuilder(layout));
+        long initial = field.getHash();
+        assertEquals(initial, new BattleField(new LayoutFieldBuilder(layout)).getHash());
+        Placement placement = layout.getPlacement(0);
+        field.strike(placement.getCell(0));
+        assertNotEquals(initial, field.getHash());
+        long afterHit = field.getHash();
+        field.strike(placement.getCell(0));
+        assertEquals(afterHit, field.getHash());
+    }
+
+    @Test
+    public void testKnowledgeHash() {
+        Layout layout = new LayoutGenerator(new Random(3)).next();
+        int[] cells = new int[Game.FIELD_SIZE * Game.FIELD_SIZE];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        Knowledge forward = play(layout, cells);
+        Random random = new Random(4);
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+        Knowledge shuffled = play(layout, cells);
+        assertEquals(forward.getHash(), shuffled.getHash());
+        assertNotEquals(new Knowledge().getHash(), forward.getHash());
+    }
+
+    private static Knowledge play(Layout layout, int[] cells) {
+        BattleField field = new BattleField(new LayoutFieldBuilder(layout));
+        Knowledge knowledge = new Knowledge();
+        for (int cell : cells) {
+            field.strike(cell);
+            knowledge.registerStrike(Cell.of(cell), field.getDamagedShip());
+        }
+        return knowledge;
+    }
+
+    private static Layout transform(Layout layout, Symmetry symmetry) {
+        Placements placements = Placements.getInstance();
+        int[] ids = new int[layout.getShipsNumber()];
+        for (int i = 0; i < ids.length; i++) {
+            Placement placement = layout.getPlacement(i);
+            int first = symmetry.apply(placement.getCell(0));
+            int last = symmetry.apply(placement.getCell(placement.getDecksNumber() - 1));
+            Ship.Direction direction = Cell.of(first).getY() == Cell.of(last).getY()
+                    ? Ship.Direction.HORIZONTAL : Ship.Direction.VERTICAL;
+            ids[i] = placements.find(placement.getType(), Math.min(first, last), direction);
+        }
+        return new Layout(ids);
+    }
+}
@@ -0,0 +1,77 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class LayoutPoolTest {
+
+    @Test
+    public void testRefill() throws Exception {
+        try (LayoutPool pool = new LayoutPool(10, 1)) {
+            assertEquals(16, pool.getCapacity());
+            awaitFull(pool);
+            for (int i = 0; i < 16; i++) {
+                assertTrue(new BattleField(new LayoutFieldBuilder(pool.take())).allShipsPlaced());
+            }
+            assertEquals(16, pool.getHits());
+            awaitFull(pool);
+            assertTrue(pool.getProduced() >= 32);
+            assertTrue(pool.getMaxRefillLagNanos() >= pool.getMeanRefillLagNanos());
+        }
+    }
+
+    @Test
+    public void testConcurrentTake() throws Exception {
+        int threadsNumber = 4;
+        int takesNumber = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadsNumber);
+        try (LayoutPool pool = new LayoutPool(32, 2)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadsNumber; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < takesNumber; j++) {
+                        Layout layout = pool.take();
+                        assertEquals(Game.GENERAL_SHIPS_NUMBER, layout.getShipsNumber());
+                        new LayoutFieldBuilder(layout);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(threadsNumber * takesNumber, pool.getHits() + pool.getMisses());
+            assertTrue(pool.getHitRate() >= 0 && pool.getHitRate() <= 1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        LayoutPool pool = new LayoutPool(4, 1);
+        awaitFull(pool);
+        pool.close();
+        for (int i = 0; i < 8; i++) {
+            assertNotNull(pool.take());
+        }
+        assertEquals(4, pool.getHits());
+        assertEquals(4, pool.getMisses());
+        assertEquals(0, pool.getSize());
+    }
+
+    private static void awaitFull(LayoutPool pool) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.getSize() < pool.getCapacity()) {
+            assertTrue("Pool is not refilled", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+}
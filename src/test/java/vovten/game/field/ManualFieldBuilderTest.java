@@ -0,0 +1,23 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+
+import static org.junit.Assert.*;
+
+public class ManualFieldBuilderTest {
+
+    @Test
+    public void testRemoveShipOnLargeField() {
+        ManualFieldBuilder builder = new ManualFieldBuilder(RuleSet.of(RuleSet.MAX_FIELD_SIZE, 4, 3, 2, 1));
+        Ship ship = new Ship(Ship.Type.FOUR_DECK, Cell.of(500, 500), Ship.Direction.VERTICAL);
+        assertTrue(builder.isPlaceForShipValid(ship));
+        builder.placeShipOnField(ship);
+        assertSame(ship, builder.getShip(500, 503));
+        assertFalse(builder.isPlaceForShipValid(Ship.Type.ONE_DECK, Cell.of(501, 504), Ship.Direction.HORIZONTAL));
+        builder.removeShipFromField(ship);
+        assertNull(builder.getShip(500, 503));
+        assertTrue(builder.isPlaceForShipValid(Ship.Type.ONE_DECK, Cell.of(501, 504), Ship.Direction.HORIZONTAL));
+    }
+}
@@ -0,0 +1,58 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.RuleSet;
+import vovten.game.Ship;
+import vovten.game.ai.Knowledge;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SparseCellSetTest {
+
+    @Test
+    public void testAgainstBitSet() {
+        int fieldSize = 997;
+        SparseCellSet set = new SparseCellSet(fieldSize);
+        BitSet expected = new BitSet();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            int index = random.nextInt(fieldSize * fieldSize);
+            assertEquals(!expected.get(index), set.add(index));
+            expected.set(index);
+            int probe = random.nextInt(fieldSize * fieldSize);
+            assertEquals(expected.get(probe), set.get(probe));
+        }
+        assertEquals(expected.cardinality(), set.cardinality());
+    }
+
+    @Test
+    public void testMemoryGrowsWithCells() {
+        SparseCellSet set = new SparseCellSet(RuleSet.MAX_FIELD_SIZE);
+        for (int x = 0; x < 64; x++) {
+            set.add(x);
+        }
+        assertEquals(8, set.getTilesNumber());
+        assertEquals(64, set.cardinality());
+    }
+
+    @Test
+    public void testLargeFieldGames() {
+        RuleSet rules = RuleSet.of(RuleSet.MAX_FIELD_SIZE, 4, 3, 2, 1);
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            BattleField field = new BattleField(new AutoFieldBuilder(random, rules));
+            Knowledge knowledge = new Knowledge(rules);
+            for (Ship ship : field.getShips().toArray(new Ship[0])) {
+                for (Ship.Deck deck : ship.getDecks()) {
+                    assertTrue(field.strike(deck.getCell()));
+                    knowledge.registerStrike(deck.getCell(), field.getDamagedShip());
+                }
+            }
+            assertTrue(field.isNavyDestroyed());
+            assertEquals(0, knowledge.getRemainingShipsNumber());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.Ship;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts the tables of the standard fleet, it takes about 20 seconds,
+ * so the test is run only by the slow-tests profile: {@code mvn test -P slow-tests}
+ */
+public class UniformLayoutSamplerIT {
+
+    @Test(timeout = 180_000)
+    public void testStandardFleet() throws Exception {
+        //the builder waits for the tables
+        BattleField field = new BattleField(new AutoFieldBuilder(new Random(3), AutoFieldBuilder.Mode.UNIFORM));
+        assertTrue(field.allShipsPlaced());
+
+        UniformLayoutSampler sampler = UniformLayoutSampler.getIfReady();
+        assertSame(sampler, UniformLayoutSampler.prepare().get());
+        assertTrue(sampler.getLayoutsNumber() > 0);
+        Random random = new Random(4);
+        Set<Layout> layouts = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Layout layout = sampler.next(random);
+            assertEquals(Game.GENERAL_SHIPS_NUMBER, layout.getShipsNumber());
+            for (Ship.Type type : Ship.Type.values()) {
+                int number = 0;
+                for (int k = 0; k < layout.getShipsNumber(); k++) {
+                    if (layout.getPlacement(k).getType() == type) number++;
+                }
+                assertEquals(Ship.Type.getShipsNumber(type), number);
+            }
+            new LayoutFieldBuilder(layout);
+            layouts.add(layout);
+        }
+        assertEquals(1000, layouts.size());
+    }
+}
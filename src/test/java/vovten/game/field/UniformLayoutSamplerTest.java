@@ -0,0 +1,78 @@
+package vovten.game.field;
+
+import org.junit.Test;
+import vovten.game.Ship;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class UniformLayoutSamplerTest {
+
+    @Test
+    public void testLayoutsNumber() {
+        int[][] fleets = {{1, 0, 0, 0}, {0, 0, 0, 1}, {2, 0, 0, 0}, {0, 1, 1, 0}, {0, 1, 1, 1}};
+        for (int[] fleet : fleets) {
+            assertEquals(countLayouts(fleet), new UniformLayoutSampler(fleet).getLayoutsNumber());
+        }
+    }
+
+    @Test
+    public void testUniformity() {
+        UniformLayoutSampler sampler = new UniformLayoutSampler(new int[] {2, 0, 0, 0});
+        int layoutsNumber = (int) sampler.getLayoutsNumber();
+        int samplesNumber = 20 * layoutsNumber;
+        Map<Layout, Integer> frequencies = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < samplesNumber; i++) {
+            frequencies.merge(sampler.next(random), 1, Integer::sum);
+        }
+        assertEquals(layoutsNumber, frequencies.size());
+
+        double chiSquare = 0;
+        for (int frequency : frequencies.values()) {
+            chiSquare += (frequency - 20.0) * (frequency - 20.0) / 20.0;
+        }
+        //the mean is layoutsNumber - 1, the standard deviation is sqrt(2 * (layoutsNumber - 1))
+        assertTrue(chiSquare < layoutsNumber + 5 * Math.sqrt(2.0 * layoutsNumber));
+    }
+
+    @Test
+    public void testNext() {
+        UniformLayoutSampler sampler = new UniformLayoutSampler(new int[] {1, 1, 1, 1});
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            Layout layout = sampler.next(random);
+            assertEquals(4, layout.getShipsNumber());
+            assertEquals(Ship.Type.FOUR_DECK, layout.getPlacement(0).getType());
+            new LayoutFieldBuilder(layout);
+        }
+    }
+
+    private static long countLayouts(int[] fleet) {
+        int[] ships = new int[fleet[0] + fleet[1] + fleet[2] + fleet[3]];
+        int k = 0;
+        for (int t = fleet.length - 1; t >= 0; t--) {
+            for (int i = 0; i < fleet[t]; i++) {
+                ships[k++] = t;
+            }
+        }
+        return countLayouts(ships, 0, -1, 0, 0);
+    }
+
+    private static long countLayouts(int[] ships, int k, int previous, long forbiddenLo, long forbiddenHi) {
+        if (k == ships.length) return 1;
+        Placements placements = Placements.getInstance();
+        long result = 0;
+        for (int id : placements.ofType(Ship.Type.values()[ships[k]])) {
+            if (k > 0 && ships[k] == ships[k - 1] && id <= previous) continue;
+            Placement placement = placements.get(id);
+            if (placement.intersects(forbiddenLo, forbiddenHi)) continue;
+            result += countLayouts(ships, k + 1, id, forbiddenLo | placement.getHaloLo(),
+                    forbiddenHi | placement.getHaloHi());
+        }
+        return result;
+    }
+}
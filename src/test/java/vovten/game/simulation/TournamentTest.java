@@ -0,0 +1,52 @@
+package vovten.game.simulation;
+
+import org.junit.Test;
+import vovten.game.GameRunner;
+import vovten.game.RuleSet;
+import vovten.game.ai.HuntingStrategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+
+    @Test
+    public void testResultDoesNotDependOnThreadsNumber() {
+        List<Entrant> entrants = Arrays.asList(new Entrant("A", HuntingStrategy::new), new Entrant("B", HuntingStrategy::new),
+                new Entrant("C", HuntingStrategy::new));
+        Tournament tournament = new Tournament(entrants, 100, 7);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool multiple = new ForkJoinPool(4);
+        try {
+            TournamentResult first = tournament.run(single);
+            TournamentResult second = tournament.run(multiple);
+            assertEquals(300, first.getGames());
+            for (int i = 0; i < entrants.size(); i++) {
+                assertEquals(first.getAverageShotsToWin(i), second.getAverageShotsToWin(i), 0);
+                for (int j = 0; j < entrants.size(); j++) {
+                    assertEquals(first.getWins(i, j), second.getWins(i, j));
+                }
+            }
+            assertEquals(100, first.getWins(0, 1) + first.getWins(1, 0));
+        } finally {
+            single.shutdown();
+            multiple.shutdown();
+        }
+    }
+
+    @Test
+    public void testWinnerShotsHistogram() {
+        Tournament tournament = new Tournament(Arrays.asList(new Entrant("A", HuntingStrategy::new)), 50, 3);
+        TournamentResult result = tournament.run();
+        int maxShots = GameRunner.getMaxShots(RuleSet.CLASSIC);
+        long games = 0;
+        for (int shots = 0; shots <= maxShots; shots++) {
+            games += result.getGamesWonWithShots(shots);
+        }
+        assertEquals(result.getGames(), games);
+        assertEquals(0, result.getGamesWonWithShots(maxShots + 1));
+    }
+}
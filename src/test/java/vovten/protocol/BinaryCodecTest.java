@@ -0,0 +1,328 @@
+package vovten.protocol;
+
+import org.junit.Assume;
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.GameEvent;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.SalvoResult;
+import vovten.game.StrikeResult;
+import vovten.game.ai.Outcome;
+import vovten.game.field.AutoFieldBuilder;
+import vovten.game.field.BattleField;
+import vovten.game.field.Cell;
+import vovten.game.field.Layout;
+import vovten.game.field.LayoutFieldBuilder;
+import vovten.game.field.LayoutPool;
+import vovten.game.field.Placement;
+import vovten.game.field.Placements;
+
+import java.lang.management.ManagementFactory;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BinaryCodecTest {
+
+    @Test
+    public void testStatuses() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (Game.Status status : Game.Status.values()) {
+            BinaryCodec.putStatus(buffer, status);
+        }
+        buffer.flip();
+        List<Game.Status> statuses = new ArrayList<>();
+        assertEquals(Game.Status.values().length, new BinaryDecoder(new BinaryDecoder.Handler() {
+            @Override
+            public void onStatus(Game.Status status) {
+                statuses.add(status);
+            }
+        }).decode(buffer));
+        assertArrayEquals(Game.Status.values(), statuses.toArray());
+    }
+
+    @Test
+    public void testGame() throws ProtocolException {
+        Layout firstLayout = LayoutPool.getShared().take();
+        Layout secondLayout = LayoutPool.getShared().take();
+        Game game = new Game(new BattleField(new LayoutFieldBuilder(firstLayout)),
+                new BattleField(new LayoutFieldBuilder(secondLayout)),
+                new Player("first", Player.ID.FIRST, false), new Player("second", Player.ID.SECOND, false));
+        List<GameEvent> events = new ArrayList<>();
+        game.getEvents().subscribe(events::addAll, Runnable::run);
+        game.start(Player.ID.FIRST);
+        int[] next = new int[2];
+        while (!game.isGameOver()) {
+            Player player = game.getCurrentPlayer();
+            game.strike(player, Cell.of(next[player.getID().ordinal()]++));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        BinaryCodec.putLayout(buffer, Player.ID.FIRST, firstLayout);
+        BinaryCodec.putLayout(buffer, Player.ID.SECOND, secondLayout);
+        int size = 2 * BinaryCodec.LAYOUT_SIZE;
+        for (GameEvent event : events) {
+            BinaryCodec.putEvent(buffer, event);
+            size += BinaryCodec.getEventSize(event);
+        }
+        assertEquals(size, buffer.position());
+        buffer.flip();
+
+        Recorder recorder = new Recorder();
+        assertEquals(2 + events.size(), new BinaryDecoder(recorder).decode(buffer));
+        assertFalse(buffer.hasRemaining());
+        assertEquals(firstLayout, recorder.layouts.get(0));
+        assertEquals(secondLayout, recorder.layouts.get(1));
+        assertEquals(Game.Status.FP_STRIKE, recorder.status);
+        assertEquals(events.size() - 1, recorder.results.size());
+        for (int i = 0; i < recorder.results.size(); i++) {
+            StrikeResult expected = (StrikeResult) events.get(i + 1);
+            int[] actual = recorder.results.get(i);
+            assertEquals(expected.getPlayerId().ordinal(), actual[0]);
+            assertEquals(expected.getCell().getIndex(), actual[1]);
+            assertEquals(expected.getOutcome().ordinal(), actual[2]);
+            assertEquals(expected.isGameOver() ? 1 : 0, actual[4]);
+            assertEquals(expected.isTurnPassed() ? 1 : 0, actual[5]);
+            if (expected.getOutcome() != Outcome.SUNK) {
+                assertEquals(BinaryCodec.NO_SHIP, actual[3]);
+            } else {
+                Placement placement = Placements.getInstance().get(actual[3]);
+                assertEquals(expected.getShip().getType(), placement.getType());
+                assertEquals(expected.getShip().getPosition(), placement.getPosition());
+            }
+        }
+    }
+
+    @Test
+    public void testPipelining() throws ProtocolException {
+        ByteBuffer stream = ByteBuffer.allocate(256);
+        BinaryCodec.putHello(stream);
+        BinaryCodec.putNewGame(stream, true);
+        BinaryCodec.putWait(stream);
+        BinaryCodec.putGame(stream, Long.MAX_VALUE, Player.ID.SECOND, RuleSet.CLASSIC);
+        for (int i = 0; i < 100; i += 7) {
+            BinaryCodec.putStrike(stream, i);
+        }
+        BinaryCodec.putResult(stream, Player.ID.SECOND, 99, Outcome.SUNK, Placements.getInstance().size() - 1, true,
+                false);
+        BinaryCodec.putError(stream, ErrorCode.NOT_YOUR_TURN);
+        BinaryCodec.putSurrender(stream);
+        stream.flip();
+        int messagesNumber = 4 + 15 + 3;
+
+        Recorder recorder = new Recorder();
+        BinaryDecoder decoder = new BinaryDecoder(recorder);
+        //the stream arrives by the chunks of 3 bytes
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.MAX_MESSAGE_SIZE);
+        int decoded = 0;
+        while (stream.hasRemaining()) {
+            for (int i = 0; i < 3 && stream.hasRemaining(); i++) {
+                buffer.put(stream.get());
+            }
+            buffer.flip();
+            decoded += decoder.decode(buffer);
+            buffer.compact();
+        }
+        assertEquals(0, buffer.position());
+        assertEquals(messagesNumber, decoded);
+        assertEquals("HELLO 1,NEW true,WAIT,GAME 9223372036854775807 SECOND,STRIKE 0,STRIKE 7,STRIKE 14,STRIKE 21,"
+                + "STRIKE 28,STRIKE 35,STRIKE 42,STRIKE 49,STRIKE 56,STRIKE 63,STRIKE 70,STRIKE 77,STRIKE 84,"
+                + "STRIKE 91,STRIKE 98,RESULT,ERROR NOT_YOUR_TURN,SURRENDER", String.join(",", recorder.log));
+        assertArrayEquals(new int[]{1, 99, 2, Placements.getInstance().size() - 1, 1, 0}, recorder.results.get(0));
+    }
+
+    @Test
+    public void testWireCodes() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryCodec.putStatus(buffer, Game.Status.SP_SURRENDERED);
+        BinaryCodec.putError(buffer, ErrorCode.OUT_OF_FIELD);
+        BinaryCodec.putResult(buffer, Player.ID.SECOND, 5, Outcome.SUNK, 7, true, false);
+        BinaryCodec.putResult(buffer, Player.ID.FIRST, 6, Outcome.MISS, BinaryCodec.NO_SHIP, false, true);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(new byte[]{BinaryCodec.STATUS, 3, BinaryCodec.ERROR, 6,
+                BinaryCodec.RESULT, 1 | 2 << 1 | 1 << 3, 5, 0, 7,
+                BinaryCodec.RESULT, 1 << 4, 6, -1, -1}, bytes);
+        for (ErrorCode code : ErrorCode.values()) {
+            assertSame(code, ErrorCode.ofCode(code.getCode()));
+        }
+        assertNull(ErrorCode.ofCode(ErrorCode.values().length));
+    }
+
+    @Test
+    public void testSalvoEnd() throws ProtocolException {
+        Random random = new Random(1);
+        RuleSet salvo = RuleSet.CLASSIC.withSalvo();
+        Game game = new Game(new BattleField(new AutoFieldBuilder(random, salvo)),
+                new BattleField(new AutoFieldBuilder(random, salvo)),
+                new Player("first", Player.ID.FIRST, false), new Player("second", Player.ID.SECOND, false));
+        game.start(Player.ID.FIRST);
+        SalvoResult first = game.strikeBatch(game.getFirstPlayer(), Arrays.asList(Cell.of(0), Cell.of(11), Cell.of(22)));
+        SalvoResult second = game.strikeBatch(game.getSecondPlayer(), Arrays.asList(Cell.of(33), Cell.of(44)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        BinaryCodec.putEvent(buffer, first);
+        BinaryCodec.putEvent(buffer, second);
+        assertEquals(BinaryCodec.getEventSize(first) + BinaryCodec.getEventSize(second), buffer.position());
+        buffer.flip();
+        Recorder recorder = new Recorder();
+        assertEquals(5, new BinaryDecoder(recorder).decode(buffer));
+        int[] turnPassed = new int[5];
+        for (int i = 0; i < 5; i++) {
+            turnPassed[i] = recorder.results.get(i)[5];
+        }
+        assertArrayEquals(new int[]{0, 0, 1, 0, 1}, turnPassed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotClassicGame() {
+        BinaryCodec.putGame(ByteBuffer.allocate(16), 1, Player.ID.FIRST, RuleSet.of(12, 4, 3, 2, 1));
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testUnknownMessage() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        BinaryCodec.putSurrender(buffer);
+        buffer.put((byte) 99);
+        buffer.flip();
+        new BinaryDecoder(new BinaryDecoder.Handler() {
+        }).decode(buffer);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testCellOutOfField() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.put(BinaryCodec.STRIKE).put((byte) 100);
+        buffer.flip();
+        new BinaryDecoder(new BinaryDecoder.Handler() {
+        }).decode(buffer);
+    }
+
+    @Test(expected = ProtocolException.class)
+    public void testHitRevealsNoShip() throws ProtocolException {
+        try {
+            BinaryCodec.putResult(ByteBuffer.allocate(8), Player.ID.FIRST, 5, Outcome.HIT, 7, false, false);
+            fail("The ship of a hit must not be sent");
+        } catch (IllegalArgumentException expected) {
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.put(BinaryCodec.RESULT).put((byte) (1 << 1)).put((byte) 5).putShort((short) 7);
+        buffer.flip();
+        new BinaryDecoder(new BinaryDecoder.Handler() {
+        }).decode(buffer);
+    }
+
+    @Test
+    public void testNoAllocations() throws ProtocolException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        int[] sum = new int[1];
+        BinaryDecoder decoder = new BinaryDecoder(new BinaryDecoder.Handler() {
+            @Override
+            public void onStrike(int cellIndex) {
+                sum[0] += cellIndex;
+            }
+
+            @Override
+            public void onResult(Player.ID playerId, int cellIndex, Outcome outcome, int shipId, boolean gameOver,
+                                 boolean turnPassed) {
+                sum[0] += shipId;
+            }
+
+            @Override
+            public void onStatus(Game.Status status) {
+                sum[0] += status.ordinal();
+            }
+        });
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < 2; round++) {
+            //the first round warms up the code
+            long allocated = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 10_000; i++) {
+                buffer.clear();
+                BinaryCodec.putStatus(buffer, Game.Status.SP_STRIKE);
+                BinaryCodec.putStrike(buffer, i % 100);
+                BinaryCodec.putResult(buffer, Player.ID.FIRST, i % 100, Outcome.SUNK, i % 500, false, false);
+                buffer.flip();
+                decoder.decode(buffer);
+            }
+            allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+            if (round == 1) assertTrue("Allocated " + allocated + " bytes", allocated < 10_000);
+        }
+        assertTrue(sum[0] > 0);
+    }
+
+    /**
+     * Records the decoded messages
+     */
+    private static class Recorder implements BinaryDecoder.Handler {
+        final List<String> log = new ArrayList<>();
+        final List<Layout> layouts = new ArrayList<>();
+        final List<int[]> results = new ArrayList<>();
+        Game.Status status;
+
+        @Override
+        public void onHello(int version) {
+            log.add("HELLO " + version);
+        }
+
+        @Override
+        public void onNewGame(boolean human) {
+            log.add("NEW " + human);
+        }
+
+        @Override
+        public void onStrike(int cellIndex) {
+            log.add("STRIKE " + cellIndex);
+        }
+
+        @Override
+        public void onSurrender() {
+            log.add("SURRENDER");
+        }
+
+        @Override
+        public void onWait() {
+            log.add("WAIT");
+        }
+
+        @Override
+        public void onGame(long id, Player.ID playerId) {
+            log.add("GAME " + id + ' ' + playerId);
+        }
+
+        @Override
+        public void onStatus(Game.Status status) {
+            this.status = status;
+        }
+
+        @Override
+        public void onResult(Player.ID playerId, int cellIndex, Outcome outcome, int shipId, boolean gameOver,
+                             boolean turnPassed) {
+            log.add("RESULT");
+            results.add(new int[]{playerId.ordinal(), cellIndex, outcome.ordinal(), shipId, gameOver ? 1 : 0,
+                    turnPassed ? 1 : 0});
+        }
+
+        @Override
+        public void onLayout(Player.ID playerId, int[] placementIds) {
+            layouts.add(new Layout(placementIds));
+        }
+
+        @Override
+        public void onError(ErrorCode code) {
+            log.add("ERROR " + code);
+        }
+    }
+}
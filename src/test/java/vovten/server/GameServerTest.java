@@ -0,0 +1,427 @@
+package vovten.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.Pacing;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.ai.Outcome;
+import vovten.game.field.Layout;
+import vovten.game.field.LayoutFieldBuilder;
+import vovten.protocol.BinaryCodec;
+import vovten.protocol.BinaryDecoder;
+import vovten.protocol.ErrorCode;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GameServerTest {
+    private SessionManager manager;
+    private GameServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        manager = new SessionManager(2, Pacing.NONE);
+        server = new GameServer(manager, 2);
+        server.start(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        manager.close();
+    }
+
+    @Test
+    public void testGameAgainstTerminator() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("NEW AI alice");
+            String role = client.readGame();
+            Result result = client.play(role);
+            if (result.winner.equals(role)) assertEquals(RuleSet.CLASSIC.getDecksNumber(), result.hits);
+        }
+        awaitSessions(0);
+    }
+
+    @Test
+    public void testHumanGame() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            first.send("NEW HUMAN alice");
+            assertEquals("WAIT", first.read());
+            second.send("NEW HUMAN bob");
+            String firstRole = first.readGame();
+            String secondRole = second.readGame();
+            assertEquals("FIRST", firstRole);
+            assertEquals("SECOND", secondRole);
+            Future<Result> firstResult = executor.submit(() -> first.play(firstRole));
+            Future<Result> secondResult = executor.submit(() -> second.play(secondRole));
+            String winner = firstResult.get(30, TimeUnit.SECONDS).winner;
+            assertEquals(winner, secondResult.get(30, TimeUnit.SECONDS).winner);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.send("STRIKE 1 1");
+            assertEquals("ERROR No game", client.read());
+            client.send("JUMP");
+            assertEquals("ERROR Unknown command", client.read());
+            client.send("NEW HUMAN alice");
+            assertEquals("WAIT", client.read());
+            client.send("NEW AI alice");
+            client.readGame();
+            client.send("STRIKE 10 0");
+            assertEquals("ERROR Cell is out of the field", client.readSkipping("LAYOUT", "TURN", "STRIKE"));
+            client.send("NEW AI alice");
+            assertEquals("ERROR Game is in progress", client.readSkipping("TURN", "STRIKE"));
+            client.send("SURRENDER");
+            assertEquals("SURRENDERED FIRST", client.readSkipping("TURN", "STRIKE"));
+            client.send("STRIKE 1 1");
+            assertEquals("ERROR No game", client.readSkipping("STRIKE"));
+        }
+    }
+
+    @Test
+    public void testDisconnectSurrenders() throws IOException {
+        try (Client second = new Client(server.getPort())) {
+            try (Client first = new Client(server.getPort())) {
+                first.send("NEW HUMAN alice");
+                assertEquals("WAIT", first.read());
+                second.send("NEW HUMAN bob");
+                assertEquals("FIRST", first.readGame());
+                assertEquals("SECOND", second.readGame());
+            }
+            assertEquals("SURRENDERED FIRST", second.readSkipping("LAYOUT", "TURN"));
+        }
+        awaitSessions(0);
+    }
+
+    @Test(timeout = 30_000)
+    public void testFailureClosesOnlyItsConnection() throws IOException {
+        List<Client> idle = new ArrayList<>();
+        try {
+            //the connections are spread over both loops
+            for (int i = 0; i < 4; i++) {
+                idle.add(new Client(server.getPort()));
+            }
+            try (Client client = new Client(server.getPort())) {
+                //the game is rejected by the stopped game loop
+                manager.close();
+                client.send("NEW AI");
+                try {
+                    client.readSkipping("GAME", "LAYOUT");
+                    fail("The connection must be closed");
+                } catch (IOException expected) {
+                }
+            }
+            for (Client client : idle) {
+                client.send("STRIKE 0 0");
+                assertEquals("ERROR No game", client.read());
+            }
+        } finally {
+            for (Client client : idle) {
+                client.close();
+            }
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testBinaryGameAgainstTerminator() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                server.getPort()))) {
+            ByteBuffer output = ByteBuffer.allocate(BinaryCodec.MAX_MESSAGE_SIZE);
+            //the commands are pipelined
+            BinaryCodec.putHello(output);
+            BinaryCodec.putNewGame(output, false);
+            write(channel, output);
+            BinaryClient client = new BinaryClient();
+            BinaryDecoder decoder = new BinaryDecoder(client);
+            //the small buffer splits the messages between the reads
+            ByteBuffer input = ByteBuffer.allocate(BinaryCodec.MAX_MESSAGE_SIZE + 3);
+            while (!client.over) {
+                if (client.playerId != null && client.playerId == client.current && !client.striking) {
+                    BinaryCodec.putStrike(output, client.next++);
+                    write(channel, output);
+                    client.striking = true;
+                }
+                if (channel.read(input) < 0) fail("Connection is closed");
+                input.flip();
+                decoder.decode(input);
+                input.compact();
+            }
+            assertEquals(BinaryCodec.VERSION, client.version);
+            assertNotNull(client.layout);
+            new LayoutFieldBuilder(client.layout);
+            if (client.winner == client.playerId) assertEquals(RuleSet.CLASSIC.getDecksNumber(), client.hits);
+        }
+        awaitSessions(0);
+    }
+
+    @Test(timeout = 30_000)
+    public void testBinaryVersion() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                server.getPort()))) {
+            ByteBuffer output = ByteBuffer.allocate(BinaryCodec.MAX_MESSAGE_SIZE);
+            output.put(BinaryCodec.HELLO).put((byte) (BinaryCodec.VERSION + 1));
+            BinaryCodec.putNewGame(output, false);
+            write(channel, output);
+            List<ErrorCode> errors = new ArrayList<>();
+            BinaryDecoder decoder = new BinaryDecoder(new BinaryDecoder.Handler() {
+                @Override
+                public void onError(ErrorCode code) {
+                    errors.add(code);
+                }
+            });
+            ByteBuffer input = ByteBuffer.allocate(BinaryCodec.MAX_MESSAGE_SIZE);
+            while (errors.size() < 2) {
+                channel.read(input);
+                input.flip();
+                decoder.decode(input);
+                input.compact();
+            }
+            assertEquals(Arrays.asList(ErrorCode.UNSUPPORTED_VERSION, ErrorCode.UNSUPPORTED_VERSION), errors);
+        }
+    }
+
+    @Test
+    public void testManyConnections() throws Exception {
+        int idleNumber = 2000;
+        int gamesNumber = 200;
+        List<Client> idle = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        try {
+            for (int i = 0; i < idleNumber; i++) {
+                idle.add(new Client(server.getPort()));
+            }
+            List<Future<Result>> results = new ArrayList<>();
+            for (int i = 0; i < gamesNumber; i++) {
+                results.add(executor.submit(() -> {
+                    try (Client client = new Client(server.getPort())) {
+                        client.send("NEW AI");
+                        return client.play(client.readGame());
+                    }
+                }));
+            }
+            for (Future<Result> result : results) {
+                assertNotNull(result.get(60, TimeUnit.SECONDS).winner);
+            }
+            //the idle connections are still served
+            for (int i = 0; i < idleNumber; i += 100) {
+                idle.get(i).send("STRIKE 0 0");
+                assertEquals("ERROR No game", idle.get(i).read());
+            }
+            assertEquals(idleNumber + gamesNumber, server.getAcceptedNumber());
+        } finally {
+            executor.shutdownNow();
+            for (Client client : idle) {
+                client.close();
+            }
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.getConnectionsNumber() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getConnectionsNumber());
+    }
+
+    private void awaitSessions(int number) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (manager.getSessionsNumber() != number && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(number, manager.getSessionsNumber());
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer output) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+
+    /**
+     * State of the game decoded by the binary client
+     */
+    private static class BinaryClient implements BinaryDecoder.Handler {
+        int version;
+        Player.ID playerId;
+        Player.ID current;
+        Player.ID winner;
+        Layout layout;
+        boolean striking;
+        boolean over;
+        int next;
+        int hits;
+
+        @Override
+        public void onHello(int version) {
+            this.version = version;
+        }
+
+        @Override
+        public void onGame(long id, Player.ID playerId) {
+            this.playerId = playerId;
+        }
+
+        @Override
+        public void onLayout(Player.ID playerId, int[] placementIds) {
+            assertEquals(this.playerId, playerId);
+            layout = new Layout(placementIds);
+        }
+
+        @Override
+        public void onStatus(Game.Status status) {
+            assertEquals(status == Game.Status.FP_STRIKE ? Player.ID.FIRST : Player.ID.SECOND, status.getPlayerId());
+            current = status.getPlayerId();
+        }
+
+        @Override
+        public void onResult(Player.ID playerId, int cellIndex, Outcome outcome, int shipId, boolean gameOver,
+                             boolean turnPassed) {
+            assertEquals(current, playerId);
+            assertEquals(outcome != Outcome.SUNK, shipId == BinaryCodec.NO_SHIP);
+            assertEquals(outcome == Outcome.MISS, turnPassed);
+            if (playerId == this.playerId) {
+                striking = false;
+                if (outcome != Outcome.MISS) hits++;
+            }
+            if (gameOver) {
+                over = true;
+                winner = playerId;
+            } else if (turnPassed) {
+                current = current == Player.ID.FIRST ? Player.ID.SECOND : Player.ID.FIRST;
+            }
+        }
+
+        @Override
+        public void onError(ErrorCode code) {
+            fail("Unexpected error " + code);
+        }
+    }
+
+    private static class Result {
+        String winner;
+        int hits;
+    }
+
+    /**
+     * Blocking client which strikes the cells of the field in order
+     */
+    private static class Client implements Closeable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final OutputStream output;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(30_000);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            output = socket.getOutputStream();
+        }
+
+        void send(String line) throws IOException {
+            output.write((line + '\n').getBytes(StandardCharsets.US_ASCII));
+            output.flush();
+        }
+
+        String read() throws IOException {
+            String line = reader.readLine();
+            if (line == null) throw new IOException("Connection is closed");
+            return line;
+        }
+
+        /**
+         * @return the first line which does not start with the prefixes
+         */
+        String readSkipping(String... prefixes) throws IOException {
+            while (true) {
+                String line = read();
+                boolean skipped = false;
+                for (String prefix : prefixes) {
+                    skipped |= line.startsWith(prefix);
+                }
+                if (!skipped) return line;
+            }
+        }
+
+        /**
+         * @return role of the player
+         */
+        String readGame() throws IOException {
+            String[] words = readSkipping("WAIT").split(" ");
+            assertEquals("GAME", words[0]);
+            return words[2];
+        }
+
+        Result play(String role) throws IOException {
+            Result result = new Result();
+            String current = null;
+            int next = 0;
+            boolean striking = false;
+            while (true) {
+                if (role.equals(current) && !striking) {
+                    send("STRIKE " + next % 10 + ' ' + next / 10);
+                    next++;
+                    striking = true;
+                }
+                String[] words = read().split(" ");
+                switch (words[0]) {
+                    case "LAYOUT":
+                        assertEquals(role, words[1]);
+                        assertEquals(1 + 1 + Game.GENERAL_SHIPS_NUMBER, words.length);
+                        break;
+                    case "TURN":
+                        current = words[1];
+                        break;
+                    case "STRIKE":
+                        assertEquals(current, words[1]);
+                        if (words[1].equals(role)) {
+                            striking = false;
+                            if (!words[4].equals("MISS")) result.hits++;
+                        }
+                        if (words.length == 6) {
+                            result.winner = words[1];
+                            return result;
+                        }
+                        if (words[4].equals("MISS")) current = current.equals("FIRST") ? "SECOND" : "FIRST";
+                        break;
+                    case "SURRENDERED":
+                        result.winner = words[1].equals("FIRST") ? "SECOND" : "FIRST";
+                        return result;
+                    default:
+                        fail("Unexpected message " + String.join(" ", words));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
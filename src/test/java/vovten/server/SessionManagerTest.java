@@ -0,0 +1,170 @@
+package vovten.server;
+
+import org.junit.Test;
+import vovten.game.Game;
+import vovten.game.GameEvent;
+import vovten.game.Pacing;
+import vovten.game.Player;
+import vovten.game.RuleSet;
+import vovten.game.StrikeResult;
+import vovten.game.field.Cell;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class SessionManagerTest {
+
+    @Test
+    public void testAiGamesOnShards() throws Exception {
+        int gamesNumber = 1000;
+        try (SessionManager manager = new SessionManager(4, Pacing.NONE)) {
+            CountDownLatch finished = new CountDownLatch(gamesNumber);
+            AtomicBoolean confined = new AtomicBoolean(true);
+            for (int i = 0; i < gamesNumber; i++) {
+                //subscribes before the game starts, otherwise the game may be over before the subscription
+                manager.create(new Player("first", Player.ID.FIRST, false),
+                        new Player("second", Player.ID.SECOND, false), session -> {
+                    String loop = "game-loop-" + session.getShardIndex();
+                    session.getActor().getGame().getEvents().subscribe(events -> {
+                        if (!Thread.currentThread().getName().equals(loop)) confined.set(false);
+                        for (GameEvent event : events) {
+                            if (event instanceof StrikeResult && ((StrikeResult) event).isGameOver()) {
+                                finished.countDown();
+                            }
+                        }
+                    }, Runnable::run);
+                });
+            }
+            assertTrue(finished.await(60, TimeUnit.SECONDS));
+            assertTrue(confined.get());
+            assertEquals(0, manager.getSessionsNumber());
+            long created = 0;
+            for (int i = 0; i < manager.getShardsNumber(); i++) {
+                SessionManager.Shard shard = manager.getShard(i);
+                assertTrue(shard.getCreatedGamesNumber() > gamesNumber / 8);
+                assertEquals(shard.getCreatedGamesNumber(), shard.getFinishedGamesNumber());
+                assertEquals(0, shard.getActiveGamesNumber());
+                created += shard.getCreatedGamesNumber();
+            }
+            assertEquals(gamesNumber, created);
+        }
+    }
+
+    @Test
+    public void testHumanGame() throws Exception {
+        try (SessionManager manager = new SessionManager(2, Pacing.NONE)) {
+            SessionManager.Session session = manager.create(new Player("first", Player.ID.FIRST, true),
+                    new Player("second", Player.ID.SECOND, true));
+            assertSame(session, manager.get(session.getId()));
+            Game game = session.getActor().getGame();
+            Player.ID current = session.getActor().call(g -> g.getCurrentPlayer().getID()).get(5, TimeUnit.SECONDS);
+            Player.ID other = current == Player.ID.FIRST ? Player.ID.SECOND : Player.ID.FIRST;
+
+            assertNull(manager.strike(session.getId(), other, Cell.of(0, 0)).get(5, TimeUnit.SECONDS));
+            StrikeResult result = manager.strike(session.getId(), current, Cell.of(0, 0)).get(5, TimeUnit.SECONDS);
+            assertNotNull(result);
+            assertEquals(current, result.getPlayerId());
+
+            manager.surrender(session.getId(), Player.ID.FIRST).get(5, TimeUnit.SECONDS);
+            assertTrue(game.isGameOver());
+            assertEquals(Player.ID.SECOND, game.getWinner().getID());
+            assertNull(manager.get(session.getId()));
+            assertEquals(0, manager.getSessionsNumber());
+        }
+    }
+
+    @Test
+    public void testUnknownGame() throws Exception {
+        try (SessionManager manager = new SessionManager(1)) {
+            assertFailed(IllegalArgumentException.class, manager.strike(42, Player.ID.FIRST, Cell.of(0, 0)));
+            assertFailed(IllegalArgumentException.class,
+                    manager.strikeBatch(42, Player.ID.FIRST, Collections.singletonList(Cell.of(0, 0))));
+            assertFailed(IllegalArgumentException.class, manager.surrender(42, Player.ID.FIRST));
+        }
+    }
+
+    @Test
+    public void testRuleSetGame() throws Exception {
+        try (SessionManager manager = new SessionManager(2, Pacing.NONE)) {
+            RuleSet rules = RuleSet.of(12, 4, 3, 2, 1);
+            SessionManager.Session session = manager.create(new Player("first", Player.ID.FIRST, true),
+                    new Player("second", Player.ID.SECOND, true), rules).get(30, TimeUnit.SECONDS);
+            assertEquals(rules, session.getActor().call(Game::getRuleSet).get(5, TimeUnit.SECONDS));
+            assertSame(session, manager.get(session.getId()));
+
+            //the area check passes, but the fleet does not fit the field
+            CompletableFuture<SessionManager.Session> failed = manager.create(new Player("first", Player.ID.FIRST, true),
+                    new Player("second", Player.ID.SECOND, true), RuleSet.of(8, 17, 0, 0, 0));
+            assertFailed(IllegalStateException.class, failed);
+            assertEquals(1, manager.getSessionsNumber());
+        }
+    }
+
+    @Test
+    public void testIdleGameExpires() throws Exception {
+        try (SessionManager manager = new SessionManager(1, Pacing.NONE, 100)) {
+            CompletableFuture<GameEvent> end = new CompletableFuture<>();
+            SessionManager.Session session = manager.create(new Player("first", Player.ID.FIRST, true),
+                    new Player("second", Player.ID.SECOND, true), s -> s.getActor().getGame().getEvents().subscribe(events -> {
+                for (GameEvent event : events) {
+                    if (SessionManager.isFinal(event)) end.complete(event);
+                }
+            }, Runnable::run));
+            Game game = session.getActor().getGame();
+            Player.ID current = session.getActor().call(g -> g.getCurrentPlayer().getID()).get(5, TimeUnit.SECONDS);
+            GameEvent event = end.get(5, TimeUnit.SECONDS);
+            assertEquals(current == Player.ID.FIRST ? Game.Status.FP_SURRENDERED : Game.Status.SP_SURRENDERED, event);
+            assertTrue(game.isGameOver());
+            assertNull(manager.get(session.getId()));
+        }
+    }
+
+    @Test
+    public void testActiveGameDoesNotExpire() throws Exception {
+        try (SessionManager manager = new SessionManager(1, Pacing.fixed(20), 200)) {
+            SessionManager.Session session = manager.create(new Player("first", Player.ID.FIRST, false),
+                    new Player("second", Player.ID.SECOND, false));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (manager.get(session.getId()) != null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            //the game is won by a strike, not surrendered by the idle player
+            assertTrue(session.getActor().call(g -> g.isGameOver() && (g.getFirstBattleField().isNavyDestroyed()
+                    || g.getSecondBattleField().isNavyDestroyed())).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void assertFailed(Class<? extends Throwable> type, CompletableFuture<?> future)
+            throws InterruptedException, TimeoutException {
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail("The future must fail with " + type.getSimpleName());
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+        }
+    }
+
+    @Test
+    public void testShardsAreDistinct() throws Exception {
+        try (SessionManager manager = new SessionManager(3, Pacing.NONE)) {
+            Set<Integer> shards = new HashSet<>();
+            for (int i = 0; i < 30; i++) {
+                SessionManager.Session session = manager.create(new Player("first", Player.ID.FIRST, true),
+                        new Player("second", Player.ID.SECOND, true));
+                shards.add(session.getShardIndex());
+                CompletableFuture<String> thread = session.getActor().call(g -> Thread.currentThread().getName());
+                assertEquals("game-loop-" + session.getShardIndex(), thread.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(3, shards.size());
+        }
+    }
+}
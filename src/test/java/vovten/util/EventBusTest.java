@@ -0,0 +1,208 @@
+package vovten.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class EventBusTest {
+
+    @Test
+    public void testDirectDelivery() {
+        EventBus<Integer> bus = new EventBus<>();
+        List<Integer> received = new ArrayList<>();
+        EventBus.Subscription<Integer> subscription = bus.subscribe(received::addAll, Runnable::run);
+        bus.publish(1);
+        bus.publish(2);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertEquals(2, subscription.getDeliveredNumber());
+
+        subscription.cancel();
+        bus.publish(3);
+        assertEquals(Arrays.asList(1, 2), received);
+        assertEquals(0, bus.getSubscribersNumber());
+    }
+
+    @Test
+    public void testSlowSubscriberDoesNotBlockPublisher() throws InterruptedException {
+        EventBus<Integer> bus = new EventBus<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        int eventsNumber = 1000;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        EventBus.Subscription<Integer> subscription = bus.subscribe(events -> {
+            awaitQuietly(release);
+            received.addAll(events);
+            if (received.size() == eventsNumber) done.countDown();
+        }, executor, 100);
+        List<Integer> fast = new ArrayList<>();
+        bus.subscribe(fast::addAll, Runnable::run);
+
+        for (int i = 0; i < eventsNumber; i++) {
+            bus.publish(i);
+        }
+        assertEquals(eventsNumber, fast.size());
+        assertTrue(received.isEmpty());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < eventsNumber; i++) {
+            assertEquals(i, (int) received.get(i));
+        }
+        assertEquals(0, subscription.getPendingNumber());
+        assertTrue(subscription.getBatchesNumber() >= eventsNumber / 100);
+        assertTrue(subscription.getBatchesNumber() < eventsNumber);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testConcurrentPublishers() throws InterruptedException {
+        EventBus<Integer> bus = new EventBus<>();
+        int threadsNumber = 4;
+        int eventsNumber = 10_000;
+        long[] sum = new long[1];
+        CountDownLatch done = new CountDownLatch(1);
+        bus.subscribe(events -> {
+            for (int event : events) {
+                sum[0] += event;
+            }
+            if (sum[0] == (long) threadsNumber * eventsNumber * (eventsNumber - 1) / 2) done.countDown();
+        });
+        ExecutorService publishers = Executors.newFixedThreadPool(threadsNumber);
+        for (int i = 0; i < threadsNumber; i++) {
+            publishers.execute(() -> {
+                for (int j = 0; j < eventsNumber; j++) {
+                    bus.publish(j);
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        publishers.shutdown();
+    }
+
+    @Test
+    public void testFailingSubscriber() {
+        EventBus<Integer> bus = new EventBus<>();
+        List<Integer> received = new ArrayList<>();
+        Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        List<Throwable> errors = new ArrayList<>();
+        Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+        try {
+            bus.subscribe(events -> {
+                throw new IllegalStateException("failure");
+            }, Runnable::run);
+            bus.subscribe(received::addAll, Runnable::run);
+            bus.publish(1);
+            bus.publish(2);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+        assertEquals(Arrays.asList(1, 2), received);
+        assertEquals(2, errors.size());
+    }
+
+    @Test
+    public void testInlineDeliveryDoesNotGrowStack() {
+        EventBus<Integer> bus = new EventBus<>();
+        int eventsNumber = 100_000;
+        List<Integer> received = new ArrayList<>();
+        bus.subscribe(events -> {
+            for (Integer event : events) {
+                received.add(event);
+                if (event < eventsNumber) bus.publish(event + 1);
+            }
+        }, Runnable::run, 1);
+        bus.publish(1);
+        assertEquals(eventsNumber, received.size());
+        assertEquals(eventsNumber, (int) received.get(eventsNumber - 1));
+    }
+
+    @Test
+    public void testShutdownExecutorDeliversOnPublisher() {
+        EventBus<Integer> bus = new EventBus<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> received = new ArrayList<>();
+        EventBus.Subscription<Integer> subscription = bus.subscribe(events -> {
+            threads.add(Thread.currentThread());
+            received.addAll(events);
+        }, executor);
+        bus.publish(1);
+        bus.publish(2);
+        assertFalse(subscription.isCancelled());
+        assertEquals(Arrays.asList(1, 2), received);
+        assertEquals(Collections.nCopies(2, Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void testRejectionOnOtherThreadDoesNotRedeliver() throws InterruptedException {
+        EventBus<Integer> bus = new EventBus<>();
+        int eventsNumber = 10;
+        CountDownLatch rejected = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        //the first task is rejected and run by the publisher, the second one is run by the worker,
+        //which is rejected in turn and delivers the rest itself
+        Executor executor = task -> {
+            if (Thread.currentThread() == worker.get()) {
+                rejected.countDown();
+                throw new RejectedExecutionException("Worker");
+            }
+            if (calls.incrementAndGet() == 1) throw new RejectedExecutionException("Publisher");
+            worker.set(new Thread(task, "worker"));
+            worker.get().start();
+            awaitQuietly(rejected);
+            //the worker handles its rejection after the latch
+            sleepQuietly(50);
+        };
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+        bus.subscribe(events -> {
+            if (inside.incrementAndGet() > 1) overlaps.incrementAndGet();
+            if (received.getAndAdd(events.size()) == 0) {
+                //the rest is queued while the first batch is delivered
+                for (int i = 1; i < eventsNumber; i++) {
+                    bus.publish(i);
+                }
+            } else {
+                sleepQuietly(10);
+            }
+            inside.decrementAndGet();
+        }, executor, 1);
+        bus.publish(0);
+        worker.get().join(10_000);
+        assertEquals(0, overlaps.get());
+        assertEquals(eventsNumber, received.get());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
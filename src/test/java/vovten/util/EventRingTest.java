@@ -0,0 +1,125 @@
+package vovten.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventRingTest {
+
+    @Test
+    public void testPoll() {
+        EventRing<Integer> ring = new EventRing<>(5);
+        assertEquals(8, ring.getCapacity());
+        EventRing.Reader<Integer> reader = ring.newReader(EventRing.Policy.BLOCK);
+        for (int i = 0; i < 5; i++) {
+            ring.publish(i);
+        }
+        List<Integer> events = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        assertEquals(3, reader.poll((event, sequence, endOfBatch) -> {
+            assertEquals((long) event, sequence);
+            events.add(event);
+            ends.add(endOfBatch);
+        }, 3));
+        assertEquals(2, reader.getLag());
+        assertEquals(2, reader.poll((event, sequence, endOfBatch) -> events.add(event)));
+        assertEquals(0, reader.poll((event, sequence, endOfBatch) -> fail()));
+        assertEquals(5, events.size());
+        assertEquals(true, ends.get(2));
+        assertEquals(false, ends.get(1));
+    }
+
+    @Test
+    public void testDrop() {
+        EventRing<Integer> ring = new EventRing<>(8);
+        EventRing.Reader<Integer> reader = ring.newReader(EventRing.Policy.DROP);
+        for (int i = 0; i < 20; i++) {
+            ring.publish(i);
+        }
+        assertEquals(0, ring.getStallsNumber());
+        List<Integer> events = new ArrayList<>();
+        reader.poll((event, sequence, endOfBatch) -> events.add(event));
+        assertEquals(13, reader.getDroppedNumber());
+        assertEquals(7, events.size());
+        assertEquals(13, (int) events.get(0));
+        assertEquals(19, (int) events.get(6));
+    }
+
+    @Test(timeout = 10_000)
+    public void testAbandonedReaderIsDowngraded() {
+        EventRing<Integer> ring = new EventRing<>(8, 50, TimeUnit.MILLISECONDS);
+        EventRing.Reader<Integer> abandoned = ring.newReader(EventRing.Policy.BLOCK);
+        EventRing.Reader<Integer> active = ring.newReader(EventRing.Policy.BLOCK);
+        List<Integer> events = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ring.publish(i);
+            active.poll((event, sequence, endOfBatch) -> events.add(event));
+        }
+        assertEquals(20, events.size());
+        assertEquals(1, ring.getDowngradesNumber());
+        assertEquals(EventRing.Policy.DROP, abandoned.getPolicy());
+        assertEquals(EventRing.Policy.BLOCK, active.getPolicy());
+
+        events.clear();
+        abandoned.poll((event, sequence, endOfBatch) -> events.add(event));
+        assertEquals(13, abandoned.getDroppedNumber());
+        assertEquals(7, events.size());
+        assertEquals(19, (int) events.get(6));
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        int eventsNumber = 200_000;
+        EventRing<Long> ring = new EventRing<>(64);
+        EventRing.Reader<Long> fast = ring.newReader(EventRing.Policy.BLOCK);
+        EventRing.Reader<Long> slow = ring.newReader(EventRing.Policy.BLOCK);
+        EventRing.Reader<Long> dropping = ring.newReader(EventRing.Policy.DROP);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Long> fastSum = executor.submit(() -> read(fast, eventsNumber, ring, 0));
+            Future<Long> slowSum = executor.submit(() -> read(slow, eventsNumber, ring, 10));
+            Future<Long> droppingSum = executor.submit(() -> read(dropping, eventsNumber, ring, 10));
+            for (long i = 0; i < eventsNumber; i++) {
+                ring.publish(i);
+            }
+            long expected = (long) eventsNumber * (eventsNumber - 1) / 2;
+            assertEquals(expected, (long) fastSum.get(30, TimeUnit.SECONDS));
+            assertEquals(expected, (long) slowSum.get(30, TimeUnit.SECONDS));
+            assertTrue(droppingSum.get(30, TimeUnit.SECONDS) <= expected);
+            assertTrue(ring.getStallsNumber() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the events checking their order
+     * @return sum of the read events
+     */
+    private static long read(EventRing.Reader<Long> reader, int eventsNumber, EventRing<Long> ring, int workNanos)
+            throws InterruptedException {
+        long[] state = {0, -1};
+        while (state[1] < eventsNumber - 1) {
+            reader.take((event, sequence, endOfBatch) -> {
+                assertEquals((long) event, sequence);
+                assertTrue(event > state[1]);
+                state[0] += event;
+                state[1] = event;
+                long deadline = System.nanoTime() + workNanos;
+                while (System.nanoTime() < deadline) {
+                    Thread.yield();
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            if (reader.getPolicy() == EventRing.Policy.DROP && ring.getCursor() == eventsNumber - 1
+                    && reader.getLag() == 0) break;
+        }
+        return state[0];
+    }
+}